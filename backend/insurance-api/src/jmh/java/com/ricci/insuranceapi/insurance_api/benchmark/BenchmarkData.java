@@ -0,0 +1,137 @@
+package com.ricci.insuranceapi.insurance_api.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+
+import com.ricci.insuranceapi.insurance_api.model.Client;
+import com.ricci.insuranceapi.insurance_api.model.Company;
+import com.ricci.insuranceapi.insurance_api.model.Contract;
+import com.ricci.insuranceapi.insurance_api.model.Person;
+
+/*
+ * Entities of the benchmarks, built in memory (no database):
+ * half persons and half companies, as loaded by the list endpoints.
+ */
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<Client> clients(int size) {
+        List<Client> clients = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            clients.add(i % 2 == 0 ? person(i) : company(i));
+        }
+        return clients;
+    }
+
+    // Same clients behind an initialized lazy proxy, as Contract.client (FetchType.LAZY)
+    static List<Client> proxies(int size) {
+        List<Client> proxies = new ArrayList<>(size);
+        for (Client client : clients(size)) {
+            proxies.add(client instanceof Person person ? new PersonProxy(person) : new CompanyProxy((Company) client));
+        }
+        return proxies;
+    }
+
+    static List<Contract> contracts(int size) {
+        List<Contract> contracts = new ArrayList<>(size);
+        List<Client> clients = proxies(Math.max(size / 4, 1)); // 4 contracts per client
+        for (int i = 0; i < size; i++) {
+            Contract contract = new Contract();
+            contract.setContractId(UUID.randomUUID());
+            contract.setClient(clients.get(i % clients.size()));
+            contract.setStartDate(LocalDateTime.of(2024, 1, 1, 12, 0).plusDays(i % 365));
+            contract.setEndDate(i % 3 == 0 ? LocalDateTime.of(2030, 1, 1, 0, 0) : null);
+            contract.setUpdateDate(LocalDateTime.of(2025, 1, 1, 12, 0).plusMinutes(i));
+            contract.setCostAmount(BigDecimal.valueOf(100 + i % 900, 2));
+            contracts.add(contract);
+        }
+        return contracts;
+    }
+
+    static Person person(int i) {
+        Person person = new Person();
+        person.setClientId(UUID.randomUUID());
+        person.setPhone("+41 79 " + String.format("%03d %02d %02d", i % 1000, i % 100, (i / 100) % 100));
+        person.setEmail("person" + i + "@example.com");
+        person.setName("Person " + i);
+        person.setBirthdate(LocalDate.of(1950 + i % 50, 1 + i % 12, 1 + i % 28));
+        return person;
+    }
+
+    static Company company(int i) {
+        Company company = new Company();
+        company.setClientId(UUID.randomUUID());
+        company.setPhone("+41 44 " + String.format("%03d %02d %02d", i % 1000, i % 100, (i / 100) % 100));
+        company.setEmail("company" + i + "@example.com");
+        company.setName("Company " + i + " SA");
+        company.setCompanyIdentifier("CHE-" + (100_000_000 + i));
+        return company;
+    }
+
+    // ---------------
+    // --- Proxies ---
+    // ---------------
+
+    // Initialized lazy initializer: getImplementation() returns the target, as after the first access
+    private static LazyInitializer initialized(Client target) {
+        return (LazyInitializer) Proxy.newProxyInstance(LazyInitializer.class.getClassLoader(),
+                new Class<?>[] { LazyInitializer.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "getImplementation" -> target;
+                    case "isUninitialized" -> false;
+                    case "getIdentifier", "getInternalIdentifier" -> target.getClientId();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static final class PersonProxy extends Person implements HibernateProxy {
+
+        private final transient LazyInitializer initializer;
+
+        PersonProxy(Person target) {
+            this.initializer = initialized(target);
+        }
+
+        @Override
+        public Object writeReplace() {
+            return initializer.getImplementation();
+        }
+
+        @Override
+        public LazyInitializer getHibernateLazyInitializer() {
+            return initializer;
+        }
+
+    }
+
+    static final class CompanyProxy extends Company implements HibernateProxy {
+
+        private final transient LazyInitializer initializer;
+
+        CompanyProxy(Company target) {
+            this.initializer = initialized(target);
+        }
+
+        @Override
+        public Object writeReplace() {
+            return initializer.getImplementation();
+        }
+
+        @Override
+        public LazyInitializer getHibernateLazyInitializer() {
+            return initializer;
+        }
+
+    }
+
+}
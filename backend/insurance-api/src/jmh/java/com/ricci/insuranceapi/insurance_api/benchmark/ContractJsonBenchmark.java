@@ -0,0 +1,53 @@
+package com.ricci.insuranceapi.insurance_api.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ricci.insuranceapi.insurance_api.dto.ContractGetDto;
+import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
+import com.ricci.insuranceapi.insurance_api.mapper.ContractMapper;
+
+/*
+ * Jackson serialization of a ContractGetDto list, the body of GET /contracts and
+ * GET /clients/{id}/contracts. Same ObjectMapper settings as the application
+ * (Spring Boot: JavaTimeModule, ISO-8601 dates).
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ContractJsonBenchmark {
+
+    @Param({ "10", "100", "10000" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ContractGetDto> contracts;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        contracts = new ContractMapper(new ClientMapper()).toContractGetDtoList(BenchmarkData.contracts(size));
+    }
+
+    @Benchmark
+    public byte[] serializeContracts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(contracts);
+    }
+
+}
@@ -0,0 +1,75 @@
+// https://github.com/openjdk/jmh/blob/master/jmh-samples/src/main/java/org/openjdk/jmh/samples/JMHSample_35_Profilers.java
+
+package com.ricci.insuranceapi.insurance_api.benchmark;
+
+import java.util.Collection;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Runs the JMH micro-benchmarks of this package (mappers, validation, JSON) in a forked JVM,
+ * with the GC profiler: throughput and allocation (B/op and MB/s) of each benchmark.
+ * Results also written to target/jmh-result.json.
+ * Excluded from the default build: mvn test -Pbenchmark -Dtest=JmhBenchmarkTest
+ * [-Dbenchmark.jmh.include=MapperBenchmark -Dbenchmark.jmh.forks=1]
+ */
+
+@Tag("benchmark")
+class JmhBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JmhBenchmarkTest.class);
+
+    @Test
+    void shouldRunMicroBenchmarks() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JmhBenchmarkTest.class.getPackageName() + "\\."
+                        + System.getProperty("benchmark.jmh.include", ".*Benchmark") + "\\.")
+                .forks(Integer.getInteger("benchmark.jmh.forks", 1))
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        LOGGER.info("benchmark | params | ops/s | allocated B/op | allocation MB/s");
+        for (RunResult run : results) {
+            Result<?> primary = run.getPrimaryResult();
+            LOGGER.info("{} | {} | {} +/- {} | {} | {}",
+                    run.getParams().getBenchmark().replace(JmhBenchmarkTest.class.getPackageName() + ".", ""),
+                    run.getParams().getParamsKeys().stream()
+                            .map(key -> key + "=" + run.getParams().getParam(key)).toList(),
+                    Math.round(primary.getScore()), Math.round(primary.getScoreError()),
+                    secondary(run, "gc.alloc.rate.norm"), secondary(run, "gc.alloc.rate"));
+        }
+        // Each benchmark (and parameter set) ran and measured something
+        assertThat(results).isNotEmpty().allSatisfy(run -> {
+            assertThat(run.getPrimaryResult().getScore()).isFinite().isPositive();
+            assertThat(run.getSecondaryResults()).containsKey("gc.alloc.rate.norm");
+        });
+    }
+
+    private long secondary(RunResult run, String name) {
+        Result<?> result = run.getSecondaryResults().get(name);
+        return result == null ? -1 : Math.round(result.getScore());
+    }
+
+}
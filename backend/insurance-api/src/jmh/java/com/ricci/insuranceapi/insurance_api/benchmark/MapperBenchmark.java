@@ -0,0 +1,98 @@
+// https://github.com/openjdk/jmh/tree/master/jmh-samples/src/main/java/org/openjdk/jmh/samples
+
+package com.ricci.insuranceapi.insurance_api.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.ricci.insuranceapi.insurance_api.dto.ClientDto;
+import com.ricci.insuranceapi.insurance_api.dto.ContractGetDto;
+import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
+import com.ricci.insuranceapi.insurance_api.mapper.ContractMapper;
+import com.ricci.insuranceapi.insurance_api.model.Client;
+import com.ricci.insuranceapi.insurance_api.model.Contract;
+
+/*
+ * ClientMapper.toDto / toDtos (plain entities and HibernateProxy unwrap)
+ * and ContractMapper.toContractGetDtoList (clients behind lazy proxies, as loaded by JPA).
+ * The list sizes only apply to the list benchmarks (Lists state), not to a single client.
+ * The results are returned so JMH consumes them (no dead-code elimination).
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MapperBenchmark {
+
+    private final ClientMapper clientMapper = new ClientMapper();
+    private final ContractMapper contractMapper = new ContractMapper(clientMapper);
+
+    // One client, the size of a list does not apply
+    @State(Scope.Benchmark)
+    public static class SingleClient {
+
+        private Client client;
+        private Client proxy;
+
+        @Setup
+        public void setUp() {
+            client = BenchmarkData.clients(1).get(0);
+            proxy = BenchmarkData.proxies(1).get(0);
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class Lists {
+
+        @Param({ "10", "100", "10000" })
+        private int size;
+
+        private List<Client> clients;
+        private List<Client> proxies;
+        private List<Contract> contracts;
+
+        @Setup
+        public void setUp() {
+            clients = BenchmarkData.clients(size);
+            proxies = BenchmarkData.proxies(size);
+            contracts = BenchmarkData.contracts(size);
+        }
+
+    }
+
+    @Benchmark
+    public ClientDto clientToDto(SingleClient single) {
+        return clientMapper.toDto(single.client);
+    }
+
+    @Benchmark
+    public ClientDto clientProxyToDto(SingleClient single) {
+        return clientMapper.toDto(single.proxy);
+    }
+
+    @Benchmark
+    public List<ClientDto> clientsToDtos(Lists lists) {
+        return clientMapper.toDtos(lists.clients);
+    }
+
+    @Benchmark
+    public List<ClientDto> clientProxiesToDtos(Lists lists) {
+        return clientMapper.toDtos(lists.proxies);
+    }
+
+    @Benchmark
+    public List<ContractGetDto> contractsToContractGetDtoList(Lists lists) {
+        return contractMapper.toContractGetDtoList(lists.contracts);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.ricci.insuranceapi.insurance_api.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.ricci.insuranceapi.insurance_api.dto.PersonDto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/*
+ * @SwissPhoneNumber through Bean Validation, as @Valid on POST /clients/persons:
+ * the phone alone, and the whole PersonDto (phone, email, sizes, birthdate).
+ * An invalid phone also builds the violation and its message.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SwissPhoneNumberBenchmark {
+
+    @Param({ "+41 79 123 45 67", "0791234567", "+1 555 123 4567" })
+    private String phone;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private PersonDto person;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        person = new PersonDto();
+        person.setPhone(phone);
+        person.setEmail("alice@example.com");
+        person.setName("Alice Dupont");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PersonDto>> validatePhone() {
+        return validator.validateProperty(person, "phone");
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PersonDto>> validatePerson() {
+        return validator.validate(person);
+    }
+
+}
@@ -2,10 +2,12 @@ package com.ricci.insuranceapi.insurance_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @SpringBootApplication
+@EnableScheduling // ClientCostSummaryService.foldExpiredContracts
 @RestController
 public class InsuranceApiApplication {
 
@@ -0,0 +1,76 @@
+// https://docs.spring.io/spring-boot/reference/features/spring-application.html#features.spring-application.command-line-runner
+// https://docs.spring.io/spring-boot/reference/features/spring-application.html#features.spring-application.application-exit
+
+package com.ricci.insuranceapi.insurance_api.cli;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.ricci.insuranceapi.insurance_api.service.BulkLoadReport;
+import com.ricci.insuranceapi.insurance_api.service.BulkLoadService;
+import com.ricci.insuranceapi.insurance_api.service.BulkLoadType;
+
+/*
+ * Command line of the offline bulk load (profile bulk-load, see application-bulk-load.properties):
+ * --type=persons|companies|contracts --file=<csv> [--rejected=<csv>, default <file>.rejected.csv]
+ * Exit code: 0 all rows loaded, 1 some rows rejected, 2 load failed.
+ */
+
+@Component
+@Profile("bulk-load")
+public class BulkLoadCommand implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkLoadCommand.class);
+
+    private final BulkLoadService bulkLoadService;
+    private final ApplicationContext context;
+
+    @Autowired
+    public BulkLoadCommand(BulkLoadService bulkLoadService, ApplicationContext context) {
+        this.bulkLoadService = bulkLoadService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode;
+        try {
+            BulkLoadType type = BulkLoadType.parse(requiredOption(args, "type"));
+            Path file = Path.of(requiredOption(args, "file"));
+            Path rejected = args.containsOption("rejected")
+                    ? Path.of(requiredOption(args, "rejected"))
+                    : Path.of(file + ".rejected.csv");
+
+            BulkLoadReport report = bulkLoadService.load(type, file, rejected);
+            LOGGER.info("Bulk load of {}: {} rows in {} chunks, {} loaded, {} rejected ({}), {} ms, {} rows/s, {} MB/s",
+                    report.type(), report.rows(), report.chunks(), report.loaded(), report.rejected(), rejected,
+                    report.elapsed().toMillis(), Math.round(report.rowsPerSecond()),
+                    String.format("%.1f", report.megabytesPerSecond()));
+            exitCode = report.rejected() == 0 ? 0 : 1;
+        } catch (Exception ex) {
+            LOGGER.error("Bulk load failed: {}", ex.getMessage(), ex);
+            exitCode = 2;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private String requiredOption(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        if (values == null || values.size() != 1 || values.get(0).isBlank()) {
+            throw new IllegalArgumentException("Missing option --" + name + "=...");
+        }
+        return values.get(0);
+    }
+
+}
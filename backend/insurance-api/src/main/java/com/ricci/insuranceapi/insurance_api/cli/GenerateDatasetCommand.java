@@ -0,0 +1,85 @@
+// https://docs.spring.io/spring-boot/reference/features/spring-application.html#features.spring-application.command-line-runner
+// https://docs.spring.io/spring-boot/reference/features/spring-application.html#features.spring-application.application-exit
+
+package com.ricci.insuranceapi.insurance_api.cli;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.ricci.insuranceapi.insurance_api.service.DatasetGeneratorService;
+import com.ricci.insuranceapi.insurance_api.service.DatasetReport;
+import com.ricci.insuranceapi.insurance_api.service.DatasetSpec;
+
+/*
+ * Command line of the synthetic dataset generator
+ * (profile generate-dataset, see application-generate-dataset.properties):
+ * --persons=<n> --companies=<n> [--contracts-per-client=10 --skew=1.5 --max-contracts-per-client=10000
+ * --ended-ratio=0.3 --future-ratio=0.3 --seed=42 --offset=0]
+ * Exit code: 0 all clients inserted, 1 some clients skipped (already taken), 2 generation failed.
+ */
+
+@Component
+@Profile("generate-dataset")
+public class GenerateDatasetCommand implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerateDatasetCommand.class);
+
+    private final DatasetGeneratorService datasetGeneratorService;
+    private final ApplicationContext context;
+
+    @Autowired
+    public GenerateDatasetCommand(DatasetGeneratorService datasetGeneratorService, ApplicationContext context) {
+        this.datasetGeneratorService = datasetGeneratorService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode;
+        try {
+            DatasetSpec spec = new DatasetSpec(
+                    Long.parseLong(option(args, "persons", null)),
+                    Long.parseLong(option(args, "companies", null)),
+                    Double.parseDouble(option(args, "contracts-per-client", "10")),
+                    Double.parseDouble(option(args, "skew", "1.5")),
+                    Integer.parseInt(option(args, "max-contracts-per-client", "10000")),
+                    Double.parseDouble(option(args, "ended-ratio", "0.3")),
+                    Double.parseDouble(option(args, "future-ratio", "0.3")),
+                    Long.parseLong(option(args, "seed", "42")),
+                    Long.parseLong(option(args, "offset", "0")));
+
+            DatasetReport report = datasetGeneratorService.generate(spec);
+            LOGGER.info("Dataset: {} persons, {} companies, {} contracts in {} chunks, {} clients skipped, {} ms, {} rows/s",
+                    report.persons(), report.companies(), report.contracts(), report.chunks(), report.skipped(),
+                    report.elapsed().toMillis(), Math.round(report.rowsPerSecond()));
+            exitCode = report.skipped() == 0 ? 0 : 1;
+        } catch (Exception ex) {
+            LOGGER.error("Dataset generation failed: {}", ex.getMessage(), ex);
+            exitCode = 2;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    // Required when there is no default value
+    private String option(ApplicationArguments args, String name, String defaultValue) {
+        List<String> values = args.getOptionValues(name);
+        if (values == null && defaultValue != null) {
+            return defaultValue;
+        }
+        if (values == null || values.size() != 1 || values.get(0).isBlank()) {
+            throw new IllegalArgumentException("Missing option --" + name + "=...");
+        }
+        return values.get(0).strip();
+    }
+
+}
@@ -0,0 +1,74 @@
+// https://docs.micrometer.io/micrometer/reference/concepts/gauges.html
+// https://docs.spring.io/spring-boot/reference/actuator/metrics.html#actuator.metrics.registering-custom
+
+package com.ricci.insuranceapi.insurance_api.config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ricci.insuranceapi.insurance_api.repository.ActiveContractTotals;
+import com.ricci.insuranceapi.insurance_api.repository.ClientCostSummaryRepository;
+import com.ricci.insuranceapi.insurance_api.service.ClientService;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/*
+ * Business gauges of the /actuator/prometheus scrape: active contracts, their total cost and the clients.
+ * A scrape never queries the database: the gauges read the last totals, refreshed every
+ * api.metrics.business.refresh-interval from client_cost_summary (one row per client, not the contracts),
+ * and the client count is the planner estimate (pg_class.reltuples, as GET /clients?count=estimated).
+ * Contracts ended or inserted outside the API are counted at the next fold (api.cost-summary.fold-interval).
+ */
+
+@Component
+public class BusinessMetrics implements MeterBinder {
+
+    private final ClientCostSummaryRepository summaryRepository;
+    private final ClientService clientService;
+    // NaN until the first refresh (no value rather than a wrong zero)
+    private final AtomicReference<Totals> totals =
+            new AtomicReference<>(new Totals(Double.NaN, Double.NaN, Double.NaN));
+
+    @Autowired
+    public BusinessMetrics(ClientCostSummaryRepository summaryRepository, ClientService clientService) {
+        this.summaryRepository = summaryRepository;
+        this.clientService = clientService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("insurance.contracts.active", totals, current -> current.get().activeContracts())
+                .description("Active contracts (no end date or ending in the future), lags by at most one fold interval")
+                .baseUnit("contracts")
+                .register(registry);
+        Gauge.builder("insurance.contracts.active.cost", totals, current -> current.get().activeCost())
+                .description("Sum of the cost amounts of the active contracts, lags by at most one fold interval")
+                .register(registry);
+        Gauge.builder("insurance.clients.estimated", totals, current -> current.get().clients())
+                .description("Clients, planner estimate")
+                .baseUnit("clients")
+                .register(registry);
+    }
+
+    // First refresh at startup, then after each interval
+    @Scheduled(fixedDelayString = "${api.metrics.business.refresh-interval:PT1M}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        ActiveContractTotals sums = summaryRepository.sumActiveContracts();
+        Long clients = clientService.estimateClientCount();
+        totals.set(new Totals(
+                sums.getActiveContracts(),
+                sums.getActiveCost().doubleValue(),
+                clients == null ? Double.NaN : clients));
+    }
+
+    private record Totals(double activeContracts, double activeCost, double clients) {
+    }
+
+}
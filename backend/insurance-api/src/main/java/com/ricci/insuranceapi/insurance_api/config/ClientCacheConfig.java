@@ -0,0 +1,65 @@
+// https://docs.hibernate.org/orm/6.6/userguide/html_single/Hibernate_User_Guide.html#caching-provider-jcache
+// https://github.com/ben-manes/caffeine/wiki/JCache
+// https://docs.spring.io/spring-boot/how-to/data-access.html#howto.data-access.jpa-properties
+
+package com.ricci.insuranceapi.insurance_api.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/*
+ * Second-level cache of the clients (@Cache region "client" on Client, shared by Person and Company).
+ * Hibernate uses the JCache API, Caffeine stores the entries in memory.
+ * The region is created here with its size and TTL (api.cache.client.*), Hibernate fails
+ * at startup for any other region instead of creating it with the defaults.
+ * READ_WRITE: the entry is replaced after the commit of partialUpdate / deleteClient.
+ * Hit / miss statistics: JMX MBean javax.cache:type=CacheStatistics,Cache=client,...
+ */
+
+@Configuration
+public class ClientCacheConfig {
+
+    public static final String CLIENT_REGION = "client";
+
+    // Own cache manager for each application context (the tests start several of them),
+    // closed by Hibernate with the session factory
+    @Bean
+    public CacheManager hibernateCacheManager(
+            @Value("${spring.application.name}") String applicationName,
+            @Value("${api.cache.client.max-size:10000}") long maxSize,
+            @Value("${api.cache.client.time-to-live:PT10M}") Duration timeToLive) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:" + applicationName + ":" + UUID.randomUUID()), null);
+
+        CaffeineConfiguration<Object, Object> client = new CaffeineConfiguration<>()
+                .setStoreByValue(false) // Hibernate already stores disassembled entries
+                .setMaximumSize(OptionalLong.of(maxSize))
+                .setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()))
+                .setStatisticsEnabled(true);
+        cacheManager.createCache(CLIENT_REGION, client);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+}
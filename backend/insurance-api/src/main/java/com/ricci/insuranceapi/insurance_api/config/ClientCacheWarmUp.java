@@ -0,0 +1,50 @@
+package com.ricci.insuranceapi.insurance_api.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.ricci.insuranceapi.insurance_api.service.ClientService;
+
+/*
+ * Preloads the most recently updated clients into the second-level cache
+ * once the application is started (api.cache.client.warm-up, 0 to disable),
+ * so the first GET /clients/{id} and POST /contracts do not all go to the database.
+ */
+
+@Component
+public class ClientCacheWarmUp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientCacheWarmUp.class);
+
+    private final ClientService clientService;
+    private final int warmUp;
+
+    @Autowired
+    public ClientCacheWarmUp(
+            ClientService clientService,
+            @Value("${api.cache.client.warm-up:0}") int warmUp) {
+        this.clientService = clientService;
+        this.warmUp = warmUp;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUp > 0) {
+            // Only an optimization: the application still starts if the read fails
+            // (e.g. replica not migrated yet), the cache then fills on the first reads
+            try {
+                int loaded = clientService.warmUpCache(warmUp);
+                LOGGER.info("Client cache warmed up with {} clients", loaded);
+            } catch (DataAccessException ex) {
+                LOGGER.warn("Client cache warm-up skipped: {}", ex.getMessage());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+// https://docs.spring.io/spring-framework/reference/data-access/jdbc/connections.html#jdbc-LazyConnectionDataSourceProxy
+// https://docs.spring.io/spring-boot/how-to/data-access.html#howto.data-access.configure-two-datasources
+
+package com.ricci.insuranceapi.insurance_api.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/*
+ * Read/write routing, only when a replica is configured (api.datasource.replica.jdbc-url).
+ * The connection is taken at the first statement (LazyConnectionDataSourceProxy):
+ * @Transactional(readOnly = true) -> replica pool (primary if unavailable), otherwise primary.
+ * Flyway and the write transactions always use the primary.
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "api.datasource.replica", name = "jdbc-url")
+public class DataSourceRoutingConfig {
+
+    // Same pool as without routing (spring.datasource.*)
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Started on the first read, so the application also starts without the replica
+    @Bean
+    @ConfigurationProperties("api.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${api.datasource.replica-retry-after:PT30S}") Duration retryAfter) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(new ReplicaFallbackDataSource(replica, primary, retryAfter));
+        return routing;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.ricci.insuranceapi.insurance_api.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/*
+ * Replica pool used for the read-only transactions (DataSourceRoutingConfig).
+ * If the replica is unavailable, the connection is taken from the primary
+ * and the replica is not tried again before the retry delay.
+ */
+
+public class ReplicaFallbackDataSource extends DelegatingDataSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaFallbackDataSource.class);
+
+    private final DataSource primary;
+    private final Duration retryAfter;
+    private volatile Instant replicaDownUntil = Instant.MIN;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, Duration retryAfter) {
+        super(replica);
+        this.primary = primary;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (Instant.now().isBefore(replicaDownUntil)) {
+            return primary.getConnection();
+        }
+        try {
+            return super.getConnection();
+        } catch (SQLException | RuntimeException ex) {
+            // RuntimeException: Hikari fails to start a pool with a PoolInitializationException
+            LOGGER.warn("Read replica unavailable, reads go to the primary for {}: {}", retryAfter, ex.getMessage());
+            replicaDownUntil = Instant.now().plus(retryAfter);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+}
@@ -3,28 +3,42 @@ package com.ricci.insuranceapi.insurance_api.controller;
 import com.ricci.insuranceapi.insurance_api.dto.ClientDto;
 import com.ricci.insuranceapi.insurance_api.dto.ClientPatchDto;
 import com.ricci.insuranceapi.insurance_api.dto.ContractGetDto;
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
 import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
 import com.ricci.insuranceapi.insurance_api.mapper.ContractMapper;
 import com.ricci.insuranceapi.insurance_api.model.Client;
+import com.ricci.insuranceapi.insurance_api.model.ClientType;
 import com.ricci.insuranceapi.insurance_api.model.Contract;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRow;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRow;
+import com.ricci.insuranceapi.insurance_api.service.ClientDeletion;
 import com.ricci.insuranceapi.insurance_api.service.ClientService;
 import com.ricci.insuranceapi.insurance_api.service.ContractService;
+import com.ricci.insuranceapi.insurance_api.service.ExportService;
+import com.ricci.insuranceapi.insurance_api.utils.CountMode;
+import com.ricci.insuranceapi.insurance_api.utils.ETagUtils;
+import com.ricci.insuranceapi.insurance_api.utils.ExportFormat;
+import com.ricci.insuranceapi.insurance_api.utils.KeysetCursor;
 import com.ricci.insuranceapi.insurance_api.utils.PaginationUtils;
 
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -40,6 +54,8 @@ public class ClientController {
     private final ContractService contractService;
     private final ContractMapper contractMapper;
     private final PaginationUtils paginationUtils;
+    private final ETagUtils etagUtils;
+    private final ExportService exportService;
 
     @Autowired
     public ClientController(
@@ -47,37 +63,101 @@ public class ClientController {
             ClientMapper clientMapper,
             ContractService contractService,
             ContractMapper contractMapper,
-            PaginationUtils paginationUtils) {
+            PaginationUtils paginationUtils,
+            ETagUtils etagUtils,
+            ExportService exportService) {
         this.clientService = clientService;
         this.clientMapper = clientMapper;
         this.contractService = contractService;
         this.paginationUtils = paginationUtils;
         this.contractMapper = contractMapper;
+        this.etagUtils = etagUtils;
+        this.exportService = exportService;
     }
 
-    // GET /api/v_/clients?page=0&size=5&sortBy=name&sortDir=asc
+    // GET /api/v_/clients?page=0&size=5&sortBy=name&sortDir=asc&count=exact (exact, none or estimated)
+    // GET /api/v_/clients?type=PERSON (PERSON or COMPANY, offset pagination only)
+    // GET /api/v_/clients?cursor=&size=5&sortBy=name&sortDir=asc (keyset, "next" in the Link header)
     @GetMapping
     public ResponseEntity<List<ClientDto>> getAllClients(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) ClientType type, // 400 if unknown → GlobalExceptionHandler
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            if (type != null) {
+                throw new ClientInvalidDataException("Cursor pagination does not support the type filter");
+            }
+            return getClientsByCursor(cursor, size, sortBy, sortDir);
+        }
 
         PageRequest pageRequest = this.paginationUtils.buildPageRequest(page, size, sortBy, sortDir);
-        Page<Client> clients = clientService.getAllClients(pageRequest);
+        CountMode countMode = this.paginationUtils.parseCountMode(count);
+        Slice<ClientRow> clients = clientService.getAllClientRows(pageRequest, countMode, type);
+        Long estimate = countMode == CountMode.ESTIMATED ? clientService.estimateClientCount(type) : null;
+        HttpHeaders headers = this.paginationUtils.buildCountHeaders(clients, estimate);
+
+        if (clients.isEmpty()) {
+            return ResponseEntity.noContent().headers(headers).build(); // 204 No Content
+        } else {
+            return ResponseEntity.ok().headers(headers).body(clientMapper.rowsToDtos(clients.getContent())); // 200 OK
+        }
+    }
+
+    // Keyset pagination: one extra row tells if there is a next page
+    private ResponseEntity<List<ClientDto>> getClientsByCursor(String cursor, int size, String sortBy, String sortDir) {
+        this.paginationUtils.checkKeysetRequest(size, sortBy, "name");
+        KeysetCursor after = this.paginationUtils.decodeCursor(cursor);
+        boolean descending = this.paginationUtils.isDescending(sortDir);
+        List<Client> clients = clientService.getClientsByName(after, size + 1, descending);
 
         if (clients.isEmpty()) {
             return ResponseEntity.noContent().build(); // 204 No Content
+        } else if (clients.size() <= size) {
+            return ResponseEntity.ok(clientMapper.toDtos(clients)); // 200 OK, last page
         } else {
-            return ResponseEntity.ok(clientMapper.toDtos(clients.getContent())); // 200 OK
+            List<Client> content = clients.subList(0, size);
+            Client last = content.get(size - 1);
+            String name = last.getName() == null ? "" : last.getName();
+            String next = this.paginationUtils.buildNextLink(new KeysetCursor(name, last.getClientId()));
+            return ResponseEntity.ok().header(HttpHeaders.LINK, next).body(clientMapper.toDtos(content)); // 200 OK
         }
     }
 
+    // GET /api/v_/clients/export?format=ndjson (ndjson or csv)
+    // All the clients, streamed from a database cursor as they are read (ExportService)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportClients(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format); // 400 Bad Request → GlobalExceptionHandler
+        ContentDisposition attachment = ContentDisposition.attachment()
+                .filename("clients." + exportFormat.getExtension())
+                .build();
+        StreamingResponseBody body = out -> exportService.exportClients(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment.toString())
+                .body(body); // 200 OK, rows written after the headers
+    }
+
     // GET /api/v_/clients/{id}
+    // ETag = client version, If-None-Match → 304 after reading only the version (second-level cache or primary)
     @GetMapping("/{id}")
-    public ResponseEntity<ClientDto> getClient(@PathVariable UUID id) {
+    public ResponseEntity<ClientDto> getClient(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = etagUtils.fromVersions(clientService.getClientVersion(id)); // 404 → GlobalExceptionHandler
+            if (etagUtils.matches(ifNoneMatch, etag)) {
+                return etagUtils.notModified(etag); // 304 Not Modified
+            }
+        }
         Client client = clientService.getClient(id); // 404 Not Found → GlobalExceptionHandler
-        return ResponseEntity.ok(clientMapper.toDto(client)); // 200 OK
+        String etag = etagUtils.fromVersions(client.getVersion());
+        return ResponseEntity.ok().eTag(etag).body(clientMapper.toDto(client)); // 200 OK
     }
 
     // PATCH /api/v_/clients/{id}
@@ -88,10 +168,13 @@ public class ClientController {
     }
 
     // DELETE /api/v_/clients/{id}
+    // The number of contracts closed with the client is in the X-Closed-Contracts header
     @DeleteMapping("/{id}")
     public ResponseEntity<ClientDto> deleteClient(@PathVariable UUID id) {
-        Client deleted = clientService.deleteClient(id); // 404 Not Found → GlobalExceptionHandler
-        return ResponseEntity.ok(clientMapper.toDto(deleted)); // 200 OK with client (soft delete)
+        ClientDeletion deletion = clientService.deleteClient(id); // 404 Not Found → GlobalExceptionHandler
+        return ResponseEntity.ok()
+                .header("X-Closed-Contracts", String.valueOf(deletion.closedContracts()))
+                .body(clientMapper.toDto(deletion.client())); // 200 OK with client (soft delete)
     }
 
     // -----------------------------------------------
@@ -99,13 +182,20 @@ public class ClientController {
     // -----------------------------------------------
 
     // GET /api/v_/clients/{id}/contracts
+    // ETag = digest of the contract (and client) versions, If-None-Match → 304 without mapping the rows
     @GetMapping("/{id}/contracts")
-    public ResponseEntity<List<ContractGetDto>> getContractsByClient(@PathVariable UUID id) {
-        List<Contract> contracts = contractService.getActiveContracts(id);
+    public ResponseEntity<List<ContractGetDto>> getContractsByClient(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<ContractRow> contracts = contractService.getActiveContractRows(id);
         if (contracts.isEmpty()) {
             return ResponseEntity.noContent().build(); // 204 No Content
         }
-        return ResponseEntity.ok(contractMapper.toContractGetDtoList(contracts)); // 200 OK
+        String etag = etagUtils.fromContractRows(contracts);
+        if (etagUtils.matches(ifNoneMatch, etag)) {
+            return etagUtils.notModified(etag); // 304 Not Modified
+        }
+        return ResponseEntity.ok().eTag(etag).body(contractMapper.rowsToContractGetDtoList(contracts)); // 200 OK
     }
 
     // GET /api/v_/clients/{id}/contracts/costsum
@@ -5,8 +5,10 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,18 +16,29 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.ricci.insuranceapi.insurance_api.dto.ContractBatchResultDto;
 import com.ricci.insuranceapi.insurance_api.dto.ContractDto;
 import com.ricci.insuranceapi.insurance_api.dto.ContractGetDto;
 import com.ricci.insuranceapi.insurance_api.dto.ContractPatchDto;
 import com.ricci.insuranceapi.insurance_api.mapper.ContractMapper;
 import com.ricci.insuranceapi.insurance_api.model.Client;
 import com.ricci.insuranceapi.insurance_api.model.Contract;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRepository;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRow;
 import com.ricci.insuranceapi.insurance_api.service.ClientService;
+import com.ricci.insuranceapi.insurance_api.service.ContractBatchResult;
 import com.ricci.insuranceapi.insurance_api.service.ContractService;
+import com.ricci.insuranceapi.insurance_api.service.ExportService;
+import com.ricci.insuranceapi.insurance_api.utils.CountMode;
+import com.ricci.insuranceapi.insurance_api.utils.ETagUtils;
+import com.ricci.insuranceapi.insurance_api.utils.ExportFormat;
+import com.ricci.insuranceapi.insurance_api.utils.KeysetCursor;
 import com.ricci.insuranceapi.insurance_api.utils.PaginationUtils;
 
 import jakarta.validation.Valid;
@@ -38,42 +51,107 @@ public class ContractController {
     private final ClientService clientService;
     private final PaginationUtils paginationUtils;
     private final ContractMapper contractMapper;
+    private final ETagUtils etagUtils;
+    private final ExportService exportService;
 
     @Autowired
     public ContractController(
             ContractService contractService,
             ClientService clientService,
             PaginationUtils paginationUtils,
-            ContractMapper contractMapper) {
+            ContractMapper contractMapper,
+            ETagUtils etagUtils,
+            ExportService exportService) {
         this.contractService = contractService;
         this.paginationUtils = paginationUtils;
         this.contractMapper = contractMapper;
         this.clientService = clientService;
+        this.etagUtils = etagUtils;
+        this.exportService = exportService;
     }
 
-    // GET /api/v_/contracts?page=0&size=5&sortBy=updateDate&sortDir=asc
+    // GET /api/v_/contracts?page=0&size=5&sortBy=updateDate&sortDir=asc&count=exact (exact, none or estimated)
+    // GET /api/v_/contracts?cursor=&size=5&sortBy=updateDate&sortDir=asc (keyset, "next" in the Link header)
     @GetMapping
     public ResponseEntity<List<ContractGetDto>> getAllContracts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "updateDate") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String cursor) {
+
+        if (cursor != null) {
+            return getContractsByCursor(cursor, size, sortBy, sortDir);
+        }
 
         PageRequest pageRequest = this.paginationUtils.buildPageRequest(page, size, sortBy, sortDir);
-        Page<Contract> contracts = contractService.getAllContracts(pageRequest);
+        CountMode countMode = this.paginationUtils.parseCountMode(count);
+        Slice<ContractRow> contracts = contractService.getAllContractRows(pageRequest, countMode);
+        Long estimate = countMode == CountMode.ESTIMATED ? contractService.estimateContractCount() : null;
+        HttpHeaders headers = this.paginationUtils.buildCountHeaders(contracts, estimate);
+
+        if (contracts.isEmpty()) {
+            return ResponseEntity.noContent().headers(headers).build(); // 204 No Content
+        } else {
+            return ResponseEntity.ok().headers(headers).body(contractMapper.rowsToContractGetDtoList(contracts.getContent())); // 200 OK
+        }
+    }
+
+    // Keyset pagination: one extra row tells if there is a next page
+    private ResponseEntity<List<ContractGetDto>> getContractsByCursor(
+            String cursor, int size, String sortBy, String sortDir) {
+        this.paginationUtils.checkKeysetRequest(size, sortBy, "updateDate");
+        KeysetCursor after = this.paginationUtils.decodeCursor(cursor);
+        boolean descending = this.paginationUtils.isDescending(sortDir);
+        List<Contract> contracts = contractService.getContractsByUpdateDate(after, size + 1, descending);
 
         if (contracts.isEmpty()) {
             return ResponseEntity.noContent().build(); // 204 No Content
+        } else if (contracts.size() <= size) {
+            return ResponseEntity.ok(contractMapper.toContractGetDtoList(contracts)); // 200 OK, last page
         } else {
-            return ResponseEntity.ok(contractMapper.toContractGetDtoList(contracts.getContent())); // 200 OK
+            List<Contract> content = contracts.subList(0, size);
+            Contract last = content.get(size - 1);
+            KeysetCursor position = new KeysetCursor(last.getUpdateDate().toString(), last.getContractId());
+            String next = this.paginationUtils.buildNextLink(position);
+            return ResponseEntity.ok().header(HttpHeaders.LINK, next)
+                    .body(contractMapper.toContractGetDtoList(content)); // 200 OK
         }
     }
 
+    // GET /api/v_/contracts/export?format=ndjson (ndjson or csv)
+    // All the contracts, streamed from a database cursor as they are read (ExportService)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportContracts(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format); // 400 Bad Request -> GlobalExceptionHandler
+        ContentDisposition attachment = ContentDisposition.attachment()
+                .filename("contracts." + exportFormat.getExtension())
+                .build();
+        StreamingResponseBody body = out -> exportService.exportContracts(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment.toString())
+                .body(body); // 200 OK, rows written after the headers
+    }
+
     // GET /api/v_/contracts/{id}
+    // ETag = contract and client versions (the body contains the client),
+    // If-None-Match -> 304 after reading only the versions
     @GetMapping("/{id}")
-    public ResponseEntity<ContractGetDto> getContract(@PathVariable UUID id) {
+    public ResponseEntity<ContractGetDto> getContract(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            ContractRepository.Versions versions = contractService.getContractVersions(id); // 404 -> GlobalExceptionHandler
+            String etag = etagUtils.fromVersions(versions.getContract(), versions.getClient());
+            if (etagUtils.matches(ifNoneMatch, etag)) {
+                return etagUtils.notModified(etag); // 304 Not Modified
+            }
+        }
         Contract contract = contractService.getContract(id); // 404 Not Found -> GlobalExceptionHandler
-        return ResponseEntity.ok(contractMapper.toContractGetDto(contract)); // 200 OK
+        String etag = etagUtils.fromVersions(contract.getVersion(), contract.getClient().getVersion());
+        return ResponseEntity.ok().eTag(etag).body(contractMapper.toContractGetDto(contract)); // 200 OK
     }
 
     // POST /api/v_/contracts
@@ -86,6 +164,14 @@ public class ContractController {
         return ResponseEntity.created(location).body(contractMapper.toDto(created)); // 201 Created
     }
 
+    // POST /api/v_/contracts/batch
+    // Each item is validated on its own: 200 OK with one result (CREATED or REJECTED) per item
+    @PostMapping("/batch")
+    public ResponseEntity<List<ContractBatchResultDto>> createContracts(@RequestBody List<ContractDto> dtos) {
+        List<ContractBatchResult> results = contractService.createContracts(dtos); // 400 if empty or too large
+        return ResponseEntity.ok(contractMapper.toBatchResultDtoList(results)); // 200 OK
+    }
+
     // PATCH /api/v_/contracts/{id}
     @PatchMapping("/{id}")
     public ResponseEntity<ContractDto> patchContract(
@@ -1,20 +1,27 @@
 package com.ricci.insuranceapi.insurance_api.controller;
 
 import com.ricci.insuranceapi.insurance_api.dto.ClientDto;
+import com.ricci.insuranceapi.insurance_api.dto.ClientImportReportDto;
 import com.ricci.insuranceapi.insurance_api.dto.PersonDto;
 import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
 import com.ricci.insuranceapi.insurance_api.model.Person;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRow;
+import com.ricci.insuranceapi.insurance_api.service.ClientImportService;
 import com.ricci.insuranceapi.insurance_api.service.PersonService;
+import com.ricci.insuranceapi.insurance_api.utils.CountMode;
 import com.ricci.insuranceapi.insurance_api.utils.PaginationUtils;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -28,15 +35,18 @@ import org.springframework.web.bind.annotation.RestController;
 public class PersonController {
 
     private final PersonService personService;
+    private final ClientImportService clientImportService;
     private final PaginationUtils paginationUtils;
     private final ClientMapper clientMapper;
 
     @Autowired
     public PersonController(
             PersonService personService,
+            ClientImportService clientImportService,
             PaginationUtils paginationUtils,
             ClientMapper clientMapper) {
         this.personService = personService;
+        this.clientImportService = clientImportService;
         this.paginationUtils = paginationUtils;
         this.clientMapper = clientMapper;
     }
@@ -50,21 +60,31 @@ public class PersonController {
         return ResponseEntity.created(location).body(clientMapper.toDto(created)); // 201 Created
     }
 
-    // GET /api/v_/clients/persons?page=0&size=5&sortBy=name&sortDir=asc
+    // POST /api/v_/clients/persons/import (application/x-ndjson, one PersonDto per line)
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ClientImportReportDto> importPersons(InputStream body) {
+        return ResponseEntity.ok(clientImportService.importPersons(body)); // 200 OK
+    }
+
+    // GET /api/v_/clients/persons?page=0&size=5&sortBy=name&sortDir=asc&count=exact (exact, none or estimated)
     @GetMapping
     public ResponseEntity<List<ClientDto>> getAllPersons(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "exact") String count) {
 
         PageRequest pageRequest = this.paginationUtils.buildPageRequest(page, size, sortBy, sortDir);
-        Page<Person> persons = personService.getAllPersons(pageRequest);
+        CountMode countMode = this.paginationUtils.parseCountMode(count);
+        Slice<ClientRow> persons = personService.getAllPersonRows(pageRequest, countMode);
+        Long estimate = countMode == CountMode.ESTIMATED ? personService.estimatePersonCount() : null;
+        HttpHeaders headers = this.paginationUtils.buildCountHeaders(persons, estimate);
 
         if (persons.isEmpty()) {
-            return ResponseEntity.noContent().build(); // 204 No Content
+            return ResponseEntity.noContent().headers(headers).build(); // 204 No Content
         } else {
-            return ResponseEntity.ok(clientMapper.toDtos(persons.getContent())); // 200 OK
+            return ResponseEntity.ok().headers(headers).body(clientMapper.rowsToDtos(persons.getContent())); // 200 OK
         }
     }
 
@@ -0,0 +1,41 @@
+package com.ricci.insuranceapi.insurance_api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * Response of the NDJSON imports (POST /clients/persons/import, /clients/companies/import).
+ * Only the rejected lines are listed, up to api.import-max-reported-errors,
+ * so the report stays small whatever the size of the upload.
+ */
+
+@Data
+@NoArgsConstructor
+public class ClientImportReportDto {
+
+    private long created;
+
+    private long rejected;
+
+    private boolean errorsTruncated;
+
+    private List<LineError> errors = new ArrayList<>();
+
+    // line is the 1-based line number in the uploaded file
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+
+        private long line;
+
+        private Map<String, String> errors;
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.ricci.insuranceapi.insurance_api.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ * One item of the POST /contracts/batch response,
+ * index is the position of the contract in the request.
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContractBatchResultDto {
+
+    public enum Status {
+        CREATED, REJECTED
+    }
+
+    private int index;
+
+    private Status status;
+
+    private UUID contractId;
+
+    private Map<String, String> errors;
+
+}
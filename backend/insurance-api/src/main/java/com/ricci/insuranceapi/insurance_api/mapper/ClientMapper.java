@@ -12,6 +12,7 @@ import com.ricci.insuranceapi.insurance_api.dto.PersonDto;
 import com.ricci.insuranceapi.insurance_api.model.Client;
 import com.ricci.insuranceapi.insurance_api.model.Company;
 import com.ricci.insuranceapi.insurance_api.model.Person;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRow;
 
 @Component
 public final class ClientMapper {
@@ -66,6 +67,38 @@ public final class ClientMapper {
         return dtos;
     }
 
+    // ClientRow -> ClientDto (projection, no entity)
+    public ClientDto toDto(ClientRow row) {
+        ClientDto dto;
+        if (Person.class.equals(row.type())) {
+            PersonDto person = new PersonDto();
+            person.setBirthdate(row.birthdate());
+            dto = person;
+        } else if (Company.class.equals(row.type())) {
+            CompanyDto company = new CompanyDto();
+            company.setCompanyIdentifier(row.companyIdentifier());
+            dto = company;
+        } else {
+            throw new IllegalArgumentException("Unknown client type: " + row.type());
+        }
+        dto.setClientId(row.clientId());
+        dto.setPhone(row.phone());
+        dto.setEmail(row.email());
+        dto.setName(row.name());
+        dto.setIsDeleted(row.isDeleted());
+        dto.setDeletionDate(row.deletionDate());
+        return dto;
+    }
+
+    // ClientRow list -> ClientDto list
+    public List<ClientDto> rowsToDtos(List<ClientRow> rows) {
+        List<ClientDto> dtos = new ArrayList<>(rows.size());
+        for (ClientRow row : rows) {
+            dtos.add(toDto(row));
+        }
+        return dtos;
+    }
+
     // ClientDto -> Client
     public Client toEntity(ClientDto dto) {
         if (dto == null)
@@ -1,10 +1,13 @@
 package com.ricci.insuranceapi.insurance_api.mapper;
 
+import com.ricci.insuranceapi.insurance_api.dto.ContractBatchResultDto;
 import com.ricci.insuranceapi.insurance_api.dto.ContractDto;
 import com.ricci.insuranceapi.insurance_api.dto.ContractGetDto;
 import com.ricci.insuranceapi.insurance_api.dto.ContractPatchDto;
 import com.ricci.insuranceapi.insurance_api.model.Client;
 import com.ricci.insuranceapi.insurance_api.model.Contract;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRow;
+import com.ricci.insuranceapi.insurance_api.service.ContractBatchResult;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -55,6 +58,12 @@ public class ContractMapper {
         return dto;
     }
 
+    // ContractRow -> ContractGetDto (projection, no entity)
+    public ContractGetDto toContractGetDto(ContractRow row) {
+        return new ContractGetDto(row.contractId(), clientMapper.toDto(row.client()), row.startDate(),
+                row.endDate(), row.costAmount());
+    }
+
     // ContractPatchDto -> Contract
     public Contract toEntityFromUpdate(ContractPatchDto contractDto) {
         Contract contract = new Contract();
@@ -87,4 +96,39 @@ public class ContractMapper {
         return result;
     }
 
+    // List ContractGetDto from ContractRow
+    public List<ContractGetDto> rowsToContractGetDtoList(List<ContractRow> rows) {
+        List<ContractGetDto> result = new ArrayList<>(rows.size());
+        for (ContractRow row : rows) {
+            result.add(toContractGetDto(row));
+        }
+        return result;
+    }
+
+    // ContractBatchResult -> ContractBatchResultDto (only the id of a created contract)
+    public ContractBatchResultDto toBatchResultDto(ContractBatchResult result) {
+        ContractBatchResultDto dto = new ContractBatchResultDto();
+        dto.setIndex(result.index());
+        if (result.isCreated()) {
+            dto.setStatus(ContractBatchResultDto.Status.CREATED);
+            dto.setContractId(result.contract().getContractId());
+        } else {
+            dto.setStatus(ContractBatchResultDto.Status.REJECTED);
+            dto.setErrors(result.errors());
+        }
+        return dto;
+    }
+
+    // List ContractBatchResultDto
+    public List<ContractBatchResultDto> toBatchResultDtoList(List<ContractBatchResult> results) {
+        List<ContractBatchResultDto> result = new ArrayList<>();
+        if (results == null) {
+            return result;
+        }
+        for (ContractBatchResult item : results) {
+            result.add(toBatchResultDto(item));
+        }
+        return result;
+    }
+
 }
@@ -1,19 +1,30 @@
 // https://docs.hibernate.org/orm/current/userguide/html_single/
 // https://docs.hibernate.org/orm/current/userguide/html_single/#entity-inheritance-joined-table
 // https://medium.com/devdomain/using-lombok-in-spring-boot-simplifying-your-code-c38057894cb8
+// https://docs.hibernate.org/orm/6.6/userguide/html_single/Hibernate_User_Guide.html#caching-mappings
+// https://docs.hibernate.org/orm/6.6/userguide/html_single/Hibernate_User_Guide.html#locking-optimistic
 
 package com.ricci.insuranceapi.insurance_api.model;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorColumn;
+import jakarta.persistence.DiscriminatorType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -30,10 +41,14 @@ import lombok.ToString;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Table(name = "client")
 @Inheritance(strategy = InheritanceType.JOINED)
+@DiscriminatorColumn(name = "client_type", discriminatorType = DiscriminatorType.STRING, length = 16) // V6
+@Cacheable // Second-level cache, shared by Person and Company (ClientCacheConfig)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "client")
 public abstract class Client {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class) // Time-ordered ids (v7)
     @EqualsAndHashCode.Include
     @Column(name = "client_id", updatable = false, nullable = false)
     private UUID clientId;
@@ -53,4 +68,18 @@ public abstract class Client {
     @Column(name = "deletion_date")
     private LocalDateTime deletionDate;
 
+    @Column(name = "update_date", nullable = false) // V7
+    private LocalDateTime updateDate;
+
+    @Version // V8, optimistic locking and ETag of GET /clients/{id}
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Before client creation and each update
+    @PrePersist
+    @PreUpdate
+    public void preUpdate() {
+        updateDate = LocalDateTime.now();
+    }
+
 }
@@ -0,0 +1,43 @@
+package com.ricci.insuranceapi.insurance_api.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/*
+ * Rollup of the active contracts of one client (V5__client-cost-summary.sql).
+ * Read-only for Hibernate: the rows are written by ClientCostSummaryRepository (SQL).
+ */
+
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor
+@ToString
+@Table(name = "client_cost_summary")
+public class ClientCostSummary {
+
+    @Id
+    @Column(name = "client_id", updatable = false, nullable = false)
+    private UUID clientId;
+
+    @Column(name = "active_contracts", nullable = false)
+    private Integer activeContracts;
+
+    @Column(name = "active_cost", nullable = false)
+    private BigDecimal activeCost;
+
+    @Column(name = "next_expiry")
+    private LocalDateTime nextExpiry;
+
+}
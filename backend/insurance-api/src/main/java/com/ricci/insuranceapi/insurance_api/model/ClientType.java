@@ -0,0 +1,22 @@
+package com.ricci.insuranceapi.insurance_api.model;
+
+/*
+ * Value of the client_type discriminator column (V6), one per Client subclass.
+ * GET /api/v_/clients?type=PERSON
+ */
+
+public enum ClientType {
+
+    PERSON,
+    COMPANY;
+
+    // Constants for @DiscriminatorValue (same names as the enum)
+    public static final class Values {
+        public static final String PERSON = "PERSON";
+        public static final String COMPANY = "COMPANY";
+
+        private Values() {
+        }
+    }
+
+}
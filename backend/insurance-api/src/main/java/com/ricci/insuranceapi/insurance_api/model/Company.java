@@ -1,6 +1,7 @@
 package com.ricci.insuranceapi.insurance_api.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.PrimaryKeyJoinColumn;
@@ -20,6 +21,7 @@ import lombok.ToString;
 @ToString
 @EqualsAndHashCode(callSuper = true)
 @Table(name = "company")
+@DiscriminatorValue(ClientType.Values.COMPANY)
 public class Company extends Client {
 
     @PrimaryKeyJoinColumn(name = "client_id", foreignKey = @ForeignKey(name = "fk_company_client_id"))
@@ -21,6 +21,8 @@ import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.UuidGenerator;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -40,6 +42,7 @@ public class Contract {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class) // Time-ordered ids (v7)
     @EqualsAndHashCode.Include
     @Column(name = "contract_id", updatable = false, nullable = false)
     private UUID contractId;
@@ -60,6 +63,10 @@ public class Contract {
     @Column(name = "cost_amount", nullable = false)
     private BigDecimal costAmount;
 
+    @Version // V8, optimistic locking and ETag of GET /contracts/{id}
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Transient
     private BigDecimal previousCostAmount;
 
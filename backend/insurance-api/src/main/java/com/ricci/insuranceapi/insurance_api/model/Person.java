@@ -3,6 +3,7 @@ package com.ricci.insuranceapi.insurance_api.model;
 import java.time.LocalDate;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.PrimaryKeyJoinColumn;
@@ -16,6 +17,7 @@ import lombok.ToString;
 
 @Entity
 @Table(name = "person")
+@DiscriminatorValue(ClientType.Values.PERSON)
 @Getter
 @Setter
 @ToString
@@ -0,0 +1,74 @@
+// https://www.rfc-editor.org/rfc/rfc9562.html#name-uuid-version-7
+// https://docs.hibernate.org/orm/6.6/userguide/html_single/#identifiers-generators-uuid
+
+package com.ricci.insuranceapi.insurance_api.model;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.random.RandomGenerator;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+/*
+ * Time-ordered UUID (version 7) used for the client and contract ids:
+ * 48 bits of Unix time in ms, then a 12 bits counter (rand_a) and 62 random bits.
+ * New ids are appended at the right end of the B-tree instead of random pages (v4).
+ * Same uuid column type, the existing v4 ids stay valid.
+ */
+
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int COUNTER_MAX = 0xFFF;
+    // Lock instead of synchronized: a virtual thread waiting for it releases its carrier
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    private static long lastMillis = -1;
+    private static int counter;
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return generate();
+    }
+
+    public static UUID generate() {
+        long millis;
+        int sequence;
+        LOCK.lock();
+        try {
+            millis = Math.max(System.currentTimeMillis(), lastMillis);
+            if (millis == lastMillis) {
+                // Same ms: increment the counter so ids stay ordered (RFC 9562, method 1)
+                if (counter == COUNTER_MAX) {
+                    millis++;
+                    counter = RANDOM.nextInt(COUNTER_MAX / 2);
+                } else {
+                    counter++;
+                }
+            } else {
+                // Random start in the lower half, leaves room to increment
+                counter = RANDOM.nextInt(COUNTER_MAX / 2);
+            }
+            lastMillis = millis;
+            sequence = counter;
+        } finally {
+            LOCK.unlock();
+        }
+        return build(millis, sequence, RANDOM.nextLong());
+    }
+
+    // Without the shared counter, for the bulk generators (one random per thread):
+    // random rand_a, so the ids of the same ms are unique but not ordered (RFC 9562, 6.2)
+    public static UUID generate(long millis, RandomGenerator random) {
+        return build(millis, random.nextInt(COUNTER_MAX + 1), random.nextLong());
+    }
+
+    private static UUID build(long millis, int sequence, long random) {
+        long mostSigBits = (millis << 16) | 0x7000L | sequence; // version 7
+        long leastSigBits = (random & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // variant 10
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+}
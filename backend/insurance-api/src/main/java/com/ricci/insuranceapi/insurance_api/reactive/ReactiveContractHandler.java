@@ -0,0 +1,128 @@
+// https://docs.spring.io/spring-framework/reference/web/webflux-functional.html
+// https://projectreactor.io/docs/core/release/reference/#advanced-three-sorts-batching
+
+package com.ricci.insuranceapi.insurance_api.reactive;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.ricci.insuranceapi.insurance_api.dto.ContractGetDto;
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
+import com.ricci.insuranceapi.insurance_api.mapper.ContractMapper;
+import com.ricci.insuranceapi.insurance_api.validation.ValidationMessage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * WebFlux functional endpoints of the reactive read path, same paths and bodies
+ * as the ClientController routes they mirror (ContractGetDto, BigDecimal).
+ * The contracts are written as they come from the database: a JSON array, or one object
+ * per line with Accept: application/x-ndjson. The body is the first subscriber, so a slow
+ * reader slows down the fetch of the next rows instead of buffering them.
+ * 204 No Content when the client has no active contract, as ClientController.
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "api.reactive", name = "port")
+public class ReactiveContractHandler {
+
+    private final ReactiveContractRepository contractRepository;
+    private final ContractMapper contractMapper;
+    private final String basePath;
+
+    @Autowired
+    public ReactiveContractHandler(
+            ReactiveContractRepository contractRepository,
+            ContractMapper contractMapper,
+            @Value("${api.version}") String apiVersion) {
+        this.contractRepository = contractRepository;
+        this.contractMapper = contractMapper;
+        this.basePath = "/api/" + apiVersion + "/clients/{id}/contracts";
+    }
+
+    // Deferred handlers: the parameter errors they throw become errors of the Mono, handled by onError
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET(basePath, request -> Mono.defer(() -> getActiveContracts(request)))
+                .GET(basePath + "/after", request -> Mono.defer(() -> getActiveContractsUpdatedAfter(request)))
+                .GET(basePath + "/costsum", request -> Mono.defer(() -> getActiveContractsCost(request)))
+                .onError(ClientInvalidDataException.class,
+                        (ex, request) -> ServerResponse.badRequest().bodyValue(ex.getMessage()))
+                .build();
+    }
+
+    // ------------------------
+    // --- Active contracts ---
+    // ------------------------
+
+    // GET /api/v_/clients/{id}/contracts
+    private Mono<ServerResponse> getActiveContracts(ServerRequest request) {
+        UUID clientId = clientId(request);
+        return contractsResponse(request, contractRepository.findActiveByClient(clientId, LocalDateTime.now())
+                .map(contractMapper::toContractGetDto));
+    }
+
+    // GET /api/v_/clients/{id}/contracts/after?date=2025-01-01T00:00:00
+    private Mono<ServerResponse> getActiveContractsUpdatedAfter(ServerRequest request) {
+        UUID clientId = clientId(request);
+        LocalDateTime updatedAfter = request.queryParam("date")
+                .map(this::parseDate)
+                .orElseThrow(() -> new ClientInvalidDataException("Missing parameter: date"));
+        return contractsResponse(request, contractRepository
+                .findActiveByClientUpdatedAfter(clientId, LocalDateTime.now(), updatedAfter)
+                .map(contractMapper::toContractGetDto));
+    }
+
+    // GET /api/v_/clients/{id}/contracts/costsum
+    private Mono<ServerResponse> getActiveContractsCost(ServerRequest request) {
+        UUID clientId = clientId(request);
+        return contractRepository.sumActiveContractsCost(clientId, LocalDateTime.now())
+                .flatMap(sum -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(sum));
+    }
+
+    // The first row decides the status, then the same query goes on into the body
+    // (the source is kept when the response is emitted, only the body completes it)
+    private Mono<ServerResponse> contractsResponse(ServerRequest request, Flux<ContractGetDto> contracts) {
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return contracts.switchOnFirst((first, all) -> first.hasValue()
+                ? ServerResponse.ok().contentType(mediaType).body(all, ContractGetDto.class)
+                : first.isOnError() ? Mono.error(first.getThrowable()) : ServerResponse.noContent().build(),
+                false)
+                .single();
+    }
+
+    // ---------------
+    // --- Helpers ---
+    // ---------------
+
+    private UUID clientId(ServerRequest request) {
+        try {
+            return UUID.fromString(request.pathVariable("id"));
+        } catch (IllegalArgumentException ex) {
+            throw new ClientInvalidDataException("Invalid value for id: " + request.pathVariable("id"));
+        }
+    }
+
+    private LocalDateTime parseDate(String date) {
+        try {
+            return LocalDateTime.parse(date);
+        } catch (DateTimeParseException ex) {
+            throw new ClientInvalidDataException(ValidationMessage.DATE_INVALID);
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+// https://docs.spring.io/spring-framework/reference/data-access/r2dbc.html#r2dbc-DatabaseClient
+// https://github.com/pgjdbc/r2dbc-postgresql#cursors
+// https://github.com/r2dbc/r2dbc-pool
+
+package com.ricci.insuranceapi.insurance_api.reactive;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.ricci.insuranceapi.insurance_api.model.Client;
+import com.ricci.insuranceapi.insurance_api.model.ClientType;
+import com.ricci.insuranceapi.insurance_api.model.Company;
+import com.ricci.insuranceapi.insurance_api.model.Person;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRow;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * Same active-contract queries as ContractRepository, over R2DBC (reactive read path).
+ * Rows are read with a portal of api.reactive.fetch-size rows: the next rows are only
+ * fetched when the subscriber (the HTTP response) requests them.
+ * The pool is owned here and not exposed as a ConnectionFactory bean,
+ * so the JDBC DataSource and JPA stay auto-configured.
+ */
+
+@Repository
+@ConditionalOnProperty(prefix = "api.reactive", name = "port")
+public class ReactiveContractRepository {
+
+    // Same columns and order as ContractRow (ContractRepository.ROWS)
+    private static final String ROWS = """
+            SELECT c.contract_id, c.start_date, c.end_date, c.cost_amount, c.version,
+                cl.client_id, cl.version AS client_version, cl.client_type, cl.phone, cl.email, cl.name,
+                cl.is_deleted, cl.deletion_date, p.birthdate, co.company_identifier
+            FROM contract c
+            JOIN client cl ON cl.client_id = c.client_id
+            LEFT JOIN person p ON p.client_id = cl.client_id
+            LEFT JOIN company co ON co.client_id = cl.client_id
+            WHERE c.client_id = :clientId
+            AND (c.end_date IS NULL OR :currentDate < c.end_date)
+            """;
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    @Autowired
+    public ReactiveContractRepository(
+            @Value("${api.reactive.url}") String url,
+            @Value("${api.reactive.username}") String username,
+            @Value("${api.reactive.password}") String password,
+            @Value("${api.reactive.pool-size:20}") int poolSize,
+            @Value("${api.reactive.fetch-size:100}") int fetchSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive")
+                .initialSize(1)
+                .maxSize(poolSize)
+                .maxAcquireTime(Duration.ofSeconds(5))
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+        this.fetchSize = fetchSize;
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+
+    // Same filter as ContractRepository.findActiveByClient
+    public Flux<ContractRow> findActiveByClient(UUID clientId, LocalDateTime currentDate) {
+        return databaseClient.sql(ROWS)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("clientId", clientId)
+                .bind("currentDate", currentDate)
+                .map(this::toRow)
+                .all();
+    }
+
+    // Same filter as ContractRepository.findActiveByClientUpdatedAfter
+    public Flux<ContractRow> findActiveByClientUpdatedAfter(UUID clientId, LocalDateTime currentDate,
+            LocalDateTime updatedAfter) {
+        return databaseClient.sql(ROWS + "AND c.update_date >= :updatedAfter")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("clientId", clientId)
+                .bind("currentDate", currentDate)
+                .bind("updatedAfter", updatedAfter)
+                .map(this::toRow)
+                .all();
+    }
+
+    // Same result as ContractService.getSumOfActiveContractsCost: the client_cost_summary rollup
+    // while none of its contracts has ended, otherwise the sum of the contracts (one round trip)
+    public Mono<BigDecimal> sumActiveContractsCost(UUID clientId, LocalDateTime currentDate) {
+        return databaseClient.sql("""
+                SELECT COALESCE(
+                    (SELECT s.active_cost FROM client_cost_summary s
+                        WHERE s.client_id = :clientId
+                        AND (s.next_expiry IS NULL OR :currentDate < s.next_expiry)),
+                    (SELECT COALESCE(SUM(c.cost_amount), 0) FROM contract c
+                        WHERE c.client_id = :clientId
+                        AND (c.end_date IS NULL OR :currentDate < c.end_date))) AS active_cost
+                """)
+                .bind("clientId", clientId)
+                .bind("currentDate", currentDate)
+                .map(row -> row.get("active_cost", BigDecimal.class))
+                .one();
+    }
+
+    private ContractRow toRow(Readable row) {
+        return new ContractRow(
+                row.get("contract_id", UUID.class),
+                row.get("start_date", LocalDateTime.class),
+                row.get("end_date", LocalDateTime.class),
+                row.get("cost_amount", BigDecimal.class),
+                row.get("version", Long.class),
+                row.get("client_id", UUID.class),
+                row.get("client_version", Long.class),
+                clientClass(row.get("client_type", String.class)),
+                row.get("phone", String.class),
+                row.get("email", String.class),
+                row.get("name", String.class),
+                row.get("is_deleted", Boolean.class),
+                row.get("deletion_date", LocalDateTime.class),
+                row.get("birthdate", LocalDate.class),
+                row.get("company_identifier", String.class));
+    }
+
+    // Discriminator -> class, as TYPE(cl) in the JPQL rows
+    private Class<? extends Client> clientClass(String clientType) {
+        return switch (ClientType.valueOf(clientType)) {
+            case PERSON -> Person.class;
+            case COMPANY -> Company.class;
+        };
+    }
+
+}
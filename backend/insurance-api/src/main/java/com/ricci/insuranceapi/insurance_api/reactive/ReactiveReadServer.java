@@ -0,0 +1,78 @@
+// https://docs.spring.io/spring-framework/reference/web/webflux/reactive-spring.html#webflux-httphandler
+// https://projectreactor.io/docs/netty/release/reference/http-server.html
+
+package com.ricci.insuranceapi.insurance_api.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/*
+ * Optional reactive read path, enabled by api.reactive.port (0 for a random port).
+ * The MVC application keeps Tomcat, the ReactiveContractHandler routes are served
+ * by a Reactor Netty server on this second port: a few event-loop threads for any
+ * number of concurrent requests, the R2DBC pool bounds the queries.
+ * JSON is written with the application ObjectMapper, so the bodies match the MVC ones.
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "api.reactive", name = "port")
+public class ReactiveReadServer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveReadServer.class);
+
+    private final ReactiveContractHandler handler;
+    private final ObjectMapper objectMapper;
+    private final int port;
+    private DisposableServer server;
+
+    @Autowired
+    public ReactiveReadServer(
+            ReactiveContractHandler handler,
+            ObjectMapper objectMapper,
+            @Value("${api.reactive.port}") int port) {
+        this.handler = handler;
+        this.objectMapper = objectMapper;
+        this.port = port;
+    }
+
+    @PostConstruct
+    public void start() {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter(
+                RouterFunctions.toHttpHandler(handler.routes(), strategies));
+        server = HttpServer.create().port(port).handle(adapter).bindNow();
+        LOGGER.info("Reactive read path started on port {}", server.port());
+    }
+
+    @PreDestroy
+    public void stop() {
+        server.disposeNow();
+    }
+
+    // Bound port (api.reactive.port=0 in the tests)
+    public int getPort() {
+        return server.port();
+    }
+
+}
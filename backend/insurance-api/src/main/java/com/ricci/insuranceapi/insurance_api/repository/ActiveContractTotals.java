@@ -0,0 +1,16 @@
+package com.ricci.insuranceapi.insurance_api.repository;
+
+import java.math.BigDecimal;
+
+/*
+ * Totals over all the clients of the active contracts (ClientCostSummaryRepository.sumActiveContracts),
+ * interface projection of a native query: the getters match the column aliases.
+ */
+
+public interface ActiveContractTotals {
+
+    Long getActiveContracts();
+
+    BigDecimal getActiveCost();
+
+}
@@ -0,0 +1,89 @@
+package com.ricci.insuranceapi.insurance_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import com.ricci.insuranceapi.insurance_api.model.ClientCostSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface ClientCostSummaryRepository extends JpaRepository<ClientCostSummary, UUID> {
+
+        // Native writes only touch client_cost_summary: without this hint, Hibernate
+        // evicts the whole second-level cache (the clients) on each contract write
+        String SPACE = "client_cost_summary";
+
+        // Creates the missing rows and locks all of them until the end of the transaction,
+        // a concurrent writer waits here and then refreshes with our contracts committed
+        @Modifying(flushAutomatically = true)
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SPACE))
+        @Query(value = """
+                        INSERT INTO client_cost_summary (client_id)
+                        SELECT unnest(:clientIds)
+                        ORDER BY 1
+                        ON CONFLICT (client_id) DO UPDATE SET client_id = EXCLUDED.client_id
+                        """, nativeQuery = true)
+        void lockForRefresh(@Param("clientIds") UUID[] clientIds);
+
+        // Recomputes the rollups from the contracts (index-only scan on idx_contract_client_end_date)
+        @Modifying
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SPACE))
+        @Query(value = """
+                        UPDATE client_cost_summary s
+                        SET (active_contracts, active_cost, next_expiry) = (
+                            SELECT COUNT(*), COALESCE(SUM(c.cost_amount), 0), MIN(c.end_date)
+                            FROM contract c
+                            WHERE c.client_id = s.client_id
+                            AND (c.end_date IS NULL OR :currentDate < c.end_date))
+                        WHERE s.client_id = ANY(:clientIds)
+                        """, nativeQuery = true)
+        int refresh(
+                        @Param("clientIds") UUID[] clientIds,
+                        @Param("currentDate") LocalDateTime currentDate);
+
+        // Rollups with a contract ended since the last refresh, the rows being
+        // refreshed by a contract write are skipped (they will be up to date)
+        @Query(value = """
+                        SELECT client_id FROM client_cost_summary
+                        WHERE next_expiry <= :currentDate
+                        ORDER BY client_id
+                        LIMIT :limit
+                        FOR UPDATE SKIP LOCKED
+                        """, nativeQuery = true)
+        List<UUID> lockExpired(
+                        @Param("currentDate") LocalDateTime currentDate,
+                        @Param("limit") int limit);
+
+        // Rollups missing for clients with an active contract inserted outside the API (SQL, V9999 sample data),
+        // created for the fold (index-only scan on idx_contract_client_end_date). A row created at the same time
+        // by a contract write is left to it (DO NOTHING), so only the rows created here are returned
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SPACE))
+        @Query(value = """
+                        INSERT INTO client_cost_summary (client_id)
+                        SELECT DISTINCT c.client_id FROM contract c
+                        WHERE (c.end_date IS NULL OR :currentDate < c.end_date)
+                        AND NOT EXISTS (SELECT 1 FROM client_cost_summary s WHERE s.client_id = c.client_id)
+                        ORDER BY 1
+                        LIMIT :limit
+                        ON CONFLICT (client_id) DO NOTHING
+                        RETURNING client_id
+                        """, nativeQuery = true)
+        List<UUID> createMissing(
+                        @Param("currentDate") LocalDateTime currentDate,
+                        @Param("limit") int limit);
+
+        // Totals of all the rollups (business gauges): one scan of client_cost_summary, one row per client,
+        // instead of the contracts. A client with an ended contract not folded yet is counted until the fold
+        @Query(value = """
+                        SELECT COALESCE(SUM(active_contracts), 0) AS activeContracts,
+                            COALESCE(SUM(active_cost), 0) AS activeCost
+                        FROM client_cost_summary
+                        """, nativeQuery = true)
+        ActiveContractTotals sumActiveContracts();
+
+}
@@ -2,16 +2,150 @@
 
 package com.ricci.insuranceapi.insurance_api.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import com.ricci.insuranceapi.insurance_api.model.Client;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, UUID> {
 
-    boolean existsByPhone(String phone);
+    // Page without the COUNT query (one extra row for hasNext)
+    Slice<Client> findAllBy(Pageable pageable);
 
-    boolean existsByEmail(String email);
+    // Planner estimate (pg_class.reltuples), -1 if the table was never analyzed
+    @Query(value = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'public.client'::regclass", nativeQuery = true)
+    long estimateCount();
+
+    // -----------------------------------------------------
+    // --- Listing without entities (ClientRow projection) ---
+    // -----------------------------------------------------
+
+    String ROWS = """
+            SELECT new com.ricci.insuranceapi.insurance_api.repository.ClientRow(
+                c.clientId, TYPE(c), c.phone, c.email, c.name, c.isDeleted, c.deletionDate,
+                TREAT(c AS Person).birthdate, TREAT(c AS Company).companyIdentifier)
+            FROM Client c
+            """;
+
+    @Query(value = ROWS, countQuery = "SELECT COUNT(c) FROM Client c")
+    Page<ClientRow> findRows(Pageable pageable);
+
+    // Same without the COUNT query
+    @Query(ROWS)
+    Slice<ClientRow> findRowsBy(Pageable pageable);
+
+    // GET /clients?type=: filtered on the discriminator (V6, idx_client_type_name),
+    // only the table of this type is joined and the COUNT reads only the client table
+
+    String PERSON_ROWS = """
+            SELECT new com.ricci.insuranceapi.insurance_api.repository.ClientRow(
+                c.clientId, TYPE(c), c.phone, c.email, c.name, c.isDeleted, c.deletionDate,
+                TREAT(c AS Person).birthdate, NULL)
+            FROM Client c
+            WHERE TYPE(c) = Person
+            """;
+
+    @Query(value = PERSON_ROWS, countQuery = "SELECT COUNT(c) FROM Client c WHERE TYPE(c) = Person")
+    Page<ClientRow> findPersonRows(Pageable pageable);
+
+    @Query(PERSON_ROWS)
+    Slice<ClientRow> findPersonRowsBy(Pageable pageable);
+
+    String COMPANY_ROWS = """
+            SELECT new com.ricci.insuranceapi.insurance_api.repository.ClientRow(
+                c.clientId, TYPE(c), c.phone, c.email, c.name, c.isDeleted, c.deletionDate,
+                NULL, TREAT(c AS Company).companyIdentifier)
+            FROM Client c
+            WHERE TYPE(c) = Company
+            """;
+
+    @Query(value = COMPANY_ROWS, countQuery = "SELECT COUNT(c) FROM Client c WHERE TYPE(c) = Company")
+    Page<ClientRow> findCompanyRows(Pageable pageable);
+
+    @Query(COMPANY_ROWS)
+    Slice<ClientRow> findCompanyRowsBy(Pageable pageable);
+
+    // ETag of GET /clients/{id}: only the version column, no subclass join
+    @Query("SELECT c.version FROM Client c WHERE c.clientId = :clientId")
+    Optional<Long> findVersionById(@Param("clientId") UUID clientId);
+
+    // Existing ids among the given ones (only the client table, no subclass join)
+    @Query("SELECT c.clientId FROM Client c WHERE c.clientId IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Unique values already taken, checked for a whole import chunk in one query
+    // (arrays instead of IN lists, so an empty array simply matches nothing)
+    @Query(value = """
+            SELECT c.phone AS phone, c.email AS email, co.company_identifier AS companyIdentifier
+            FROM client c
+            LEFT JOIN company co ON co.client_id = c.client_id
+            WHERE c.phone = ANY(:phones)
+               OR c.email = ANY(:emails)
+               OR co.company_identifier = ANY(:identifiers)
+            """, nativeQuery = true)
+    List<UniqueKeys> findTakenUniqueKeys(
+            @Param("phones") String[] phones,
+            @Param("emails") String[] emails,
+            @Param("identifiers") String[] identifiers);
+
+    interface UniqueKeys {
+        String getPhone();
+
+        String getEmail();
+
+        String getCompanyIdentifier();
+    }
+
+    // -------------------------------------------------
+    // --- Keyset pagination on (name, clientId) ---
+    // --- Backed by idx_client_name_keyset (V3) ---
+    // --- A missing name is sorted as an empty name ---
+    // -------------------------------------------------
+
+    @Query("""
+            SELECT c FROM Client c
+            ORDER BY COALESCE(c.name, '') ASC, c.clientId ASC
+            """)
+    List<Client> findFirstByNameAsc(Limit limit);
+
+    @Query("""
+            SELECT c FROM Client c
+            WHERE (COALESCE(c.name, ''), c.clientId) > (:name, :clientId)
+            ORDER BY COALESCE(c.name, '') ASC, c.clientId ASC
+            """)
+    List<Client> findAfterByNameAsc(
+            @Param("name") String name,
+            @Param("clientId") UUID clientId,
+            Limit limit);
+
+    @Query("""
+            SELECT c FROM Client c
+            ORDER BY COALESCE(c.name, '') DESC, c.clientId DESC
+            """)
+    List<Client> findFirstByNameDesc(Limit limit);
+
+    @Query("""
+            SELECT c FROM Client c
+            WHERE (COALESCE(c.name, ''), c.clientId) < (:name, :clientId)
+            ORDER BY COALESCE(c.name, '') DESC, c.clientId DESC
+            """)
+    List<Client> findAfterByNameDesc(
+            @Param("name") String name,
+            @Param("clientId") UUID clientId,
+            Limit limit);
+
+    // Second-level cache warm-up, backed by idx_client_update_date (V7)
+    List<Client> findByOrderByUpdateDateDesc(Limit limit);
 
 }
@@ -0,0 +1,26 @@
+package com.ricci.insuranceapi.insurance_api.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.ricci.insuranceapi.insurance_api.model.Client;
+
+/*
+ * Read-only client columns selected with a JPQL constructor expression:
+ * no managed entity, nothing registered in the persistence context.
+ * type is the concrete class (TYPE(c)), birthdate and companyIdentifier
+ * come from the subclass tables (null for the other type).
+ */
+
+public record ClientRow(
+        UUID clientId,
+        Class<? extends Client> type,
+        String phone,
+        String email,
+        String name,
+        Boolean isDeleted,
+        LocalDateTime deletionDate,
+        LocalDate birthdate,
+        String companyIdentifier) {
+}
@@ -1,7 +1,11 @@
 package com.ricci.insuranceapi.insurance_api.repository;
 
 import com.ricci.insuranceapi.insurance_api.model.Company;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.UUID;
 
@@ -10,4 +14,26 @@ public interface CompanyRepository extends JpaRepository<Company, UUID> {
 
     boolean existsByCompanyIdentifier(String companyIdentifier);
 
+    // Page without the COUNT query (one extra row for hasNext)
+    Slice<Company> findAllBy(Pageable pageable);
+
+    // Planner estimate (pg_class.reltuples), -1 if the table was never analyzed
+    @Query(value = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'public.company'::regclass", nativeQuery = true)
+    long estimateCount();
+
+    // Listing without entities (ClientRow projection)
+    String ROWS = """
+            SELECT new com.ricci.insuranceapi.insurance_api.repository.ClientRow(
+                co.clientId, TYPE(co), co.phone, co.email, co.name, co.isDeleted, co.deletionDate,
+                NULL, co.companyIdentifier)
+            FROM Company co
+            """;
+
+    @Query(value = ROWS, countQuery = "SELECT COUNT(co) FROM Company co")
+    Page<ClientRow> findRows(Pageable pageable);
+
+    // Same without the COUNT query
+    @Query(ROWS)
+    Slice<ClientRow> findRowsBy(Pageable pageable);
+
 }
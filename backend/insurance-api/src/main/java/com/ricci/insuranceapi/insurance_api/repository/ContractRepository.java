@@ -3,14 +3,84 @@ package com.ricci.insuranceapi.insurance_api.repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import com.ricci.insuranceapi.insurance_api.model.Contract;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface ContractRepository extends JpaRepository<Contract, UUID> {
 
+        // Paginated listing: fetch the (polymorphic) client in the same query,
+        // instead of one lazy load per contract when mapping to ContractGetDto
+        @Override
+        @EntityGraph(attributePaths = "client")
+        Page<Contract> findAll(Pageable pageable);
+
+        // GET /contracts/{id} maps the client too (no open session in the view)
+        @Override
+        @EntityGraph(attributePaths = "client")
+        Optional<Contract> findById(UUID id);
+
+        // Same without the COUNT query (one extra row for hasNext)
+        @EntityGraph(attributePaths = "client")
+        Slice<Contract> findAllBy(Pageable pageable);
+
+        // Planner estimate (pg_class.reltuples), -1 if the table was never analyzed
+        @Query(value = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'public.contract'::regclass", nativeQuery = true)
+        long estimateCount();
+
+        // ETag of GET /contracts/{id}: the body contains the client, so both versions
+        interface Versions {
+                Long getContract();
+
+                Long getClient();
+        }
+
+        @Query("""
+                        SELECT c.version AS contract, cl.version AS client
+                        FROM Contract c
+                        JOIN c.client cl
+                        WHERE c.contractId = :contractId
+                        """)
+        Optional<Versions> findVersionsById(@Param("contractId") UUID contractId);
+
+        // -----------------------------------------------------------
+        // --- Listings without entities (ContractRow projection) ---
+        // -----------------------------------------------------------
+
+        String ROWS = """
+                        SELECT new com.ricci.insuranceapi.insurance_api.repository.ContractRow(
+                            c.contractId, c.startDate, c.endDate, c.costAmount, c.version,
+                            cl.clientId, cl.version, TYPE(cl), cl.phone, cl.email, cl.name, cl.isDeleted, cl.deletionDate,
+                            TREAT(cl AS Person).birthdate, TREAT(cl AS Company).companyIdentifier)
+                        FROM Contract c
+                        JOIN c.client cl
+                        """;
+
+        @Query(value = ROWS, countQuery = "SELECT COUNT(c) FROM Contract c")
+        Page<ContractRow> findRows(Pageable pageable);
+
+        // Same without the COUNT query
+        @Query(ROWS)
+        Slice<ContractRow> findRowsBy(Pageable pageable);
+
+        // Same filter as findActiveByClient
+        @Query(ROWS + """
+                        WHERE cl.clientId = :clientId
+                        AND (c.endDate IS NULL OR :currentDate < c.endDate)
+                        """)
+        List<ContractRow> findActiveRowsByClient(
+                        @Param("clientId") UUID clientId,
+                        @Param("currentDate") LocalDateTime currentDate);
+
         // REQUIREMENT: Get only the active contracts for one client
         @Query("""
                         SELECT c FROM Contract c
@@ -26,6 +96,7 @@ public interface ContractRepository extends JpaRepository<Contract, UUID> {
         // (Get the active contracts after an updated date)
         @Query("""
                         SELECT c FROM Contract c
+                        JOIN FETCH c.client
                         WHERE c.client.clientId = :clientId
                         AND (c.endDate IS NULL OR :currentDate < c.endDate)
                         AND c.updateDate >= :updatedAfter
@@ -47,4 +118,71 @@ public interface ContractRepository extends JpaRepository<Contract, UUID> {
                         @Param("clientId") UUID clientId,
                         @Param("currentDate") LocalDateTime currentDate);
 
-}
\ No newline at end of file
+        // Earliest end date of the active contracts, when the sum above changes by itself
+        @Query("""
+                        SELECT MIN(c.endDate)
+                        FROM Contract c
+                        WHERE c.client.clientId = :clientId
+                        AND :currentDate < c.endDate
+                        """)
+        LocalDateTime findNextExpiry(
+                        @Param("clientId") UUID clientId,
+                        @Param("currentDate") LocalDateTime currentDate);
+
+        // REQUIREMENT: Client is deleted -> end date updated for its active contracts
+        // (Single UPDATE, no entity loaded. Like the @PreUpdate callback, the update
+        // date is left unchanged because the cost amount is not modified, the
+        // version is incremented like Hibernate does for a managed contract.)
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("""
+                        UPDATE Contract c
+                        SET c.endDate = :currentDate, c.version = c.version + 1
+                        WHERE c.client.clientId = :clientId
+                        AND (c.endDate IS NULL OR :currentDate < c.endDate)
+                        """)
+        int closeActiveByClient(
+                        @Param("clientId") UUID clientId,
+                        @Param("currentDate") LocalDateTime currentDate);
+
+        // ---------------------------------------------------
+        // --- Keyset pagination on (updateDate, contractId) ---
+        // --- Backed by idx_contract_update_date_keyset (V3) ---
+        // ---------------------------------------------------
+
+        @Query("""
+                        SELECT c FROM Contract c
+                        JOIN FETCH c.client
+                        ORDER BY c.updateDate ASC, c.contractId ASC
+                        """)
+        List<Contract> findFirstByUpdateDateAsc(Limit limit);
+
+        @Query("""
+                        SELECT c FROM Contract c
+                        JOIN FETCH c.client
+                        WHERE (c.updateDate, c.contractId) > (:updateDate, :contractId)
+                        ORDER BY c.updateDate ASC, c.contractId ASC
+                        """)
+        List<Contract> findAfterByUpdateDateAsc(
+                        @Param("updateDate") LocalDateTime updateDate,
+                        @Param("contractId") UUID contractId,
+                        Limit limit);
+
+        @Query("""
+                        SELECT c FROM Contract c
+                        JOIN FETCH c.client
+                        ORDER BY c.updateDate DESC, c.contractId DESC
+                        """)
+        List<Contract> findFirstByUpdateDateDesc(Limit limit);
+
+        @Query("""
+                        SELECT c FROM Contract c
+                        JOIN FETCH c.client
+                        WHERE (c.updateDate, c.contractId) < (:updateDate, :contractId)
+                        ORDER BY c.updateDate DESC, c.contractId DESC
+                        """)
+        List<Contract> findAfterByUpdateDateDesc(
+                        @Param("updateDate") LocalDateTime updateDate,
+                        @Param("contractId") UUID contractId,
+                        Limit limit);
+
+}
@@ -0,0 +1,37 @@
+package com.ricci.insuranceapi.insurance_api.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.ricci.insuranceapi.insurance_api.model.Client;
+
+/*
+ * Read-only contract columns and its client's columns, from one JPQL
+ * constructor expression (a constructor expression cannot be nested).
+ */
+
+public record ContractRow(
+        UUID contractId,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        BigDecimal costAmount,
+        Long version,
+        UUID clientId,
+        Long clientVersion,
+        Class<? extends Client> clientType,
+        String phone,
+        String email,
+        String name,
+        Boolean isDeleted,
+        LocalDateTime deletionDate,
+        LocalDate birthdate,
+        String companyIdentifier) {
+
+    public ClientRow client() {
+        return new ClientRow(clientId, clientType, phone, email, name, isDeleted, deletionDate, birthdate,
+                companyIdentifier);
+    }
+
+}
@@ -1,10 +1,37 @@
 package com.ricci.insuranceapi.insurance_api.repository;
 
 import com.ricci.insuranceapi.insurance_api.model.Person;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.UUID;
 
 @Repository
 public interface PersonRepository extends JpaRepository<Person, UUID> {
+
+    // Page without the COUNT query (one extra row for hasNext)
+    Slice<Person> findAllBy(Pageable pageable);
+
+    // Planner estimate (pg_class.reltuples), -1 if the table was never analyzed
+    @Query(value = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'public.person'::regclass", nativeQuery = true)
+    long estimateCount();
+
+    // Listing without entities (ClientRow projection)
+    String ROWS = """
+            SELECT new com.ricci.insuranceapi.insurance_api.repository.ClientRow(
+                p.clientId, TYPE(p), p.phone, p.email, p.name, p.isDeleted, p.deletionDate,
+                p.birthdate, NULL)
+            FROM Person p
+            """;
+
+    @Query(value = ROWS, countQuery = "SELECT COUNT(p) FROM Person p")
+    Page<ClientRow> findRows(Pageable pageable);
+
+    // Same without the COUNT query
+    @Query(ROWS)
+    Slice<ClientRow> findRowsBy(Pageable pageable);
+
 }
@@ -0,0 +1,108 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRow;
+
+/*
+ * Per-client cache of the active contracts (GET /clients/{id}/contracts) and of their cost sum.
+ * Both only change with a contract write or when a contract reaches its end date:
+ * each entry expires at the validUntil of its result (earliest end date), and ContractService
+ * evicts the clients of each write. time-to-live bounds the writes made outside the API (SQL).
+ */
+
+@Component
+public class ActiveContractCache {
+
+    private final Duration timeToLive;
+    private final Cache<UUID, ExpiringResult<List<ContractRow>>> rows;
+    private final Cache<UUID, ExpiringResult<BigDecimal>> costs;
+
+    // Incremented by each eviction: a result loaded while a write commits is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public ActiveContractCache(
+            @Value("${api.cache.active-contracts.max-size:10000}") long maxSize,
+            @Value("${api.cache.active-contracts.time-to-live:PT10M}") Duration timeToLive) {
+        this.timeToLive = timeToLive;
+        this.rows = build(maxSize);
+        this.costs = build(maxSize);
+    }
+
+    public List<ContractRow> getRows(UUID clientId, Supplier<ExpiringResult<List<ContractRow>>> loader) {
+        return get(rows, clientId, loader);
+    }
+
+    public BigDecimal getCost(UUID clientId, Supplier<ExpiringResult<BigDecimal>> loader) {
+        return get(costs, clientId, loader);
+    }
+
+    // Evicted now and again after the commit (or rollback), since a read
+    // in between still sees the committed state before the write
+    public void evict(Collection<UUID> clientIds) {
+        evictNow(clientIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(clientIds);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Collection<UUID> clientIds) {
+        evictions.incrementAndGet();
+        rows.invalidateAll(clientIds);
+        costs.invalidateAll(clientIds);
+    }
+
+    private <T> T get(Cache<UUID, ExpiringResult<T>> cache, UUID clientId, Supplier<ExpiringResult<T>> loader) {
+        ExpiringResult<T> cached = cache.getIfPresent(clientId);
+        if (cached != null) {
+            return cached.value();
+        }
+        long stamp = evictions.get();
+        ExpiringResult<T> loaded = loader.get();
+        // Same lock as the invalidation of this client: checked and stored atomically
+        cache.asMap().compute(clientId, (id, current) -> evictions.get() == stamp ? loaded : current);
+        return loaded.value();
+    }
+
+    private <T> Cache<UUID, ExpiringResult<T>> build(long maxSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.writing((UUID id, ExpiringResult<T> result) -> expiresIn(result)))
+                .build();
+    }
+
+    // Until the earliest end date, at most the time-to-live
+    private Duration expiresIn(ExpiringResult<?> result) {
+        if (result.validUntil() == null) {
+            return timeToLive;
+        }
+        Duration remaining = Duration.between(LocalDateTime.now(), result.validUntil());
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(timeToLive) < 0 ? remaining : timeToLive;
+    }
+
+}
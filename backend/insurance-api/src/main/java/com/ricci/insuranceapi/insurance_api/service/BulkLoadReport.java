@@ -0,0 +1,28 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.time.Duration;
+
+/*
+ * Outcome of a bulk load: rows inserted, rows written to the rejected file,
+ * and the throughput over the whole run (file read, validation, COPY and INSERT).
+ */
+
+public record BulkLoadReport(BulkLoadType type, long bytes, int chunks, long loaded, long rejected, Duration elapsed) {
+
+    public long rows() {
+        return loaded + rejected;
+    }
+
+    public double rowsPerSecond() {
+        return rows() / seconds();
+    }
+
+    public double megabytesPerSecond() {
+        return bytes / 1_000_000.0 / seconds();
+    }
+
+    private double seconds() {
+        return Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0;
+    }
+
+}
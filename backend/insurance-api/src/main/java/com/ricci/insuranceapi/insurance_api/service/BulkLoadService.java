@@ -0,0 +1,516 @@
+// https://www.postgresql.org/docs/16/sql-copy.html
+// https://www.postgresql.org/docs/16/populate.html
+// https://jdbc.postgresql.org/documentation/publicapi/org/postgresql/copy/PGCopyOutputStream.html
+// https://docs.oracle.com/en/java/javase/21/docs/api/java.base/java/nio/channels/FileChannel.html#map(java.nio.channels.FileChannel.MapMode,long,long)
+
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.ricci.insuranceapi.insurance_api.dto.ClientDto;
+import com.ricci.insuranceapi.insurance_api.dto.CompanyDto;
+import com.ricci.insuranceapi.insurance_api.dto.ContractDto;
+import com.ricci.insuranceapi.insurance_api.dto.PersonDto;
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
+import com.ricci.insuranceapi.insurance_api.model.UuidV7Generator;
+import com.ricci.insuranceapi.insurance_api.utils.CsvUtils;
+import com.ricci.insuranceapi.insurance_api.validation.ValidationMessage;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/*
+ * Offline bulk load of persons, companies or contracts from a CSV file (BulkLoadCommand).
+ * The file is cut in chunks of api.bulk-load.chunk-size at line boundaries, each chunk is
+ * memory-mapped and loaded by one of the api.bulk-load.threads workers, in its own transaction:
+ * - each line is validated with the rules of PersonDto / CompanyDto / ContractDto,
+ * - the valid lines are sent with COPY into a temporary staging table,
+ * - one INSERT ... SELECT moves them into the tables, without the phones, emails and
+ *   company identifiers already taken, nor the contracts of unknown clients.
+ * Rejected lines are written to the rejected file with their byte offset in the file and the errors.
+ * A field cannot contain a line break (a chunk starts after any '\n').
+ */
+
+@Service
+public class BulkLoadService {
+
+    private static final String STAGING = "bulk_staging";
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+    private static final BigDecimal MAX_COST_AMOUNT = new BigDecimal("1E12"); // NUMERIC(16, 4)
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final ClientCostSummaryService costSummaryService;
+    private final Validator validator;
+    private final CsvUtils csvUtils;
+    private final long chunkSize;
+    private final int threads;
+
+    @Autowired
+    public BulkLoadService(
+            JdbcTemplate jdbc,
+            PlatformTransactionManager transactionManager,
+            ClientCostSummaryService costSummaryService,
+            Validator validator,
+            CsvUtils csvUtils,
+            @Value("${api.bulk-load.chunk-size:64MB}") DataSize chunkSize,
+            @Value("${api.bulk-load.threads:4}") int threads) {
+        if (chunkSize.toBytes() <= 0 || chunkSize.toBytes() > Integer.MAX_VALUE || threads <= 0) {
+            throw new IllegalArgumentException("Chunk size must be between 1B and 2GB and threads > 0");
+        }
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.costSummaryService = costSummaryService;
+        this.validator = validator;
+        this.csvUtils = csvUtils;
+        this.chunkSize = chunkSize.toBytes();
+        this.threads = threads;
+    }
+
+    // ------------
+    // --- Load ---
+    // ------------
+
+    public BulkLoadReport load(BulkLoadType type, Path file, Path rejectedFile) throws IOException {
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                RejectedWriter rejected = new RejectedWriter(rejectedFile)) {
+            long size = channel.size();
+            long dataStart = checkHeader(type, channel);
+            List<long[]> chunks = splitChunks(channel, dataStart, size);
+
+            // close() waits for the running chunks, the rejected file is closed after them
+            try (ExecutorService workers = Executors.newFixedThreadPool(threads)) {
+                List<Future<long[]>> results = new ArrayList<>();
+                for (long[] chunk : chunks) {
+                    results.add(workers.submit(() -> {
+                        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+                        return loadChunk(type, buffer, chunk[0], rejected);
+                    }));
+                }
+                long loaded = 0;
+                long rejectedRows = 0;
+                try {
+                    for (Future<long[]> result : results) {
+                        long[] counts = result.get();
+                        loaded += counts[0];
+                        rejectedRows += counts[1];
+                    }
+                } catch (ExecutionException ex) {
+                    workers.shutdownNow(); // The chunks not started yet are not loaded
+                    throw ex.getCause() instanceof IOException io ? io : new IOException(ex.getCause());
+                } catch (InterruptedException ex) {
+                    workers.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Bulk load interrupted", ex);
+                }
+                return new BulkLoadReport(type, size, chunks.size(), loaded, rejectedRows,
+                        Duration.ofNanos(System.nanoTime() - started));
+            }
+        }
+    }
+
+    // First line = column names of the type, returns the offset of the first data line
+    private long checkHeader(BulkLoadType type, FileChannel channel) throws IOException {
+        long end = findLineEnd(channel, 0);
+        ByteBuffer header = ByteBuffer.allocate((int) Math.min(end, 4096));
+        channel.read(header, 0);
+        String line = new String(header.array(), 0, header.position(), StandardCharsets.UTF_8)
+                .replace("\uFEFF", "").strip();
+        List<String> columns = csvUtils.parseLine(line);
+        if (columns == null || !columns.stream().map(String::strip).toList().equals(type.getColumns())) {
+            throw new ClientInvalidDataException("Header must be: " + String.join(",", type.getColumns()));
+        }
+        return end;
+    }
+
+    // [start, end) of each chunk, end just after a '\n' (or at the end of the file)
+    private List<long[]> splitChunks(FileChannel channel, long start, long size) throws IOException {
+        List<long[]> chunks = new ArrayList<>();
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : findLineEnd(channel, start + chunkSize);
+            chunks.add(new long[] { start, end });
+            start = end;
+        }
+        return chunks;
+    }
+
+    // Offset after the next '\n' from position, or the file size
+    private long findLineEnd(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long size = channel.size();
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int index = 0; index < read; index++) {
+                if (buffer.get(index) == '\n') {
+                    return position + index + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // -------------
+    // --- Chunk ---
+    // -------------
+
+    // { loaded, rejected }
+    private long[] loadChunk(BulkLoadType type, ByteBuffer buffer, long start, RejectedWriter rejected)
+            throws IOException {
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> insertChunk(type, buffer, start, rejected));
+            // Written once committed, the rows would be rejected again below if the commit failed
+            for (Map.Entry<Long, Map<String, String>> conflict : result.conflicts().entrySet()) {
+                rejected.write(conflict.getKey(), conflict.getValue(), readLine(buffer, start, conflict.getKey()));
+            }
+            return new long[] { result.loaded(), result.invalid() + result.conflicts().size() };
+        } catch (DataAccessException | UncheckedIOException ex) {
+            // Rolled back (e.g. a company identifier inserted at the same time by another chunk):
+            // the invalid lines are already rejected, the valid ones are rejected now
+            Map<String, String> error = Map.of("chunk",
+                    "Not loaded: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+            long[] rejectedRows = { 0 };
+            forEachLine(buffer, start, (offset, line) -> {
+                if (parseLine(type, line).errors().isEmpty()) {
+                    rejected.write(offset, error, line);
+                }
+                rejectedRows[0]++;
+            });
+            return new long[] { 0, rejectedRows[0] };
+        }
+    }
+
+    private ChunkResult insertChunk(BulkLoadType type, ByteBuffer buffer, long start, RejectedWriter rejected) {
+        return jdbc.execute((ConnectionCallback<ChunkResult>) connection -> {
+            jdbc.execute(stagingTable(type));
+            long[] invalid = { 0 };
+            // Connection of the transaction (JpaTransactionManager), same as the INSERT below
+            PGConnection postgres = connection.unwrap(PGConnection.class);
+            String copy = "COPY " + STAGING + " FROM STDIN (FORMAT csv)";
+            try (Writer rows = new BufferedWriter(new OutputStreamWriter(
+                    new PGCopyOutputStream(postgres, copy, COPY_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+                forEachLine(buffer, start, (offset, line) -> {
+                    ParsedLine parsed = parseLine(type, line);
+                    if (parsed.errors().isEmpty()) {
+                        csvUtils.writeLine(rows, stagingValues(offset, parsed.dto()));
+                    } else {
+                        rejected.write(offset, parsed.errors(), line);
+                        invalid[0]++;
+                    }
+                });
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return switch (type) {
+                case PERSONS, COMPANIES -> insertClients(type, invalid[0]);
+                case CONTRACTS -> insertContracts(invalid[0]);
+            };
+        });
+    }
+
+    private String stagingTable(BulkLoadType type) {
+        String columns = switch (type) {
+            case PERSONS -> "client_id UUID, phone TEXT, email TEXT, name TEXT, birthdate DATE";
+            case COMPANIES -> "client_id UUID, phone TEXT, email TEXT, name TEXT, company_identifier TEXT";
+            case CONTRACTS -> "client_id UUID, start_date TIMESTAMP, end_date TIMESTAMP, cost_amount NUMERIC";
+        };
+        return "CREATE TEMP TABLE " + STAGING + " (line_offset BIGINT, " + columns + ") ON COMMIT DROP";
+    }
+
+    // Same order as the staging table, the client ids are generated here (UUID v7)
+    private List<Object> stagingValues(long offset, Object dto) {
+        return switch (dto) {
+            case PersonDto person -> List.of(offset, UuidV7Generator.generate(), nullable(person.getPhone()),
+                    nullable(person.getEmail()), nullable(person.getName()), nullable(person.getBirthdate()));
+            case CompanyDto company -> List.of(offset, UuidV7Generator.generate(), nullable(company.getPhone()),
+                    nullable(company.getEmail()), nullable(company.getName()),
+                    nullable(company.getCompanyIdentifier()));
+            case ContractDto contract -> List.of(offset, contract.getClientId(), nullable(contract.getStartDate()),
+                    nullable(contract.getEndDate()), contract.getCostAmount());
+            default -> throw new IllegalArgumentException("Unknown DTO type: " + dto.getClass());
+        };
+    }
+
+    // Empty field in the COPY csv = NULL
+    private Object nullable(Object value) {
+        return value == null ? "" : value;
+    }
+
+    // A phone, email or identifier already taken (by the table or by a previous line of the
+    // staging table) skips the line. The company identifier is only on company: checked
+    // before inserting the client, so no client is left without its company row.
+    private ChunkResult insertClients(BulkLoadType type, long invalid) {
+        boolean companies = type == BulkLoadType.COMPANIES;
+        String freeIdentifier = !companies ? "" : """
+                WHERE s.company_identifier IS NULL
+                    OR (NOT EXISTS (SELECT 1 FROM company co WHERE co.company_identifier = s.company_identifier)
+                    AND NOT EXISTS (SELECT 1 FROM bulk_staging d
+                        WHERE d.company_identifier = s.company_identifier AND d.line_offset < s.line_offset))
+                """;
+        String subtype = companies
+                ? "INSERT INTO company (client_id, company_identifier) SELECT s.client_id, s.company_identifier"
+                : "INSERT INTO person (client_id, birthdate) SELECT s.client_id, s.birthdate";
+        long loaded = jdbc.update("""
+                WITH inserted AS (
+                    INSERT INTO client (client_id, phone, email, name, client_type)
+                    SELECT s.client_id, s.phone, s.email, s.name, '%s'
+                    FROM bulk_staging s
+                    %s
+                    ORDER BY s.line_offset
+                    ON CONFLICT DO NOTHING
+                    RETURNING client_id)
+                %s
+                FROM bulk_staging s
+                JOIN inserted i ON i.client_id = s.client_id
+                """.formatted(companies ? "COMPANY" : "PERSON", freeIdentifier, subtype));
+
+        // Same messages as POST /clients/persons and /clients/companies
+        Map<Long, Map<String, String>> conflicts = new TreeMap<>();
+        jdbc.query("""
+                SELECT s.line_offset,
+                    EXISTS (SELECT 1 FROM client c WHERE c.phone = s.phone) AS phone,
+                    EXISTS (SELECT 1 FROM client c WHERE c.email = s.email) AS email,
+                    %s AS company_identifier
+                FROM bulk_staging s
+                WHERE NOT EXISTS (SELECT 1 FROM client c WHERE c.client_id = s.client_id)
+                """.formatted(companies
+                ? """
+                    (EXISTS (SELECT 1 FROM company co WHERE co.company_identifier = s.company_identifier)
+                        OR EXISTS (SELECT 1 FROM bulk_staging d
+                            WHERE d.company_identifier = s.company_identifier AND d.line_offset < s.line_offset))"""
+                : "FALSE"), row -> {
+                    Map<String, String> errors = new TreeMap<>();
+                    if (row.getBoolean("phone")) {
+                        errors.put("phone", "Phone already exists");
+                    }
+                    if (row.getBoolean("email")) {
+                        errors.put("email", "Email already exists");
+                    }
+                    if (row.getBoolean("company_identifier")) {
+                        errors.put("companyIdentifier", "Company identifier already exists");
+                    }
+                    if (errors.isEmpty()) {
+                        errors.put("client", "Not loaded");
+                    }
+                    conflicts.put(row.getLong("line_offset"), errors);
+                });
+        return new ChunkResult(loaded, invalid, conflicts);
+    }
+
+    // Contracts of unknown clients are skipped, the cost summaries of the others are refreshed
+    private ChunkResult insertContracts(long invalid) {
+        Map<Long, Map<String, String>> conflicts = new TreeMap<>();
+        jdbc.query("""
+                SELECT s.line_offset, s.client_id
+                FROM bulk_staging s
+                WHERE NOT EXISTS (SELECT 1 FROM client c WHERE c.client_id = s.client_id)
+                """, row -> {
+                    conflicts.put(row.getLong("line_offset"),
+                            Map.of("clientId", "Could not find client " + row.getString("client_id")));
+                });
+        long loaded = jdbc.update("""
+                INSERT INTO contract (client_id, start_date, end_date, update_date, cost_amount)
+                SELECT s.client_id, COALESCE(s.start_date, LOCALTIMESTAMP), s.end_date, LOCALTIMESTAMP, s.cost_amount
+                FROM bulk_staging s
+                WHERE EXISTS (SELECT 1 FROM client c WHERE c.client_id = s.client_id)
+                """);
+        List<UUID> clientIds = jdbc.queryForList("""
+                SELECT DISTINCT s.client_id
+                FROM bulk_staging s
+                WHERE EXISTS (SELECT 1 FROM client c WHERE c.client_id = s.client_id)
+                """, UUID.class);
+        costSummaryService.refresh(clientIds);
+        return new ChunkResult(loaded, invalid, conflicts);
+    }
+
+    private record ChunkResult(long loaded, long invalid, Map<Long, Map<String, String>> conflicts) {
+    }
+
+    // -------------
+    // --- Lines ---
+    // -------------
+
+    private interface LineHandler {
+
+        void handle(long offset, String line) throws IOException;
+
+    }
+
+    // Each non-blank line of the chunk with its offset in the file
+    private void forEachLine(ByteBuffer buffer, long start, LineHandler handler) throws IOException {
+        byte[] bytes = new byte[256];
+        int lineStart = 0;
+        int limit = buffer.limit();
+        for (int index = 0; index <= limit; index++) {
+            if (index < limit && buffer.get(index) != '\n') {
+                continue;
+            }
+            int end = index > lineStart && buffer.get(index - 1) == '\r' ? index - 1 : index;
+            int length = end - lineStart;
+            if (length > 0) {
+                if (bytes.length < length) {
+                    bytes = new byte[length * 2];
+                }
+                buffer.get(lineStart, bytes, 0, length);
+                String line = new String(bytes, 0, length, StandardCharsets.UTF_8);
+                if (!line.isBlank()) {
+                    handler.handle(start + lineStart, line);
+                }
+            }
+            lineStart = index + 1;
+        }
+    }
+
+    private String readLine(ByteBuffer buffer, long start, long offset) {
+        int lineStart = (int) (offset - start);
+        int end = lineStart;
+        while (end < buffer.limit() && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+            end++;
+        }
+        byte[] bytes = new byte[end - lineStart];
+        buffer.get(lineStart, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ------------------
+    // --- Validation ---
+    // ------------------
+
+    private record ParsedLine(Object dto, Map<String, String> errors) {
+    }
+
+    // Same rules as @Valid on POST /clients/persons, /clients/companies and /contracts, field -> message
+    private ParsedLine parseLine(BulkLoadType type, String line) {
+        Map<String, String> errors = new TreeMap<>();
+        List<String> fields = csvUtils.parseLine(line);
+        if (fields == null || fields.size() != type.getColumns().size()) {
+            errors.put("line", "Expected " + type.getColumns().size() + " fields: "
+                    + String.join(",", type.getColumns()));
+            return new ParsedLine(null, errors);
+        }
+        Object dto = switch (type) {
+            case PERSONS -> {
+                PersonDto person = new PersonDto();
+                setClientFields(person, fields);
+                person.setBirthdate(parse(fields.get(3), LocalDate::parse, "birthdate", errors));
+                yield person;
+            }
+            case COMPANIES -> {
+                CompanyDto company = new CompanyDto();
+                setClientFields(company, fields);
+                company.setCompanyIdentifier(blankToNull(fields.get(3)));
+                yield company;
+            }
+            case CONTRACTS -> {
+                ContractDto contract = new ContractDto();
+                contract.setClientId(parse(fields.get(0), UUID::fromString, "clientId", errors));
+                contract.setStartDate(parse(fields.get(1), LocalDateTime::parse, "startDate", errors));
+                contract.setEndDate(parse(fields.get(2), LocalDateTime::parse, "endDate", errors));
+                contract.setCostAmount(parse(fields.get(3), BigDecimal::new, "costAmount", errors));
+                if (contract.getCostAmount() != null && contract.getCostAmount().abs().compareTo(MAX_COST_AMOUNT) >= 0) {
+                    errors.put("costAmount", ValidationMessage.DATA_TYPE_INVALID);
+                }
+                yield contract;
+            }
+        };
+        for (ConstraintViolation<Object> violation : validator.validate(dto)) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return new ParsedLine(dto, errors);
+    }
+
+    private void setClientFields(ClientDto client, List<String> fields) {
+        client.setPhone(blankToNull(fields.get(0)));
+        client.setEmail(blankToNull(fields.get(1)));
+        client.setName(blankToNull(fields.get(2)));
+    }
+
+    private interface FieldParser<T> {
+
+        T parse(String value);
+
+    }
+
+    // Null if empty, error message of the field if it cannot be parsed
+    private <T> T parse(String field, FieldParser<T> parser, String name, Map<String, String> errors) {
+        String value = blankToNull(field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.parse(value);
+        } catch (DateTimeParseException ex) {
+            errors.put(name, ValidationMessage.DATE_INVALID);
+        } catch (IllegalArgumentException ex) { // Also NumberFormatException
+            errors.put(name, ValidationMessage.DATA_TYPE_INVALID);
+        }
+        return null;
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    // Rejected lines: offset,errors,row (shared by the workers)
+    private final class RejectedWriter implements AutoCloseable {
+
+        private final Writer writer;
+
+        RejectedWriter(Path path) throws IOException {
+            this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            csvUtils.writeLine(writer, List.of("offset", "errors", "row"));
+        }
+
+        synchronized void write(long offset, Map<String, String> errors, String row) throws IOException {
+            List<String> messages = new ArrayList<>();
+            errors.forEach((field, message) -> messages.add(field + ": " + message));
+            csvUtils.writeLine(writer, List.of(offset, String.join("; ", messages), row));
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            writer.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.util.List;
+import java.util.Locale;
+
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
+
+/*
+ * What the bulk loader reads (--type=): the header line expected in the CSV file,
+ * same field names as PersonDto / CompanyDto / ContractDto.
+ */
+
+public enum BulkLoadType {
+
+    PERSONS(List.of("phone", "email", "name", "birthdate")),
+    COMPANIES(List.of("phone", "email", "name", "companyIdentifier")),
+    CONTRACTS(List.of("clientId", "startDate", "endDate", "costAmount"));
+
+    private final List<String> columns;
+
+    BulkLoadType(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public static BulkLoadType parse(String type) {
+        try {
+            return BulkLoadType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ClientInvalidDataException("Type must be persons, companies or contracts");
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ricci.insuranceapi.insurance_api.model.ClientCostSummary;
+import com.ricci.insuranceapi.insurance_api.repository.ClientCostSummaryRepository;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRepository;
+
+/*
+ * Per-client rollup of the active contracts (client_cost_summary):
+ * refreshed by ContractService in the transaction of each contract write,
+ * and by a scheduled fold once the next expiry of a client has passed
+ * (which also creates the rollups of the contracts inserted outside the API).
+ */
+
+@Service
+public class ClientCostSummaryService {
+
+    private final ClientCostSummaryRepository summaryRepository;
+    private final ContractRepository contractRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int foldBatchSize;
+
+    @Autowired
+    public ClientCostSummaryService(
+            ClientCostSummaryRepository summaryRepository,
+            ContractRepository contractRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.cost-summary.fold-batch-size:1000}") int foldBatchSize) {
+        this.summaryRepository = summaryRepository;
+        this.contractRepository = contractRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.foldBatchSize = foldBatchSize;
+    }
+
+    // ------------
+    // --- Read ---
+    // ------------
+
+    // Single-row lookup, the contracts are only aggregated if the row
+    // is missing (contracts inserted outside the API) or a fold is pending
+    @Transactional(readOnly = true)
+    public BigDecimal getActiveCost(UUID clientId) {
+        return getActiveCostUntilNextExpiry(clientId).value();
+    }
+
+    // Same, valid until the next end date of an active contract (ActiveContractCache)
+    @Transactional(readOnly = true)
+    public ExpiringResult<BigDecimal> getActiveCostUntilNextExpiry(UUID clientId) {
+        LocalDateTime now = LocalDateTime.now();
+        ClientCostSummary summary = summaryRepository.findById(clientId).orElse(null);
+        if (summary == null || (summary.getNextExpiry() != null && !now.isBefore(summary.getNextExpiry()))) {
+            return new ExpiringResult<>(
+                    contractRepository.sumActiveContractsCost(clientId, now),
+                    contractRepository.findNextExpiry(clientId, now));
+        }
+        return new ExpiringResult<>(summary.getActiveCost(), summary.getNextExpiry());
+    }
+
+    // ---------------
+    // --- Refresh ---
+    // ---------------
+
+    // Joins the transaction of the contract write
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Collection<UUID> clientIds) {
+        if (clientIds.isEmpty()) {
+            return;
+        }
+        UUID[] ids = clientIds.stream().distinct().toArray(UUID[]::new);
+        summaryRepository.lockForRefresh(ids);
+        summaryRepository.refresh(ids, LocalDateTime.now());
+    }
+
+    // Folds the contracts whose end date has passed, one transaction per batch.
+    // First creates the rollups missing for the contracts inserted outside the API
+    @Scheduled(fixedDelayString = "${api.cost-summary.fold-interval:PT1M}")
+    public int foldExpiredContracts() {
+        return foldBatches(summaryRepository::createMissing) + foldBatches(summaryRepository::lockExpired);
+    }
+
+    // Refreshes the rollups returned (and locked) by the query, until a batch is not full
+    private int foldBatches(BiFunction<LocalDateTime, Integer, List<UUID>> rollups) {
+        int folded = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<UUID> ids = rollups.apply(now, foldBatchSize);
+                if (!ids.isEmpty()) {
+                    summaryRepository.refresh(ids.toArray(UUID[]::new), now);
+                }
+                return ids.size();
+            });
+            folded += batch;
+        } while (batch == foldBatchSize);
+        return folded;
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import com.ricci.insuranceapi.insurance_api.model.Client;
+
+/*
+ * Result of ClientService.deleteClient:
+ * the soft-deleted client and the number of contracts closed with it.
+ */
+
+public record ClientDeletion(Client client, int closedContracts) {
+}
@@ -0,0 +1,252 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.ricci.insuranceapi.insurance_api.dto.ClientDto;
+import com.ricci.insuranceapi.insurance_api.dto.ClientImportReportDto;
+import com.ricci.insuranceapi.insurance_api.dto.CompanyDto;
+import com.ricci.insuranceapi.insurance_api.dto.PersonDto;
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
+import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
+import com.ricci.insuranceapi.insurance_api.model.Client;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRepository;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRepository.UniqueKeys;
+import com.ricci.insuranceapi.insurance_api.validation.ValidationMessage;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/*
+ * NDJSON import of persons and companies (one ClientDto per line).
+ * The upload is read line by line and processed in chunks of api.batch-size:
+ * one uniqueness query and one batched insert per chunk, each chunk in its own transaction.
+ * Only the current chunk is kept in memory.
+ */
+
+@Service
+public class ClientImportService {
+
+    private final ClientRepository clientRepository;
+    private final ClientMapper clientMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public ClientImportService(
+            ClientRepository clientRepository,
+            ClientMapper clientMapper,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.batch-size:100}") int batchSize,
+            @Value("${api.import-max-reported-errors:1000}") int maxReportedErrors) {
+        this.clientRepository = clientRepository;
+        this.clientMapper = clientMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    // --------------
+    // --- Import ---
+    // --------------
+
+    public ClientImportReportDto importPersons(InputStream ndjson) {
+        return importClients(ndjson, PersonDto.class);
+    }
+
+    public ClientImportReportDto importCompanies(InputStream ndjson) {
+        return importClients(ndjson, CompanyDto.class);
+    }
+
+    private ClientImportReportDto importClients(InputStream ndjson, Class<? extends ClientDto> type) {
+        ObjectReader reader = objectMapper.readerFor(type);
+        ClientImportReportDto report = new ClientImportReportDto();
+        List<ImportLine> chunk = new ArrayList<>(batchSize);
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ImportLine parsed = parseLine(reader, line, lineNumber);
+                if (parsed.errors().isEmpty()) {
+                    chunk.add(parsed);
+                } else {
+                    reject(report, parsed.number(), parsed.errors());
+                }
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, report);
+                }
+            }
+        } catch (IOException ex) {
+            throw new ClientInvalidDataException("Could not read the uploaded file");
+        }
+        importChunk(chunk, report);
+        return report;
+    }
+
+    // One transaction per chunk: one uniqueness query, then batched inserts.
+    // A row inserted concurrently between the query and the flush rolls the chunk back:
+    // it is retried once, the new query sees that row and rejects only the conflicting line
+    private void importChunk(List<ImportLine> chunk, ClientImportReportDto report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            if (!tryInsertChunk(chunk, report) && !tryInsertChunk(chunk, report)) {
+                // Conflicting again on the retry
+                chunk.forEach(line -> reject(report, line.number(),
+                        Map.of("client", "Conflicting concurrent insert, line not imported")));
+            }
+        } finally {
+            chunk.clear();
+        }
+    }
+
+    // False when rolled back by a unique violation at the flush (nothing reported for this attempt)
+    private boolean tryInsertChunk(List<ImportLine> chunk, ClientImportReportDto report) {
+        List<ImportLine> rejected = new ArrayList<>();
+        int created;
+        try {
+            created = transactionTemplate.execute(status -> insertChunk(chunk, rejected));
+        } catch (DataIntegrityViolationException ex) {
+            chunk.forEach(line -> line.errors().clear());
+            return false;
+        }
+        report.setCreated(report.getCreated() + created);
+        rejected.forEach(line -> reject(report, line.number(), line.errors()));
+        return true;
+    }
+
+    private int insertChunk(List<ImportLine> chunk, List<ImportLine> rejected) {
+        List<UniqueKeys> taken = clientRepository.findTakenUniqueKeys(
+                uniqueValues(chunk, line -> line.dto().getPhone()),
+                uniqueValues(chunk, line -> line.dto().getEmail()),
+                uniqueValues(chunk, ImportLine::companyIdentifier));
+        Set<String> phones = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> identifiers = new HashSet<>();
+        for (UniqueKeys keys : taken) {
+            addIfPresent(phones, keys.getPhone());
+            addIfPresent(emails, keys.getEmail());
+            addIfPresent(identifiers, keys.getCompanyIdentifier());
+        }
+
+        List<Client> created = new ArrayList<>(chunk.size());
+        for (ImportLine line : chunk) {
+            ClientDto dto = line.dto();
+            // Same messages as POST /clients/persons and /clients/companies
+            if (phones.contains(dto.getPhone())) {
+                line.errors().put("phone", "Phone already exists");
+            }
+            if (emails.contains(dto.getEmail())) {
+                line.errors().put("email", "Email already exists");
+            }
+            if (identifiers.contains(line.companyIdentifier())) {
+                line.errors().put("companyIdentifier", "Company identifier already exists");
+            }
+            if (!line.errors().isEmpty()) {
+                rejected.add(line);
+                continue;
+            }
+            // Also catches duplicates inside the chunk
+            addIfPresent(phones, dto.getPhone());
+            addIfPresent(emails, dto.getEmail());
+            addIfPresent(identifiers, line.companyIdentifier());
+            created.add(clientMapper.toEntity(dto));
+        }
+        // Flushed by the repository: a unique constraint violation is translated to DataIntegrityViolationException
+        clientRepository.saveAllAndFlush(created);
+        entityManager.clear();
+        return created.size();
+    }
+
+    private String[] uniqueValues(List<ImportLine> chunk, Function<ImportLine, String> value) {
+        return chunk.stream().map(value).filter(Objects::nonNull).distinct().toArray(String[]::new);
+    }
+
+    private void addIfPresent(Set<String> values, String value) {
+        if (value != null) {
+            values.add(value);
+        }
+    }
+
+    private void reject(ClientImportReportDto report, long lineNumber, Map<String, String> errors) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new ClientImportReportDto.LineError(lineNumber, errors));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    // ------------------
+    // --- Exceptions ---
+    // ------------------
+
+    // Same rules as @Valid on POST /clients/persons and /clients/companies, field -> message
+    private ImportLine parseLine(ObjectReader reader, String line, long lineNumber) {
+        Map<String, String> errors = new HashMap<>();
+        ClientDto dto = null;
+        try {
+            dto = reader.readValue(line);
+            if (dto == null) {
+                errors.put("line", "Client must not be null");
+                return new ImportLine(lineNumber, null, errors);
+            }
+            for (ConstraintViolation<ClientDto> violation : validator.validate(dto)) {
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+            }
+        } catch (UnrecognizedPropertyException ex) {
+            errors.put(ex.getPropertyName(), "Unknown field: " + ex.getPropertyName());
+        } catch (JsonProcessingException ex) {
+            errors.put("line", ValidationMessage.DATA_TYPE_INVALID);
+        }
+        return new ImportLine(lineNumber, dto, errors);
+    }
+
+    private record ImportLine(long number, ClientDto dto, Map<String, String> errors) {
+
+        String companyIdentifier() {
+            return dto instanceof CompanyDto company ? company.getCompanyIdentifier() : null;
+        }
+
+    }
+
+}
@@ -2,45 +2,147 @@ package com.ricci.insuranceapi.insurance_api.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.ricci.insuranceapi.insurance_api.dto.ClientPatchDto;
 import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
 import com.ricci.insuranceapi.insurance_api.exception.ClientNotFoundException;
 import com.ricci.insuranceapi.insurance_api.repository.ClientRepository;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRow;
+import com.ricci.insuranceapi.insurance_api.repository.CompanyRepository;
+import com.ricci.insuranceapi.insurance_api.repository.PersonRepository;
 import com.ricci.insuranceapi.insurance_api.model.Client;
-import com.ricci.insuranceapi.insurance_api.model.Contract;
+import com.ricci.insuranceapi.insurance_api.model.ClientType;
+import com.ricci.insuranceapi.insurance_api.utils.CountMode;
+import com.ricci.insuranceapi.insurance_api.utils.KeysetCursor;
+
+import jakarta.persistence.EntityManagerFactory;
 
 @Service
 public class ClientService {
 
     private final ClientRepository clientRepository;
+    private final PersonRepository personRepository;
+    private final CompanyRepository companyRepository;
     private final ContractService contractService;
+    private final ActiveContractCache activeContractCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate primaryTransaction;
 
     @Autowired
-    public ClientService(ClientRepository clientRepository, ContractService contractService) {
+    public ClientService(
+            ClientRepository clientRepository,
+            PersonRepository personRepository,
+            CompanyRepository companyRepository,
+            ContractService contractService,
+            ActiveContractCache activeContractCache,
+            EntityManagerFactory entityManagerFactory,
+            PlatformTransactionManager transactionManager) {
         this.clientRepository = clientRepository;
+        this.personRepository = personRepository;
+        this.companyRepository = companyRepository;
         this.contractService = contractService;
+        this.activeContractCache = activeContractCache;
+        this.entityManagerFactory = entityManagerFactory;
+        // Not read-only, so routed to the primary: a lagging replica would answer 304 to an outdated ETag
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
     }
 
     // --------------------
     // --- Read clients ---
     // --------------------
 
+    @Transactional(readOnly = true)
     public Page<Client> getAllClients(Pageable pageable) {
         return clientRepository.findAll(pageable);
     }
 
+    // Page (exact COUNT) or Slice (no COUNT) depending on the count mode
+    @Transactional(readOnly = true)
+    public Slice<Client> getAllClients(Pageable pageable, CountMode countMode) {
+        return countMode == CountMode.EXACT ? clientRepository.findAll(pageable) : clientRepository.findAllBy(pageable);
+    }
+
+    // Same as above as ClientRow projections: only the DTO columns, no managed entity
+    @Transactional(readOnly = true)
+    public Slice<ClientRow> getAllClientRows(Pageable pageable, CountMode countMode) {
+        return getAllClientRows(pageable, countMode, null);
+    }
+
+    // Only one type (discriminator), null for all the clients
+    @Transactional(readOnly = true)
+    public Slice<ClientRow> getAllClientRows(Pageable pageable, CountMode countMode, ClientType type) {
+        boolean exact = countMode == CountMode.EXACT;
+        return switch (type) {
+            case null -> exact ? clientRepository.findRows(pageable) : clientRepository.findRowsBy(pageable);
+            case PERSON -> exact ? clientRepository.findPersonRows(pageable) : clientRepository.findPersonRowsBy(pageable);
+            case COMPANY -> exact ? clientRepository.findCompanyRows(pageable) : clientRepository.findCompanyRowsBy(pageable);
+        };
+    }
+
+    // From the planner statistics, null if not available yet
+    @Transactional(readOnly = true)
+    public Long estimateClientCount() {
+        return estimateClientCount(null);
+    }
+
+    @Transactional(readOnly = true)
+    public Long estimateClientCount(ClientType type) {
+        long estimate = switch (type) {
+            case null -> clientRepository.estimateCount();
+            case PERSON -> personRepository.estimateCount();
+            case COMPANY -> companyRepository.estimateCount();
+        };
+        return estimate < 0 ? null : estimate;
+    }
+
+    // Keyset pagination sorted by name, after = null for the first page
+    @Transactional(readOnly = true)
+    public List<Client> getClientsByName(KeysetCursor after, int limit, boolean descending) {
+        Limit max = Limit.of(limit);
+        if (after == null) {
+            return descending
+                    ? clientRepository.findFirstByNameDesc(max)
+                    : clientRepository.findFirstByNameAsc(max);
+        }
+        return descending
+                ? clientRepository.findAfterByNameDesc(after.sortKey(), after.id(), max)
+                : clientRepository.findAfterByNameAsc(after.sortKey(), after.id(), max);
+    }
+
+    @Transactional(readOnly = true)
     public Client getClient(UUID id) {
         return clientRepository.findById(id).orElseThrow(() -> new ClientNotFoundException(id));
     }
 
+    // Version only (conditional GET): from the second-level cache like GET /clients/{id},
+    // otherwise only the version column, read on the primary
+    public long getClientVersion(UUID id) {
+        return primaryTransaction.execute(status -> entityManagerFactory.getCache().contains(Client.class, id)
+                ? getClient(id).getVersion()
+                : clientRepository.findVersionById(id).orElseThrow(() -> new ClientNotFoundException(id)));
+    }
+
+    // Loads the most recently updated clients into the second-level cache
+    // (entities read by a query are put in the cache like the ones read by id)
+    @Transactional(readOnly = true)
+    public int warmUpCache(int limit) {
+        return clientRepository.findByOrderByUpdateDateDesc(Limit.of(limit)).size();
+    }
+
     // ----------------------
     // --- Update clients ---
     // ----------------------
@@ -62,7 +164,10 @@ public class ClientService {
         if (update.getDeletionDate() != null)
             existing.setDeletionDate(update.getDeletionDate());
 
-        return clientRepository.save(existing);
+        Client updated = saveUnique(existing); // 400 if the new phone or email is taken
+        // The cached active contract rows also contain the client columns
+        activeContractCache.evict(List.of(id));
+        return updated;
     }
 
     // ----------------------
@@ -70,23 +175,19 @@ public class ClientService {
     // ----------------------
 
     @Transactional
-    public Client deleteClient(UUID id) {
+    public ClientDeletion deleteClient(UUID id) {
         // Soft delete for archives
         Client client = this.getClient(id);
         if (client.getIsDeleted() == true) {
-            return client;
+            return new ClientDeletion(client, 0);
         } else {
             client.setIsDeleted(true);
             client.setDeletionDate(LocalDateTime.now());
-            closeContracts(id); // REQUIREMENT: Client is deleted -> end date updated for its contracts
-            return clientRepository.save(client);
-        }
-    }
-
-    private void closeContracts(UUID clientId) {
-        List<Contract> contracts = contractService.getActiveContracts(clientId);
-        for (Contract contract : contracts) {
-            contractService.forceCloseContract(contract.getContractId());
+            Client deleted = clientRepository.save(client);
+            // REQUIREMENT: Client is deleted -> end date updated for its contracts
+            // (The bulk update flushes the client first, then clears the persistence context)
+            int closed = contractService.closeActiveContracts(id);
+            return new ClientDeletion(deleted, closed);
         }
     }
 
@@ -94,13 +195,24 @@ public class ClientService {
     // --- Exceptions ---
     // ------------------
 
-    // Helper for POST on concrete childs class
-    protected void validateUniquePhoneOrEmail(Client client) {
-        if (clientRepository.existsByPhone(client.getPhone())) {
-            throw new ClientInvalidDataException("Phone already exists");
-        }
-        if (clientRepository.existsByEmail(client.getEmail())) {
-            throw new ClientInvalidDataException("Email already exists");
+    // Unique constraints (PostgreSQL default names of V1) -> message of the 400
+    private static final Map<String, String> UNIQUE_VIOLATIONS = Map.of(
+            "client_phone_key", "Phone already exists",
+            "client_email_key", "Email already exists",
+            "company_company_identifier_key", "Company identifier already exists");
+
+    // Helper for POST on concrete childs class (and PATCH): the unique constraints
+    // are checked by the INSERT / UPDATE itself, no SELECT before and no race
+    // between two concurrent requests. Flushed here to translate the violation.
+    protected <T extends Client> T saveUnique(T client) {
+        try {
+            return clientRepository.saveAndFlush(client);
+        } catch (DataIntegrityViolationException ex) {
+            if (ex.getCause() instanceof ConstraintViolationException violation
+                    && UNIQUE_VIOLATIONS.containsKey(violation.getConstraintName())) {
+                throw new ClientInvalidDataException(UNIQUE_VIOLATIONS.get(violation.getConstraintName()));
+            }
+            throw ex;
         }
     }
 
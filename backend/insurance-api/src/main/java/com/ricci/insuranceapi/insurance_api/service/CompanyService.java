@@ -1,14 +1,16 @@
 package com.ricci.insuranceapi.insurance_api.service;
 
 import com.ricci.insuranceapi.insurance_api.dto.CompanyDto;
-import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
 import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
 import com.ricci.insuranceapi.insurance_api.model.Company;
 import com.ricci.insuranceapi.insurance_api.repository.CompanyRepository;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRow;
+import com.ricci.insuranceapi.insurance_api.utils.CountMode;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,10 +35,30 @@ public class CompanyService {
     // --- Read companies ---
     // ----------------------
 
+    @Transactional(readOnly = true)
     public Page<Company> getAllCompanies(Pageable pageable) {
         return companyRepository.findAll(pageable);
     }
 
+    // Page (exact COUNT) or Slice (no COUNT) depending on the count mode
+    @Transactional(readOnly = true)
+    public Slice<Company> getAllCompanies(Pageable pageable, CountMode countMode) {
+        return countMode == CountMode.EXACT ? companyRepository.findAll(pageable) : companyRepository.findAllBy(pageable);
+    }
+
+    // Same as above as ClientRow projections: only the DTO columns, no managed entity
+    @Transactional(readOnly = true)
+    public Slice<ClientRow> getAllCompanyRows(Pageable pageable, CountMode countMode) {
+        return countMode == CountMode.EXACT ? companyRepository.findRows(pageable) : companyRepository.findRowsBy(pageable);
+    }
+
+    // From the planner statistics, null if not available yet
+    @Transactional(readOnly = true)
+    public Long estimateCompanyCount() {
+        long estimate = companyRepository.estimateCount();
+        return estimate < 0 ? null : estimate;
+    }
+
     // ----------------------
     // --- Create company ---
     // ----------------------
@@ -44,19 +66,7 @@ public class CompanyService {
     @Transactional
     public Company createCompany(CompanyDto dto) {
         Company company = (Company) clientMapper.toEntity(dto);
-        checkUniqueCompanyIdentifier(company.getCompanyIdentifier());
-        clientService.validateUniquePhoneOrEmail(company);
-        return companyRepository.save(company);
-    }
-
-    // ------------------
-    // --- Exceptions ---
-    // ------------------
-
-    private void checkUniqueCompanyIdentifier(String id) {
-        if (companyRepository.existsByCompanyIdentifier(id)) {
-            throw new ClientInvalidDataException("Company identifier already exists");
-        }
+        return clientService.saveUnique(company); // 400 if phone, email or identifier is taken
     }
 
 }
@@ -0,0 +1,18 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.util.Map;
+
+import com.ricci.insuranceapi.insurance_api.model.Contract;
+
+/*
+ * Result of one item of ContractService.createContracts:
+ * the created contract, or the errors (field -> message) if rejected.
+ */
+
+public record ContractBatchResult(int index, Contract contract, Map<String, String> errors) {
+
+    public boolean isCreated() {
+        return contract != null;
+    }
+
+}
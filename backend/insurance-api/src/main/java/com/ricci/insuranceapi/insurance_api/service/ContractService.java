@@ -2,49 +2,139 @@ package com.ricci.insuranceapi.insurance_api.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.ricci.insuranceapi.insurance_api.dto.ContractDto;
 import com.ricci.insuranceapi.insurance_api.dto.ContractPatchDto;
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
 import com.ricci.insuranceapi.insurance_api.exception.ContractNotFoundException;
 import com.ricci.insuranceapi.insurance_api.mapper.ContractMapper;
 import com.ricci.insuranceapi.insurance_api.model.Client;
 import com.ricci.insuranceapi.insurance_api.model.Contract;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRepository;
 import com.ricci.insuranceapi.insurance_api.repository.ContractRepository;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRow;
+import com.ricci.insuranceapi.insurance_api.utils.CountMode;
+import com.ricci.insuranceapi.insurance_api.utils.KeysetCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 @Service
 public class ContractService {
 
     private final ContractRepository contractRepository;
+    private final ClientRepository clientRepository;
     private final ContractMapper contractMapper;
+    private final ClientCostSummaryService costSummaryService;
+    private final ActiveContractCache activeContractCache;
+    private final TransactionTemplate primaryTransaction;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final int batchSize;
+    private final int batchMaxItems;
 
     @Autowired
     public ContractService(
             ContractRepository contractRepository,
-            ContractMapper contractMapper) {
+            ClientRepository clientRepository,
+            ContractMapper contractMapper,
+            ClientCostSummaryService costSummaryService,
+            ActiveContractCache activeContractCache,
+            PlatformTransactionManager transactionManager,
+            EntityManager entityManager,
+            Validator validator,
+            @Value("${api.batch-size:100}") int batchSize,
+            @Value("${api.batch-max-items:10000}") int batchMaxItems) {
         this.contractRepository = contractRepository;
+        this.clientRepository = clientRepository;
         this.contractMapper = contractMapper;
+        this.costSummaryService = costSummaryService;
+        this.activeContractCache = activeContractCache;
+        // Not read-only, so routed to the primary: cache misses and conditional GET versions
+        // (a lagging replica result would stay cached, or answer 304 to an outdated ETag)
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.batchMaxItems = batchMaxItems;
     }
 
     // ----------------------
     // --- Read contracts ---
     // ----------------------
 
+    @Transactional(readOnly = true)
     public Page<Contract> getAllContracts(Pageable pageable) {
         return contractRepository.findAll(pageable);
     }
 
+    // Page (exact COUNT) or Slice (no COUNT) depending on the count mode
+    @Transactional(readOnly = true)
+    public Slice<Contract> getAllContracts(Pageable pageable, CountMode countMode) {
+        return countMode == CountMode.EXACT ? contractRepository.findAll(pageable) : contractRepository.findAllBy(pageable);
+    }
+
+    // Same as above as ContractRow projections: only the DTO columns, no managed entity
+    @Transactional(readOnly = true)
+    public Slice<ContractRow> getAllContractRows(Pageable pageable, CountMode countMode) {
+        return countMode == CountMode.EXACT ? contractRepository.findRows(pageable) : contractRepository.findRowsBy(pageable);
+    }
+
+    // From the planner statistics, null if not available yet
+    @Transactional(readOnly = true)
+    public Long estimateContractCount() {
+        long estimate = contractRepository.estimateCount();
+        return estimate < 0 ? null : estimate;
+    }
+
+    // Keyset pagination sorted by update date, after = null for the first page
+    @Transactional(readOnly = true)
+    public List<Contract> getContractsByUpdateDate(KeysetCursor after, int limit, boolean descending) {
+        Limit max = Limit.of(limit);
+        if (after == null) {
+            return descending
+                    ? contractRepository.findFirstByUpdateDateDesc(max)
+                    : contractRepository.findFirstByUpdateDateAsc(max);
+        }
+        LocalDateTime updateDate = parseCursorDate(after.sortKey());
+        return descending
+                ? contractRepository.findAfterByUpdateDateDesc(updateDate, after.id(), max)
+                : contractRepository.findAfterByUpdateDateAsc(updateDate, after.id(), max);
+    }
+
+    @Transactional(readOnly = true)
     public Contract getContract(UUID id) {
         return contractRepository.findById(id).orElseThrow(() -> new ContractNotFoundException(id));
     }
 
+    // Versions of the contract and its client only (conditional GET), no entity loaded, read on the primary
+    public ContractRepository.Versions getContractVersions(UUID id) {
+        return primaryTransaction.execute(status -> contractRepository.findVersionsById(id))
+                .orElseThrow(() -> new ContractNotFoundException(id));
+    }
+
     // ------------------------
     // --- Create contracts ---
     // ------------------------
@@ -52,7 +142,58 @@ public class ContractService {
     @Transactional
     public Contract createContract(ContractDto dto, Client client) {
         Contract contract = contractMapper.toEntity(dto, client);
-        return contractRepository.save(contract);
+        Contract created = contractRepository.save(contract);
+        contractsChanged(List.of(client.getClientId()));
+        return created;
+    }
+
+    // Batch creation: invalid items are rejected, the others are inserted
+    // with JDBC batching (hibernate.jdbc.batch_size = api.batch-size)
+    @Transactional
+    public List<ContractBatchResult> createContracts(List<ContractDto> dtos) {
+        if (dtos == null || dtos.isEmpty() || dtos.size() > batchMaxItems) {
+            throw new ClientInvalidDataException("Batch must contain between 1 and " + batchMaxItems + " contracts");
+        }
+
+        // Clients referenced by the batch, resolved with a single query
+        Set<UUID> clientIds = clientRepository.findExistingIds(dtos.stream()
+                .filter(Objects::nonNull)
+                .map(ContractDto::getClientId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+
+        List<ContractBatchResult> results = new ArrayList<>();
+        List<Contract> pending = new ArrayList<>();
+        Set<UUID> createdFor = new HashSet<>();
+        for (int index = 0; index < dtos.size(); index++) {
+            ContractDto dto = dtos.get(index);
+            Map<String, String> errors = validateBatchItem(dto, clientIds);
+            if (!errors.isEmpty()) {
+                results.add(new ContractBatchResult(index, null, errors));
+                continue;
+            }
+            // Reference only (no SELECT), the client existence is already checked
+            Client client = clientRepository.getReferenceById(dto.getClientId());
+            Contract contract = contractMapper.toEntity(dto, client);
+            contractRepository.save(contract);
+            pending.add(contract);
+            createdFor.add(dto.getClientId());
+            results.add(new ContractBatchResult(index, contract, null));
+            if (pending.size() == batchSize) {
+                flushBatch(pending);
+            }
+        }
+        flushBatch(pending);
+        contractsChanged(createdFor);
+        return results;
+    }
+
+    // Sends the pending inserts, then detaches them to keep the persistence context small
+    private void flushBatch(List<Contract> pending) {
+        entityManager.flush();
+        entityManager.clear();
+        pending.clear();
     }
 
     // ------------------------
@@ -69,7 +210,9 @@ public class ContractService {
         if (patchEntity.getEndDate() != null)
             existing.setEndDate(patchEntity.getEndDate());
 
-        return contractRepository.save(existing);
+        Contract updated = contractRepository.save(existing);
+        contractsChanged(List.of(existing.getClient().getClientId()));
+        return updated;
     }
 
     // ------------------------
@@ -85,7 +228,9 @@ public class ContractService {
             return contract;
         } else {
             contract.setEndDate(LocalDateTime.now());
-            return contractRepository.save(contract);
+            Contract deleted = contractRepository.save(contract);
+            contractsChanged(List.of(contract.getClient().getClientId()));
+            return deleted;
         }
     }
 
@@ -95,23 +240,84 @@ public class ContractService {
         Contract contract = this.getContract(id);
         LocalDateTime now = LocalDateTime.now();
         contract.setEndDate(now);
-        return contractRepository.save(contract);
+        Contract closed = contractRepository.save(contract);
+        contractsChanged(List.of(contract.getClient().getClientId()));
+        return closed;
+    }
+
+    // Set-based version of forceCloseContract for all the active contracts of a client
+    @Transactional
+    public int closeActiveContracts(UUID clientId) {
+        int closed = contractRepository.closeActiveByClient(clientId, LocalDateTime.now());
+        contractsChanged(List.of(clientId));
+        return closed;
     }
 
     // -----------------------
     // --- Custom services ---
     // -----------------------
 
+    @Transactional(readOnly = true)
     public List<Contract> getActiveContracts(UUID clientId) {
         return contractRepository.findActiveByClient(clientId, LocalDateTime.now());
     }
 
+    // From ActiveContractCache, no transaction (nor connection) unless the client is missing (loaded from the primary)
+    public List<ContractRow> getActiveContractRows(UUID clientId) {
+        return activeContractCache.getRows(clientId, () -> primaryTransaction.execute(status -> {
+            List<ContractRow> rows = contractRepository.findActiveRowsByClient(clientId, LocalDateTime.now());
+            LocalDateTime nextExpiry = rows.stream()
+                    .map(ContractRow::endDate)
+                    .filter(Objects::nonNull)
+                    .min(LocalDateTime::compareTo)
+                    .orElse(null);
+            return new ExpiringResult<>(List.copyOf(rows), nextExpiry);
+        }));
+    }
+
+    @Transactional(readOnly = true)
     public List<Contract> getActiveContractsUpdatedAfter(UUID clientId, LocalDateTime updatedAfter) {
         return contractRepository.findActiveByClientUpdatedAfter(clientId, LocalDateTime.now(), updatedAfter);
     }
 
+    // From ActiveContractCache, then from the client_cost_summary rollup (ClientCostSummaryService, on the primary)
     public BigDecimal getSumOfActiveContractsCost(UUID clientId) {
-        return contractRepository.sumActiveContractsCost(clientId, LocalDateTime.now());
+        return activeContractCache.getCost(clientId,
+                () -> primaryTransaction.execute(status -> costSummaryService.getActiveCostUntilNextExpiry(clientId)));
+    }
+
+    // Each contract write: rollup refreshed in its transaction, cached results evicted
+    private void contractsChanged(Collection<UUID> clientIds) {
+        costSummaryService.refresh(clientIds);
+        activeContractCache.evict(clientIds);
+    }
+
+    // ------------------
+    // --- Exceptions ---
+    // ------------------
+
+    // Same rules as @Valid on POST /contracts, field -> message
+    private Map<String, String> validateBatchItem(ContractDto dto, Set<UUID> clientIds) {
+        Map<String, String> errors = new HashMap<>();
+        if (dto == null) {
+            errors.put("contract", "Contract must not be null");
+            return errors;
+        }
+        for (ConstraintViolation<ContractDto> violation : validator.validate(dto)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (dto.getClientId() != null && !clientIds.contains(dto.getClientId())) {
+            errors.put("clientId", "Could not find client " + dto.getClientId());
+        }
+        return errors;
+    }
+
+    private LocalDateTime parseCursorDate(String sortKey) {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException ex) {
+            throw new ClientInvalidDataException("Invalid cursor");
+        }
     }
 
 }
@@ -0,0 +1,353 @@
+// https://www.postgresql.org/docs/16/sql-copy.html
+// https://www.postgresql.org/docs/16/populate.html
+// https://en.wikipedia.org/wiki/Pareto_distribution#Random_variate_generation
+// https://www.uid.admin.ch/
+
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ricci.insuranceapi.insurance_api.model.UuidV7Generator;
+import com.ricci.insuranceapi.insurance_api.utils.CsvUtils;
+
+/*
+ * Synthetic portfolio for the performance tests (GenerateDatasetCommand): persons and companies
+ * with valid Swiss phones, unique emails and company identifiers, and a skewed number of
+ * contracts per client (DatasetSpec). The clients are cut in chunks of api.dataset.chunk-size,
+ * generated and written by api.dataset.threads workers, each chunk in its own transaction:
+ * - the clients are sent with COPY into a temporary staging table, then moved into
+ *   client / person / company without the phones, emails and identifiers already taken,
+ * - the contracts and the cost summaries of the inserted clients are sent with COPY
+ *   directly into their tables (no constraint to check but the keys).
+ * The schema only keeps the current cost of a contract: its cost history is the number of
+ * changes (version) and the date of the last one (update_date).
+ */
+
+@Service
+public class DatasetGeneratorService {
+
+    private static final String STAGING = "dataset_staging";
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+    private static final long PHONE_NUMBERS = 10_000_000L; // 7 digits after the prefix
+    private static final long COMPANY_NUMBERS = 1_000_000_000L; // CHE-123.456.789
+    private static final int YEARS_OF_CONTRACTS = 10;
+    private static final double COST_CHANGE_PROBABILITY = 0.3;
+
+    // Mobile and landline prefixes (+41 xx), DatasetSpec.MAX_CLIENTS = 26 x PHONE_NUMBERS
+    private static final String[] PHONE_PREFIXES = {
+            "79", "78", "77", "76", "75", "21", "22", "24", "26", "27", "31", "32", "33",
+            "34", "41", "43", "44", "52", "55", "56", "58", "61", "62", "71", "81", "91" };
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Chloe", "David", "Emma", "Felix", "Giulia", "Hugo", "Ines", "Jonas",
+            "Lea", "Luca", "Mia", "Noah", "Olivia", "Paul", "Sara", "Tim", "Valentina", "Yannick" };
+    private static final String[] LAST_NAMES = {
+            "Muller", "Meier", "Schmid", "Keller", "Weber", "Huber", "Schneider", "Meyer", "Steiner", "Fischer",
+            "Gerber", "Brunner", "Baumann", "Frei", "Zimmermann", "Moser", "Rossi", "Favre", "Bianchi", "Dupont" };
+    private static final String[] COMPANY_SUFFIXES = { "AG", "SA", "GmbH", "Sarl" };
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final CsvUtils csvUtils;
+    private final int chunkSize;
+    private final int threads;
+
+    @Autowired
+    public DatasetGeneratorService(
+            JdbcTemplate jdbc,
+            PlatformTransactionManager transactionManager,
+            CsvUtils csvUtils,
+            @Value("${api.dataset.chunk-size:10000}") int chunkSize,
+            @Value("${api.dataset.threads:4}") int threads) {
+        if (chunkSize <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Chunk size and threads must be > 0");
+        }
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.csvUtils = csvUtils;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    // ----------------
+    // --- Generate ---
+    // ----------------
+
+    public DatasetReport generate(DatasetSpec spec) throws IOException {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        int chunks = (int) ((spec.clients() + chunkSize - 1) / chunkSize);
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(threads)) {
+            List<Future<ChunkResult>> results = new ArrayList<>();
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                long first = (long) chunk * chunkSize;
+                int count = (int) Math.min(chunkSize, spec.clients() - first);
+                results.add(workers.submit(() -> transactionTemplate.execute(
+                        status -> insertChunk(spec, first, count, now))));
+            }
+            ChunkResult total = new ChunkResult(0, 0, 0, 0);
+            try {
+                for (Future<ChunkResult> result : results) {
+                    total = total.plus(result.get());
+                }
+            } catch (ExecutionException ex) {
+                workers.shutdownNow(); // The committed chunks stay, the others are not generated
+                throw ex.getCause() instanceof IOException io ? io : new IOException(ex.getCause());
+            } catch (InterruptedException ex) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new IOException("Dataset generation interrupted", ex);
+            }
+            return new DatasetReport(chunks, total.persons(), total.companies(), total.contracts(),
+                    total.skipped(), Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+
+    // -------------
+    // --- Chunk ---
+    // -------------
+
+    // Clients [first, first + count) of the spec
+    private ChunkResult insertChunk(DatasetSpec spec, long first, int count, LocalDateTime now) {
+        long millis = System.currentTimeMillis();
+        List<GeneratedClient> clients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            clients.add(generateClient(spec, first + i, millis, now));
+        }
+
+        return jdbc.execute((ConnectionCallback<ChunkResult>) connection -> {
+            // Connection of the transaction (JpaTransactionManager), same as the statements below
+            PGConnection postgres = connection.unwrap(PGConnection.class);
+            // Regenerated rather than recovered: the commit does not wait for the WAL flush
+            jdbc.execute("SET LOCAL synchronous_commit = off");
+            jdbc.execute("""
+                    CREATE TEMP TABLE %s (client_id UUID, client_type TEXT, phone TEXT, email TEXT, name TEXT,
+                        birthdate DATE, company_identifier TEXT) ON COMMIT DROP""".formatted(STAGING));
+            copy(postgres, STAGING, clients, client -> List.of(Arrays.asList(client.clientId(), client.type(),
+                    client.phone(), client.email(), client.name(), client.birthdate(), client.companyIdentifier())));
+
+            jdbc.update("""
+                    WITH inserted AS (
+                        INSERT INTO client (client_id, phone, email, name, client_type)
+                        SELECT s.client_id, s.phone, s.email, s.name, s.client_type
+                        FROM dataset_staging s
+                        WHERE s.company_identifier IS NULL
+                            OR NOT EXISTS (SELECT 1 FROM company co WHERE co.company_identifier = s.company_identifier)
+                        ON CONFLICT DO NOTHING
+                        RETURNING client_id),
+                    persons AS (
+                        INSERT INTO person (client_id, birthdate)
+                        SELECT s.client_id, s.birthdate
+                        FROM dataset_staging s JOIN inserted i ON i.client_id = s.client_id
+                        WHERE s.client_type = 'PERSON')
+                    INSERT INTO company (client_id, company_identifier)
+                    SELECT s.client_id, s.company_identifier
+                    FROM dataset_staging s JOIN inserted i ON i.client_id = s.client_id
+                    WHERE s.client_type = 'COMPANY'
+                    """);
+            Set<UUID> skipped = new HashSet<>(jdbc.queryForList("""
+                    SELECT s.client_id FROM dataset_staging s
+                    WHERE NOT EXISTS (SELECT 1 FROM client c WHERE c.client_id = s.client_id)
+                    """, UUID.class));
+            List<GeneratedClient> inserted = clients.stream()
+                    .filter(client -> !skipped.contains(client.clientId()))
+                    .toList();
+
+            long[] contracts = { 0 };
+            List<Summary> summaries = new ArrayList<>(inserted.size());
+            copy(postgres, "contract (contract_id, client_id, start_date, end_date, update_date, cost_amount, version)",
+                    inserted, client -> {
+                        List<List<?>> rows = generateContracts(spec, client, now, summaries);
+                        contracts[0] += rows.size();
+                        return rows;
+                    });
+            copy(postgres, "client_cost_summary (client_id, active_contracts, active_cost, next_expiry)",
+                    summaries, summary -> List.of(Arrays.asList(summary.clientId(), summary.activeContracts(),
+                            summary.activeCost(), summary.nextExpiry())));
+
+            long persons = inserted.stream().filter(client -> client.companyIdentifier() == null).count();
+            return new ChunkResult(persons, inserted.size() - persons, contracts[0], skipped.size());
+        });
+    }
+
+    private interface RowGenerator<T> {
+
+        List<List<?>> rows(T item);
+
+    }
+
+    // COPY in CSV: an empty field is NULL
+    private <T> void copy(PGConnection postgres, String table, List<T> items, RowGenerator<T> generator)
+            throws SQLException {
+        String copy = "COPY " + table + " FROM STDIN (FORMAT csv)";
+        try (Writer rows = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(postgres, copy, COPY_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            for (T item : items) {
+                for (List<?> row : generator.rows(item)) {
+                    csvUtils.writeLine(rows, row);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // ---------------
+    // --- Clients ---
+    // ---------------
+
+    // The contracts of a client have their own seed: the same whatever clients are skipped
+    private record GeneratedClient(UUID clientId, String type, String phone, String email, String name,
+            LocalDate birthdate, String companyIdentifier, long seed) {
+    }
+
+    // position: 0 to clients - 1, the persons first. One random per client, seeded with the seed
+    // and the index: the same client whatever the chunk size and the number of threads
+    private GeneratedClient generateClient(DatasetSpec spec, long position, long millis, LocalDateTime now) {
+        long index = spec.offset() + position;
+        SplittableRandom random = new SplittableRandom(spec.seed() ^ index * 0x9E3779B97F4A7C15L);
+        UUID clientId = UuidV7Generator.generate(millis, random);
+        String lastName = pick(LAST_NAMES, random);
+        if (position < spec.persons()) {
+            String firstName = pick(FIRST_NAMES, random);
+            LocalDate birthdate = now.toLocalDate().minusYears(18).minusDays(random.nextInt(365 * 70));
+            return new GeneratedClient(clientId, "PERSON", phone(index),
+                    (firstName + "." + lastName + "." + index + "@example.ch").toLowerCase(Locale.ROOT),
+                    firstName + " " + lastName, birthdate, null, random.nextLong());
+        }
+        String suffix = pick(COMPANY_SUFFIXES, random);
+        return new GeneratedClient(clientId, "COMPANY", phone(index),
+                ("info." + index + "@" + lastName + "-" + suffix + ".ch").toLowerCase(Locale.ROOT),
+                lastName + " " + suffix, null, companyIdentifier(index), random.nextLong());
+    }
+
+    // +41 xx xxx xx xx: the prefix cycles with the index, the 7 digits are a permutation
+    // of index / 26 (multiplier coprime with 10^7), so two indexes never share a phone
+    static String phone(long index) {
+        String prefix = PHONE_PREFIXES[(int) (index % PHONE_PREFIXES.length)];
+        long number = (index / PHONE_PREFIXES.length * 3_999_971L + 8_765_431L) % PHONE_NUMBERS;
+        return "+41" + prefix + String.format("%07d", number);
+    }
+
+    // Swiss UID format, permutation of the index over 9 digits
+    static String companyIdentifier(long index) {
+        long number = (index * 387_420_489L + 123_456_789L) % COMPANY_NUMBERS;
+        String digits = String.format("%09d", number);
+        return "CHE-" + digits.substring(0, 3) + "." + digits.substring(3, 6) + "." + digits.substring(6);
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // -----------------
+    // --- Contracts ---
+    // -----------------
+
+    private record Summary(UUID clientId, int activeContracts, BigDecimal activeCost, LocalDateTime nextExpiry) {
+    }
+
+    // Contract rows of the client, its cost summary (same rollup as ClientCostSummaryService) added to summaries
+    private List<List<?>> generateContracts(DatasetSpec spec, GeneratedClient client, LocalDateTime now,
+            List<Summary> summaries) {
+        SplittableRandom random = new SplittableRandom(client.seed());
+        long millis = System.currentTimeMillis();
+        int count = contractCount(spec, random);
+        List<List<?>> rows = new ArrayList<>(count);
+        int activeContracts = 0;
+        BigDecimal activeCost = BigDecimal.ZERO;
+        LocalDateTime nextExpiry = null;
+
+        long maxAgeSeconds = YEARS_OF_CONTRACTS * 365L * 24 * 3600;
+        for (int i = 0; i < count; i++) {
+            LocalDateTime startDate = now.minusSeconds(3600 + random.nextLong(maxAgeSeconds));
+            double kind = random.nextDouble();
+            LocalDateTime endDate;
+            if (kind < spec.endedRatio()) {
+                endDate = between(startDate.plusSeconds(1), now.minusSeconds(1), random);
+            } else if (kind < spec.endedRatio() + spec.futureRatio()) {
+                endDate = now.plusDays(1 + random.nextInt(5 * 365));
+            } else {
+                endDate = null;
+            }
+            // Log-normal around 500 (most between 200 and 1250), 2 decimals
+            BigDecimal costAmount = BigDecimal.valueOf(Math.round(Math.exp(Math.log(500)
+                    + 0.8 * random.nextGaussian()) * 100), 2);
+            int changes = 0;
+            while (changes < 10 && random.nextDouble() < COST_CHANGE_PROBABILITY) {
+                changes++;
+            }
+            LocalDateTime lastChange = endDate != null && endDate.isBefore(now) ? endDate : now;
+            LocalDateTime updateDate = changes == 0 ? startDate : between(startDate, lastChange, random);
+            rows.add(Arrays.asList(UuidV7Generator.generate(millis, random), client.clientId(), startDate, endDate,
+                    updateDate, costAmount, changes));
+
+            if (endDate == null || now.isBefore(endDate)) {
+                activeContracts++;
+                activeCost = activeCost.add(costAmount);
+                if (endDate != null && (nextExpiry == null || endDate.isBefore(nextExpiry))) {
+                    nextExpiry = endDate;
+                }
+            }
+        }
+        summaries.add(new Summary(client.clientId(), activeContracts, activeCost, nextExpiry));
+        return rows;
+    }
+
+    // Pareto of shape skew and mean contractsPerClient, rounded and capped
+    static int contractCount(DatasetSpec spec, SplittableRandom random) {
+        double scale = spec.contractsPerClient() * (spec.skew() - 1) / spec.skew();
+        double value = scale / Math.pow(1 - random.nextDouble(), 1 / spec.skew());
+        return (int) Math.min(spec.maxContractsPerClient(), Math.round(value));
+    }
+
+    private static LocalDateTime between(LocalDateTime from, LocalDateTime to, SplittableRandom random) {
+        long start = from.toEpochSecond(ZoneOffset.UTC);
+        long end = to.toEpochSecond(ZoneOffset.UTC);
+        return end <= start ? from : LocalDateTime.ofEpochSecond(random.nextLong(start, end + 1), 0, ZoneOffset.UTC);
+    }
+
+    private record ChunkResult(long persons, long companies, long contracts, long skipped) {
+
+        ChunkResult plus(ChunkResult other) {
+            return new ChunkResult(persons + other.persons, companies + other.companies,
+                    contracts + other.contracts, skipped + other.skipped);
+        }
+
+    }
+
+}
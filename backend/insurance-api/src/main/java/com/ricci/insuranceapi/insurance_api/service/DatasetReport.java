@@ -0,0 +1,21 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.time.Duration;
+
+/*
+ * Outcome of a dataset generation: clients and contracts inserted, clients skipped
+ * (phone, email or company identifier already taken) and the throughput over the whole run.
+ */
+
+public record DatasetReport(int chunks, long persons, long companies, long contracts, long skipped,
+        Duration elapsed) {
+
+    public long rows() {
+        return persons + companies + contracts;
+    }
+
+    public double rowsPerSecond() {
+        return rows() / (Math.max(elapsed.toNanos(), 1) / 1_000_000_000.0);
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
+
+/*
+ * What the dataset generator writes (GenerateDatasetCommand options):
+ * - persons and companies: number of clients of each type,
+ * - contractsPerClient: mean of a Pareto distribution of shape skew (> 1, lower = more skewed:
+ *   most clients have a few contracts, a few have hundreds), capped at maxContractsPerClient,
+ * - endedRatio and futureRatio: share of the contracts ended before now and ending after now,
+ *   the others have no end date,
+ * - seed: same seed and offset, same clients and contracts (ids and update dates excepted),
+ * - offset: index of the first client, a second run with another offset adds other clients
+ *   (phones, emails and company identifiers are derived from the index).
+ */
+
+public record DatasetSpec(
+        long persons,
+        long companies,
+        double contractsPerClient,
+        double skew,
+        int maxContractsPerClient,
+        double endedRatio,
+        double futureRatio,
+        long seed,
+        long offset) {
+
+    // 26 prefixes x 10^7 numbers per prefix
+    public static final long MAX_CLIENTS = 260_000_000L;
+
+    public DatasetSpec {
+        if (persons < 0 || companies < 0 || offset < 0 || offset + persons + companies > MAX_CLIENTS) {
+            throw new ClientInvalidDataException("Persons, companies and offset must be positive, at most "
+                    + MAX_CLIENTS + " clients");
+        }
+        if (contractsPerClient < 0 || skew <= 1 || maxContractsPerClient < 0) {
+            throw new ClientInvalidDataException("Contracts per client must be positive, with a skew above 1");
+        }
+        if (endedRatio < 0 || futureRatio < 0 || endedRatio + futureRatio > 1) {
+            throw new ClientInvalidDataException("Ended and future ratios must be positive, at most 1 together");
+        }
+    }
+
+    public long clients() {
+        return persons + companies;
+    }
+
+}
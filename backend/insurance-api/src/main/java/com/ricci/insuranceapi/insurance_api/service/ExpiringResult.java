@@ -0,0 +1,11 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.time.LocalDateTime;
+
+/*
+ * Result computed from the active contracts of a client and the date it changes
+ * without any write: the earliest end date of these contracts (null if none ends).
+ */
+
+public record ExpiringResult<T>(T value, LocalDateTime validUntil) {
+}
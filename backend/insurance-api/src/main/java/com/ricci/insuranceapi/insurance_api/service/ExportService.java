@@ -0,0 +1,206 @@
+// https://jdbc.postgresql.org/documentation/query/#getting-results-based-on-a-cursor
+// https://docs.hibernate.org/orm/6.6/userguide/html_single/Hibernate_User_Guide.html#hql-api-stream
+// https://www.postgresql.org/docs/16/runtime-config-client.html#GUC-STATEMENT-TIMEOUT
+
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
+import com.ricci.insuranceapi.insurance_api.mapper.ContractMapper;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRepository;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRow;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRepository;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRow;
+import com.ricci.insuranceapi.insurance_api.utils.CsvUtils;
+import com.ricci.insuranceapi.insurance_api.utils.ExportFormat;
+
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.EntityManager;
+
+/*
+ * Export of all the contracts or clients (GET /contracts/export, /clients/export).
+ * The rows are read with a server-side cursor (api.export.fetch-size rows per round trip,
+ * read-only transaction) and written to the response as they come. They are ContractRow /
+ * ClientRow projections: no entity in the persistence context, so the memory used does
+ * not depend on the number of rows.
+ * A client disconnect fails the next write, which closes the cursor and ends the transaction.
+ * api.export.statement-timeout bounds each statement of the export (SET LOCAL statement_timeout).
+ */
+
+@Service
+public class ExportService {
+
+    private static final List<String> CLIENT_COLUMNS = List.of(
+            "clientId", "clientType", "phone", "email", "name", "isDeleted", "deletionDate",
+            "birthdate", "companyIdentifier");
+
+    private static final List<String> CONTRACT_COLUMNS = Stream.concat(
+            Stream.of("contractId", "startDate", "endDate", "costAmount"), CLIENT_COLUMNS.stream()).toList();
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ClientMapper clientMapper;
+    private final ContractMapper contractMapper;
+    private final CsvUtils csvUtils;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final Duration statementTimeout;
+
+    @Autowired
+    public ExportService(
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            ClientMapper clientMapper,
+            ContractMapper contractMapper,
+            CsvUtils csvUtils,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.export.fetch-size:1000}") int fetchSize,
+            @Value("${api.export.statement-timeout:PT5M}") Duration statementTimeout) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.clientMapper = clientMapper;
+        this.contractMapper = contractMapper;
+        this.csvUtils = csvUtils;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.statementTimeout = statementTimeout;
+    }
+
+    // --------------
+    // --- Export ---
+    // --------------
+
+    public void exportContracts(ExportFormat format, OutputStream out) throws IOException {
+        RowWriter<ContractRow> writer = switch (format) {
+            case NDJSON -> ndjsonWriter(out, contractMapper::toContractGetDto);
+            case CSV -> csvWriter(out, CONTRACT_COLUMNS, this::contractValues);
+        };
+        export(ContractRepository.ROWS, ContractRow.class, writer);
+    }
+
+    public void exportClients(ExportFormat format, OutputStream out) throws IOException {
+        RowWriter<ClientRow> writer = switch (format) {
+            case NDJSON -> ndjsonWriter(out, clientMapper::toDto);
+            case CSV -> csvWriter(out, CLIENT_COLUMNS, this::clientValues);
+        };
+        export(ClientRepository.ROWS, ClientRow.class, writer);
+    }
+
+    // Same JPQL as the listings, without ORDER BY (plain scan of the tables)
+    private <R> void export(String jpql, Class<R> type, RowWriter<R> writer) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                entityManager.createNativeQuery("SELECT set_config('statement_timeout', :timeout, true)")
+                        .setParameter("timeout", String.valueOf(statementTimeout.toMillis()))
+                        .getSingleResult();
+                try (Stream<R> rows = entityManager.createQuery(jpql, type)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                        .getResultStream()) {
+                    Iterator<R> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        writer.write(iterator.next());
+                    }
+                    writer.finish();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex); // Rolls back, the cursor is already closed
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    // ---------------
+    // --- Writers ---
+    // ---------------
+
+    private interface RowWriter<R> {
+
+        void write(R row) throws IOException;
+
+        // Sends what is still buffered, the response stream is left open
+        void finish() throws IOException;
+
+    }
+
+    // One DTO per line, serialized with its runtime type (PersonDto or CompanyDto)
+    private <R> RowWriter<R> ndjsonWriter(OutputStream out, Function<R, ?> toDto) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null); // The new line is written after each object
+        // No flush after each row: the generator buffer is sent when full
+        ObjectWriter dtoWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return new RowWriter<>() {
+            @Override
+            public void write(R row) throws IOException {
+                dtoWriter.writeValue(json, toDto.apply(row));
+                json.writeRaw('\n');
+            }
+
+            @Override
+            public void finish() throws IOException {
+                json.close();
+            }
+        };
+    }
+
+    // Header line, then one line per row (RFC 4180 quoting, empty for null)
+    private <R> RowWriter<R> csvWriter(OutputStream out, List<String> columns, Function<R, List<Object>> values)
+            throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        csvUtils.writeLine(csv, columns);
+        return new RowWriter<>() {
+            @Override
+            public void write(R row) throws IOException {
+                csvUtils.writeLine(csv, values.apply(row));
+            }
+
+            @Override
+            public void finish() throws IOException {
+                csv.flush();
+            }
+        };
+    }
+
+    // Same order as CLIENT_COLUMNS, the type is the client_type discriminator
+    private List<Object> clientValues(ClientRow row) {
+        return Arrays.asList(row.clientId(), row.type().getAnnotation(DiscriminatorValue.class).value(),
+                row.phone(), row.email(), row.name(), row.isDeleted(), row.deletionDate(), row.birthdate(),
+                row.companyIdentifier());
+    }
+
+    // Same order as CONTRACT_COLUMNS
+    private List<Object> contractValues(ContractRow row) {
+        List<Object> values = new ArrayList<>(Arrays.asList(row.contractId(), row.startDate(), row.endDate(),
+                row.costAmount()));
+        values.addAll(clientValues(row.client()));
+        return values;
+    }
+
+}
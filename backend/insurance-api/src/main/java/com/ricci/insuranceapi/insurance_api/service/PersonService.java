@@ -4,10 +4,13 @@ import com.ricci.insuranceapi.insurance_api.dto.PersonDto;
 import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
 import com.ricci.insuranceapi.insurance_api.model.Person;
 import com.ricci.insuranceapi.insurance_api.repository.PersonRepository;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRow;
+import com.ricci.insuranceapi.insurance_api.utils.CountMode;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,10 +35,30 @@ public class PersonService {
     // --- Read persons ---
     // ----------------------
 
+    @Transactional(readOnly = true)
     public Page<Person> getAllPersons(Pageable pageable) {
         return personRepository.findAll(pageable);
     }
 
+    // Page (exact COUNT) or Slice (no COUNT) depending on the count mode
+    @Transactional(readOnly = true)
+    public Slice<Person> getAllPersons(Pageable pageable, CountMode countMode) {
+        return countMode == CountMode.EXACT ? personRepository.findAll(pageable) : personRepository.findAllBy(pageable);
+    }
+
+    // Same as above as ClientRow projections: only the DTO columns, no managed entity
+    @Transactional(readOnly = true)
+    public Slice<ClientRow> getAllPersonRows(Pageable pageable, CountMode countMode) {
+        return countMode == CountMode.EXACT ? personRepository.findRows(pageable) : personRepository.findRowsBy(pageable);
+    }
+
+    // From the planner statistics, null if not available yet
+    @Transactional(readOnly = true)
+    public Long estimatePersonCount() {
+        long estimate = personRepository.estimateCount();
+        return estimate < 0 ? null : estimate;
+    }
+
     // ----------------------
     // --- Create persons ---
     // ----------------------
@@ -43,8 +66,7 @@ public class PersonService {
     @Transactional
     public Person createPerson(PersonDto dto) {
         Person person = (Person) clientMapper.toEntity(dto);
-        clientService.validateUniquePhoneOrEmail(person);
-        return personRepository.save(person);
+        return clientService.saveUnique(person); // 400 if phone or email is taken
     }
 
 }
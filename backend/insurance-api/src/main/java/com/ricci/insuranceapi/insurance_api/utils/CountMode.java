@@ -0,0 +1,11 @@
+package com.ricci.insuranceapi.insurance_api.utils;
+
+/*
+ * How the total is computed for the offset pagination (?count=):
+ * EXACT runs a COUNT(*) (Page), NONE only fetches one extra row to know
+ * if there is a next page (Slice), ESTIMATED reads the planner statistics.
+ */
+
+public enum CountMode {
+    EXACT, NONE, ESTIMATED
+}
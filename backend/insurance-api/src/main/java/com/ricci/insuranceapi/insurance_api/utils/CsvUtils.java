@@ -0,0 +1,75 @@
+// https://www.rfc-editor.org/rfc/rfc4180
+
+package com.ricci.insuranceapi.insurance_api.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/*
+ * CSV lines of the exports and of the bulk loader (RFC 4180):
+ * fields separated by commas, quoted when they contain a comma, a quote or a line break.
+ */
+
+@Component
+public class CsvUtils {
+
+    // Fields of one line, null if a quote is not closed (a field cannot span lines)
+    public List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int index = 0; index < line.length(); index++) {
+            char c = line.charAt(index);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (index + 1 < line.length() && line.charAt(index + 1) == '"') {
+                    field.append('"'); // Escaped quote
+                    index++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Empty for null, amounts without exponent
+    public String formatField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal amount ? amount.toPlainString() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    public void writeLine(Writer csv, List<?> values) throws IOException {
+        for (int index = 0; index < values.size(); index++) {
+            if (index > 0) {
+                csv.write(',');
+            }
+            csv.write(formatField(values.get(index)));
+        }
+        csv.write("\r\n");
+    }
+
+}
@@ -0,0 +1,63 @@
+// https://www.rfc-editor.org/rfc/rfc9110#name-etag
+// https://www.rfc-editor.org/rfc/rfc9110#name-if-none-match
+
+package com.ricci.insuranceapi.insurance_api.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.ricci.insuranceapi.insurance_api.repository.ContractRow;
+
+/*
+ * Strong ETags from the version columns (V8), for the conditional GETs:
+ * a matching If-None-Match is answered with 304 Not Modified, without building the body.
+ */
+
+@Component
+public class ETagUtils {
+
+    // One resource: its version(s), e.g. "3" or "3-1" for a contract and its client
+    public String fromVersions(long... versions) {
+        return quote(Arrays.stream(versions).mapToObj(Long::toString).collect(Collectors.joining("-")));
+    }
+
+    // Collection of contracts: digest of the ids and versions of all the rows, so a contract
+    // added or removed (not only a newer version) changes the ETag
+    public String fromContractRows(List<ContractRow> rows) {
+        String versions = rows.stream()
+                .map(row -> row.contractId() + ":" + row.version() + ":" + row.clientVersion())
+                .collect(Collectors.joining(","));
+        return quote(DigestUtils.md5DigestAsHex(versions.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // If-None-Match: "*" or a list of ETags, compared with the weak comparison (RFC 9110)
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 304 Not Modified, the ETag is repeated as required for a 200
+    public <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    private String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+}
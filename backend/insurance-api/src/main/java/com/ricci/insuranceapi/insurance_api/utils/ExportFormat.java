@@ -0,0 +1,44 @@
+package com.ricci.insuranceapi.insurance_api.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
+
+/*
+ * Format of the exports (?format=): NDJSON writes one JSON object per line
+ * (same body as the GET endpoints), CSV one line per row after a header line.
+ */
+
+public enum ExportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat parse(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ClientInvalidDataException("Format must be ndjson or csv");
+        }
+    }
+
+}
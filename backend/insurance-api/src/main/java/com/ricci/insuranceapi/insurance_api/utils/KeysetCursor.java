@@ -0,0 +1,12 @@
+package com.ricci.insuranceapi.insurance_api.utils;
+
+import java.util.UUID;
+
+/*
+ * Position of the last row of a keyset (seek) page:
+ * the sort key of this row and its UUID as tie-breaker.
+ * Clients send it back as an opaque token (see PaginationUtils).
+ */
+
+public record KeysetCursor(String sortKey, UUID id) {
+}
@@ -1,14 +1,27 @@
 package com.ricci.insuranceapi.insurance_api.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.UUID;
+
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
 
 @Component
 public class PaginationUtils {
 
+    // -------------------------
+    // --- Offset pagination ---
+    // -------------------------
+
     public PageRequest buildPageRequest(int page, int size, String sortBy, String sortDir) {
         if (page < 0 || size <= 0) {
             throw new ClientInvalidDataException("Page must be >= 0 and size > 0");
@@ -18,11 +31,84 @@ public class PaginationUtils {
 
     private Sort buildSort(String sortBy, String sortDir) {
         // If weird values like "desccc" -> fallback to "asc"
-        if ("desc".equalsIgnoreCase(sortDir)) {
+        if (isDescending(sortDir)) {
             return Sort.by(sortBy).descending();
         } else {
             return Sort.by(sortBy).ascending();
         }
     }
 
+    public boolean isDescending(String sortDir) {
+        return "desc".equalsIgnoreCase(sortDir);
+    }
+
+    // ------------------
+    // --- Count mode ---
+    // ------------------
+
+    public CountMode parseCountMode(String count) {
+        try {
+            return CountMode.valueOf(count.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ClientInvalidDataException("Count must be exact, none or estimated");
+        }
+    }
+
+    // X-Has-Next always, X-Total-Count for a Page (exact count),
+    // X-Total-Count-Estimate when an estimate is available
+    public HttpHeaders buildCountHeaders(Slice<?> slice, Long estimatedTotal) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Has-Next", String.valueOf(slice.hasNext()));
+        if (slice instanceof Page<?> page) {
+            headers.set("X-Total-Count", String.valueOf(page.getTotalElements()));
+        } else if (estimatedTotal != null) {
+            headers.set("X-Total-Count-Estimate", String.valueOf(estimatedTotal));
+        }
+        return headers;
+    }
+
+    // ---------------------------------
+    // --- Keyset (seek) pagination ---
+    // ---------------------------------
+
+    // Only the indexed sort field can be used with a cursor
+    public void checkKeysetRequest(int size, String sortBy, String keysetSortBy) {
+        if (size <= 0) {
+            throw new ClientInvalidDataException("Size must be > 0");
+        }
+        if (!keysetSortBy.equals(sortBy)) {
+            throw new ClientInvalidDataException("Cursor pagination only supports sortBy=" + keysetSortBy);
+        }
+    }
+
+    // Opaque token: base64url("uuid:sortKey"), the UUID never contains ':'
+    public String encodeCursor(KeysetCursor cursor) {
+        String raw = cursor.id() + ":" + cursor.sortKey();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Empty token -> null (first page)
+    public KeysetCursor decodeCursor(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            UUID id = UUID.fromString(raw.substring(0, separator));
+            return new KeysetCursor(raw.substring(separator + 1), id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new ClientInvalidDataException("Invalid cursor");
+        }
+    }
+
+    // RFC 8288 link to the next page: same request with the new cursor
+    public String buildNextLink(KeysetCursor last) {
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page")
+                .replaceQueryParam("cursor", encodeCursor(last))
+                .toUriString();
+        return "<" + next + ">; rel=\"next\"";
+    }
+
 }
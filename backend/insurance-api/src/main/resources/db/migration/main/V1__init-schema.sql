@@ -0,0 +1,67 @@
+-- V1__init-schema.sql
+-- Baseline schema, same as database/scripts/init.sql
+--
+-- How a database adopts the migrations:
+-- - Empty database: V1 creates the tables, then V2, V3, ... run.
+-- - Tables from init.sql, no flyway_schema_history: spring.flyway.baseline-on-migrate records
+--   a baseline at version 1 (default spring.flyway.baseline-version), V1 is skipped, V2, ... run.
+-- - flyway_schema_history already present (earlier versions of the application: baseline 1
+--   and V9999 sample data): nothing is baselined again, V1 stays covered by the baseline and
+--   V2, ... run after V9999 (spring.flyway.out-of-order).
+-- IF NOT EXISTS keeps V1 harmless if it ever runs over tables created by init.sql.
+--
+-- Module for gen_random_uuid()
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+-- Client
+CREATE TABLE IF NOT EXISTS
+    public.client (
+        "client_id" UUID DEFAULT gen_random_uuid () PRIMARY KEY,
+        "phone" VARCHAR(16) UNIQUE,
+        "email" VARCHAR(128) UNIQUE,
+        "name" VARCHAR(64),
+        -- Soft deletion for archives
+        "is_deleted" BOOLEAN NOT NULL DEFAULT FALSE,
+        "deletion_date" TIMESTAMP
+    );
+
+-- Person is a specialization of a Client
+CREATE TABLE IF NOT EXISTS
+    public.person (
+        "client_id" UUID PRIMARY KEY,
+        "birthdate" DATE,
+        -- The generalization primary key is the primary key of a specialization as a foreign key
+        CONSTRAINT fk_person_client_id FOREIGN KEY ("client_id") REFERENCES public.client ("client_id")
+        -- If the generalization is deleted, also its specialization
+        ON DELETE CASCADE
+        -- If the generalisation primary key is updated, also the specialization one
+        ON UPDATE CASCADE
+    );
+
+-- Company is a specialization of a Client
+CREATE TABLE IF NOT EXISTS
+    public.company (
+        "client_id" UUID PRIMARY KEY,
+        "company_identifier" VARCHAR(32) UNIQUE,
+        -- The generalization primary key is the primary key of a specialization as a foreign key
+        CONSTRAINT fk_company_client_id FOREIGN KEY ("client_id") REFERENCES public.client ("client_id")
+        -- If the generalization is deleted, also its specialization
+        ON DELETE CASCADE
+        -- If the generalisation primary key is updated, also the specialization one
+        ON UPDATE CASCADE
+    );
+
+-- Contract
+CREATE TABLE IF NOT EXISTS
+    public.contract (
+        "contract_id" UUID DEFAULT gen_random_uuid () PRIMARY KEY,
+        "client_id" UUID NOT NULL,
+        "start_date" TIMESTAMP NOT NULL, -- The backend will handle the default as current ISO 8601
+        "end_date" TIMESTAMP,
+        "update_date" TIMESTAMP NOT NULL,
+        "cost_amount" NUMERIC(16, 4) NOT NULL, -- 16 digits, 4 decimals
+        -- Many contract could be sign by one client
+        CONSTRAINT fk_contract_client_id FOREIGN KEY ("client_id") REFERENCES public.client ("client_id")
+        -- As we have a soft deletion on Client, we restrict the deletion
+        ON DELETE RESTRICT ON UPDATE CASCADE
+    );
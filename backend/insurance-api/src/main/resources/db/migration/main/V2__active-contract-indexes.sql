@@ -0,0 +1,20 @@
+-- V2__active-contract-indexes.sql
+-- Indexes for the active-contract queries of ContractRepository
+-- (client_id = :clientId AND (end_date IS NULL OR :currentDate < end_date))
+--
+-- Composite and covering: serves findActiveByClient and lets
+-- sumActiveContractsCost run as an index-only scan (cost_amount is included)
+CREATE INDEX IF NOT EXISTS idx_contract_client_end_date
+    ON public.contract ("client_id", "end_date")
+    INCLUDE ("cost_amount");
+
+-- Partial: open-ended contracts (no end date) are always active,
+-- the planner combines it with the index above (BitmapOr) for the OR predicate
+CREATE INDEX IF NOT EXISTS idx_contract_client_open
+    ON public.contract ("client_id")
+    INCLUDE ("cost_amount")
+    WHERE "end_date" IS NULL;
+
+-- Composite: findActiveByClientUpdatedAfter (range on the update date)
+CREATE INDEX IF NOT EXISTS idx_contract_client_update_date
+    ON public.contract ("client_id", "update_date");
@@ -0,0 +1,12 @@
+-- V3__keyset-pagination-indexes.sql
+-- Indexes for the keyset (seek) pagination of GET /clients and GET /contracts
+-- Same columns and order as the ORDER BY of the keyset queries,
+-- so every page is an index range scan, whatever its depth.
+--
+-- ClientRepository: ORDER BY COALESCE(name, ''), client_id
+CREATE INDEX IF NOT EXISTS idx_client_name_keyset
+    ON public.client ((COALESCE("name", '')), "client_id");
+
+-- ContractRepository: ORDER BY update_date, contract_id
+CREATE INDEX IF NOT EXISTS idx_contract_update_date_keyset
+    ON public.contract ("update_date", "contract_id");
@@ -0,0 +1,24 @@
+-- V4__uuid-v7-defaults.sql
+-- Time-ordered UUIDv7 defaults for the primary keys (RFC 9562), same as UuidV7Generator
+-- on the JPA side. Only the defaults change: the existing v4 ids stay as they are.
+--
+-- gen_random_uuid() bits with the first 48 bits replaced by the Unix time in ms,
+-- and the version nibble switched from 4 (0100) to 7 (0111)
+CREATE OR REPLACE FUNCTION public.uuid_generate_v7()
+RETURNS uuid
+LANGUAGE sql
+VOLATILE
+AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                    PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                    FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::uuid
+$$;
+
+ALTER TABLE public.client ALTER COLUMN "client_id" SET DEFAULT public.uuid_generate_v7();
+ALTER TABLE public.contract ALTER COLUMN "contract_id" SET DEFAULT public.uuid_generate_v7();
@@ -0,0 +1,37 @@
+-- V5__client-cost-summary.sql
+-- Per-client rollup of the active contracts, read by GET /clients/{id}/contracts/costsum
+-- with a primary key lookup instead of aggregating the contracts on every call.
+--
+-- Kept up to date by ContractService on every contract write (same transaction),
+-- and by a scheduled fold for the contracts whose end date has passed (next_expiry).
+CREATE TABLE IF NOT EXISTS
+    public.client_cost_summary (
+        "client_id" UUID PRIMARY KEY,
+        "active_contracts" INTEGER NOT NULL DEFAULT 0,
+        "active_cost" NUMERIC(20, 4) NOT NULL DEFAULT 0, -- Sum of contract.cost_amount
+        "next_expiry" TIMESTAMP, -- First end date of the active contracts, NULL if none
+        CONSTRAINT fk_client_cost_summary_client_id FOREIGN KEY ("client_id") REFERENCES public.client ("client_id")
+        ON DELETE CASCADE ON UPDATE CASCADE
+    );
+
+-- Scheduled fold: summaries with an expired contract
+CREATE INDEX IF NOT EXISTS idx_client_cost_summary_next_expiry
+    ON public.client_cost_summary ("next_expiry")
+    WHERE "next_expiry" IS NOT NULL;
+
+-- Backfill from the existing contracts
+INSERT INTO
+    public.client_cost_summary (client_id, active_contracts, active_cost, next_expiry)
+SELECT
+    c."client_id",
+    COUNT(*),
+    SUM(c."cost_amount"),
+    MIN(c."end_date")
+FROM
+    public.contract c
+WHERE
+    c."end_date" IS NULL
+    OR c."end_date" > LOCALTIMESTAMP
+GROUP BY
+    c."client_id"
+ON CONFLICT ("client_id") DO NOTHING;
@@ -0,0 +1,53 @@
+-- V6__client-type-discriminator.sql
+-- Discriminator of the Client hierarchy (@DiscriminatorColumn client_type)
+-- Hibernate reads the subtype from this column instead of testing which of
+-- person / company has a row, and the type-filtered listings
+-- (GET /clients?type=PERSON) filter on it without the other subtype table.
+ALTER TABLE public.client
+ADD COLUMN IF NOT EXISTS "client_type" VARCHAR(16);
+
+-- Backfill from the specialization tables
+UPDATE public.client c
+SET "client_type" = 'PERSON'
+FROM public.person p
+WHERE p."client_id" = c."client_id"
+    AND c."client_type" IS NULL;
+
+UPDATE public.client c
+SET "client_type" = 'COMPANY'
+FROM public.company co
+WHERE co."client_id" = c."client_id"
+    AND c."client_type" IS NULL;
+
+ALTER TABLE public.client
+ADD CONSTRAINT chk_client_type CHECK ("client_type" IN ('PERSON', 'COMPANY'));
+
+-- Rows inserted with plain SQL (sample data, bulk loads) only get a person or
+-- company row: the discriminator is set from it. Hibernate already writes it.
+-- Statement-level trigger: one UPDATE per INSERT statement, not per row.
+CREATE OR REPLACE FUNCTION public.set_client_type() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE public.client c
+    SET "client_type" = TG_ARGV[0]
+    FROM inserted i
+    WHERE c."client_id" = i."client_id"
+        AND c."client_type" IS NULL;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_person_client_type ON public.person;
+CREATE TRIGGER trg_person_client_type
+AFTER INSERT ON public.person
+REFERENCING NEW TABLE AS inserted
+FOR EACH STATEMENT EXECUTE FUNCTION public.set_client_type('PERSON');
+
+DROP TRIGGER IF EXISTS trg_company_client_type ON public.company;
+CREATE TRIGGER trg_company_client_type
+AFTER INSERT ON public.company
+REFERENCING NEW TABLE AS inserted
+FOR EACH STATEMENT EXECUTE FUNCTION public.set_client_type('COMPANY');
+
+-- Type-filtered listing sorted by name (GET /clients?type=PERSON&sortBy=name)
+CREATE INDEX IF NOT EXISTS idx_client_type_name
+    ON public.client ("client_type", "name");
@@ -0,0 +1,11 @@
+-- V7__client-update-date.sql
+-- Last write of each client (Client.updateDate, set on insert and update)
+-- Used by the second-level cache warm-up: the most recently updated clients
+-- are preloaded at startup (api.cache.client.warm-up).
+-- Existing rows and plain SQL inserts get the current time.
+ALTER TABLE public.client
+ADD COLUMN IF NOT EXISTS "update_date" TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP;
+
+-- ClientRepository: ORDER BY update_date DESC LIMIT :warmUp
+CREATE INDEX IF NOT EXISTS idx_client_update_date
+    ON public.client ("update_date");
@@ -0,0 +1,11 @@
+-- V8__version-columns.sql
+-- Optimistic locking versions (@Version on Client and Contract)
+-- Incremented by Hibernate on each update of the row (and by the bulk close
+-- of ContractRepository), they are the strong ETags of GET /clients/{id},
+-- GET /contracts/{id} and GET /clients/{id}/contracts.
+-- Existing rows and plain SQL inserts start at 0.
+ALTER TABLE public.client
+ADD COLUMN IF NOT EXISTS "version" BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE public.contract
+ADD COLUMN IF NOT EXISTS "version" BIGINT NOT NULL DEFAULT 0;
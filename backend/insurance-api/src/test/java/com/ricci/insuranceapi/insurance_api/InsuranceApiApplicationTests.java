@@ -6,6 +6,7 @@ import java.time.temporal.ChronoUnit;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
@@ -15,11 +16,13 @@ import org.slf4j.LoggerFactory;
 /*
  * Test data is loaded from a reusable migration script for Flyway:
  * /src/test/resources/db/migration/R__sample-test-data.sql
+ * The SQL statements are counted by SqlStatementCounter (query budgets).
  */
 
 @SpringBootTest
 @ActiveProfiles("test")
 @Sql("/db/migration/R__sample-test-data.sql") // Executed before each test
+@Import(SqlStatementCounter.class)
 public abstract class InsuranceApiApplicationTests {
 
 	protected static final String API_VERSION = System.getProperty("api.version", "v1");
@@ -0,0 +1,127 @@
+// https://jdbc-observations.github.io/datasource-proxy/docs/current/user-guide/#listeners
+
+package com.ricci.insuranceapi.insurance_api;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestComponent;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/*
+ * Counts the SQL statements sent through the application DataSource, by type, to assert query budgets
+ * (N+1 regressions). The dataSource bean is wrapped by datasource-proxy (imported by InsuranceApiApplicationTests),
+ * so JPA, JdbcTemplate and native queries are all counted, on the test thread and on the server threads.
+ * Statements of the scheduled tasks (thread prefix "scheduling-") are ignored, they run at any time.
+ * A JDBC batch counts as one statement per SQL string (one round trip), COPY is not a JDBC statement.
+ * capture returns the statements themselves with their parameters, e.g. to EXPLAIN the SQL generated by Hibernate.
+ */
+
+@TestComponent
+public class SqlStatementCounter implements BeanPostProcessor, QueryExecutionListener {
+
+    private static final String SCHEDULING_THREAD_PREFIX = "scheduling-";
+
+    private final AtomicLongArray counts = new AtomicLongArray(QueryType.values().length);
+    // Not null while capturing
+    private volatile List<Statement> captured;
+
+    public record Counts(long select, long insert, long update, long delete, long other) {
+
+        public long total() {
+            return select + insert + update + delete + other;
+        }
+
+        public static Counts selects(long select) {
+            return new Counts(select, 0, 0, 0, 0);
+        }
+
+    }
+
+    public record Statement(String sql, List<Object> parameters) {
+    }
+
+    // Statements of the action only (the action must not leave work running in the background)
+    public Counts count(Runnable action) {
+        long[] before = snapshot();
+        action.run();
+        long[] after = snapshot();
+        return new Counts(
+                after[QueryType.SELECT.ordinal()] - before[QueryType.SELECT.ordinal()],
+                after[QueryType.INSERT.ordinal()] - before[QueryType.INSERT.ordinal()],
+                after[QueryType.UPDATE.ordinal()] - before[QueryType.UPDATE.ordinal()],
+                after[QueryType.DELETE.ordinal()] - before[QueryType.DELETE.ordinal()],
+                after[QueryType.OTHER.ordinal()] - before[QueryType.OTHER.ordinal()]);
+    }
+
+    // Statements of the action only, in execution order (parameters of the first batch entry)
+    public List<Statement> capture(Runnable action) {
+        List<Statement> statements = new CopyOnWriteArrayList<>();
+        captured = statements;
+        try {
+            action.run();
+        } finally {
+            captured = null;
+        }
+        return List.copyOf(statements);
+    }
+
+    private long[] snapshot() {
+        long[] values = new long[counts.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = counts.get(i);
+        }
+        return values;
+    }
+
+    // Only the bean used by the application: with read/write routing, the pools behind it are not wrapped twice
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(this).build();
+        }
+        return bean;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+    }
+
+    // WITH ... and SET, SHOW are counted as other
+    @Override
+    public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+        if (Thread.currentThread().getName().startsWith(SCHEDULING_THREAD_PREFIX)) {
+            return;
+        }
+        List<Statement> statements = captured;
+        for (QueryInfo query : queries) {
+            counts.incrementAndGet(QueryUtils.getQueryType(query.getQuery()).ordinal());
+            if (statements != null) {
+                statements.add(new Statement(query.getQuery(), parameters(query)));
+            }
+        }
+    }
+
+    // Values in the order of the placeholders (setXxx(index, value))
+    private static List<Object> parameters(QueryInfo query) {
+        if (query.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        return query.getParametersList().get(0).stream()
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                .map(operation -> operation.getArgs()[1])
+                .toList();
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.ricci.insuranceapi.insurance_api.config;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.service.ClientCostSummaryService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * This class performs integration tests on the metrics: business gauges (BusinessMetrics)
+ * and the Prometheus scrape (/actuator/prometheus) with the endpoint, pool, Hibernate and JVM meters.
+ * The metrics export is disabled by default in the tests, enabled here by @AutoConfigureObservability.
+ * Test data is loaded from the InsuranceApiApplicationTests parent class.
+ */
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+class BusinessMetricsTest extends InsuranceApiApplicationTests {
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ClientCostSummaryService costSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    // --------------
+    // --- Gauges ---
+    // --------------
+
+    // Gauges -> Same totals as the active contracts, read from the summaries at the last refresh
+    @Test
+    void shouldExposeActiveContractTotals() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> costSummaryService.refresh(
+                jdbc.queryForList("SELECT client_id FROM client", UUID.class)));
+        Map<String, Object> expected = jdbc.queryForMap("""
+                SELECT COUNT(*) AS contracts, SUM(cost_amount) AS cost FROM contract
+                WHERE end_date IS NULL OR LOCALTIMESTAMP < end_date
+                """);
+
+        businessMetrics.refresh();
+
+        assertThat(registry.get("insurance.contracts.active").gauge().value())
+                .isEqualTo(((Number) expected.get("contracts")).doubleValue());
+        assertThat(BigDecimal.valueOf(registry.get("insurance.contracts.active.cost").gauge().value()))
+                .isEqualByComparingTo((BigDecimal) expected.get("cost"));
+
+        // A summary change is only counted at the next refresh
+        jdbc.update("UPDATE client_cost_summary SET active_contracts = active_contracts + 1, active_cost = active_cost + 100"
+                + " WHERE client_id = (SELECT client_id FROM client WHERE email = 'bob@example.com')");
+        double before = registry.get("insurance.contracts.active").gauge().value();
+        businessMetrics.refresh();
+        assertThat(registry.get("insurance.contracts.active").gauge().value()).isEqualTo(before + 1);
+    }
+
+    // ------------------
+    // --- Prometheus ---
+    // ------------------
+
+    // Scrape -> SLO buckets per endpoint, Hikari pool, Hibernate statistics, JVM/GC and business meters
+    @Test
+    void shouldExposePrometheusScrape() {
+        rest.getForEntity(BASE_PATH + "clients", String.class);
+        rest.getForEntity(BASE_PATH + "contracts", String.class);
+        businessMetrics.refresh();
+
+        ResponseEntity<String> response = rest.getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String scrape = response.getBody();
+        assertThat(scrape).containsPattern(
+                "http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/" + API_VERSION + "/clients\",le=\"0\\.025\"");
+        assertThat(scrape).containsPattern(
+                "http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/" + API_VERSION + "/contracts\"");
+        assertThat(scrape).contains(
+                "hikaricp_connections_active{", "hikaricp_connections_idle{", "hikaricp_connections_pending{",
+                "hikaricp_connections_acquire_seconds_bucket{");
+        assertThat(scrape).contains(
+                "hibernate_query_executions_total{", "hibernate_entities_loads_total{",
+                "hibernate_second_level_cache_requests_total{");
+        assertThat(scrape).contains("jvm_memory_used_bytes{", "jvm_gc_");
+        assertThat(scrape).contains("insurance_contracts_active_contracts{", "insurance_contracts_active_cost{",
+                "insurance_clients_estimated_clients{");
+    }
+
+}
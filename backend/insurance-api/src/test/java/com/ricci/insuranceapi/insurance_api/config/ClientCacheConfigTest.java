@@ -0,0 +1,143 @@
+package com.ricci.insuranceapi.insurance_api.config;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.dto.ClientPatchDto;
+import com.ricci.insuranceapi.insurance_api.dto.ContractDto;
+import com.ricci.insuranceapi.insurance_api.model.Client;
+import com.ricci.insuranceapi.insurance_api.service.ClientService;
+import com.ricci.insuranceapi.insurance_api.service.ContractService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * This class performs integration tests on the second-level cache of the clients.
+ * Statements are counted with the Hibernate statistics (application-test.properties):
+ * a read served by the cache prepares none.
+ * Test data is loaded from the InsuranceApiApplicationTests parent class (new ids for each test).
+ */
+
+class ClientCacheConfigTest extends InsuranceApiApplicationTests {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID aliceId;
+    private UUID bobId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        aliceId = jdbc.queryForObject("SELECT client_id FROM client WHERE email = 'alice@example.com'", UUID.class);
+        bobId = jdbc.queryForObject("SELECT client_id FROM client WHERE email = 'bob@example.com'", UUID.class);
+    }
+
+    // Read -> First read from the database, then from the cache
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        statistics.clear();
+        clientService.getClient(aliceId);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        Client cached = clientService.getClient(aliceId);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(ClientCacheConfig.CLIENT_REGION).getHitCount()).isEqualTo(1);
+        assertThat(cached.getName()).isEqualTo("Alice Dupont");
+    }
+
+    // Update, Delete -> Cached client replaced, never stale
+    @Test
+    void shouldReplaceCachedClientOnWrites() {
+        clientService.getClient(aliceId);
+
+        ClientPatchDto update = new ClientPatchDto();
+        update.setName("Alice Updated");
+        clientService.partialUpdate(aliceId, update);
+        statistics.clear();
+        assertThat(clientService.getClient(aliceId).getName()).isEqualTo("Alice Updated");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // Also closes the contracts and refreshes the cost summary, only their regions are invalidated
+        clientService.deleteClient(aliceId);
+        statistics.clear();
+        assertThat(clientService.getClient(aliceId).getIsDeleted()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    // Contract write -> Native cost summary queries do not evict the clients
+    @Test
+    void shouldKeepCachedClientOnContractWrite() {
+        Client alice = clientService.getClient(aliceId);
+        contractService.createContract(new ContractDto(null, aliceId, null, null, BigDecimal.TEN), alice);
+
+        statistics.clear();
+        clientService.getClient(aliceId);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    // Warm-up -> Most recently updated clients preloaded
+    @Test
+    void shouldWarmUpMostRecentlyUpdatedClients() {
+        jdbc.update("UPDATE client SET update_date = update_date + INTERVAL '1 day' WHERE client_id = ?", bobId);
+        entityManagerFactory.getCache().evictAll();
+
+        int loaded = clientService.warmUpCache(1);
+
+        assertThat(loaded).isEqualTo(1);
+        assertThat(entityManagerFactory.getCache().contains(Client.class, bobId)).isTrue();
+        assertThat(entityManagerFactory.getCache().contains(Client.class, aliceId)).isFalse();
+    }
+
+    // Statistics -> Hits and misses exposed by the JCache MBean
+    @Test
+    void shouldExposeHitAndMissStatistics() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("javax.cache:type=CacheStatistics,CacheManager="
+                + hibernateCacheManager.getURI().toString().replaceAll("[,:=\n]", ".")
+                + ",Cache=" + ClientCacheConfig.CLIENT_REGION);
+        long hits = (Long) server.getAttribute(name, "CacheHits");
+        long misses = (Long) server.getAttribute(name, "CacheMisses");
+
+        clientService.getClient(bobId);
+        clientService.getClient(bobId);
+
+        // READ_WRITE also reads the entry before putting the loaded client
+        assertThat((Long) server.getAttribute(name, "CacheMisses")).isGreaterThan(misses);
+        assertThat((Long) server.getAttribute(name, "CacheHits")).isEqualTo(hits + 1);
+
+        if (VERBOSE) {
+            LOGGER.info("Client cache hit percentage: {}", server.getAttribute(name, "CacheHitPercentage"));
+        }
+    }
+
+}
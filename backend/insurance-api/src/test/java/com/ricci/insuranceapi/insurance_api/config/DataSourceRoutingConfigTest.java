@@ -0,0 +1,153 @@
+package com.ricci.insuranceapi.insurance_api.config;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.dto.ClientPatchDto;
+import com.ricci.insuranceapi.insurance_api.model.Client;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRow;
+import com.ricci.insuranceapi.insurance_api.service.ClientService;
+import com.ricci.insuranceapi.insurance_api.service.ContractService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+ * This class performs integration tests on the read/write routing.
+ * It needs a second database (postgres-test-replica in docker-compose.yml, port 5434)
+ * and is skipped when it is not running.
+ * The replica gets the same test data, but Alice is renamed only on the replica:
+ * the name tells which database served the query.
+ */
+
+@TestPropertySource(properties = {
+        "api.datasource.replica.jdbc-url=" + DataSourceRoutingConfigTest.REPLICA_URL,
+        "api.datasource.replica.username=postgres",
+        "api.datasource.replica.password=postgres"
+})
+class DataSourceRoutingConfigTest extends InsuranceApiApplicationTests {
+
+    static final String REPLICA_URL = "jdbc:postgresql://localhost:5434/insurance_test_db";
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private JdbcTemplate replicaJdbc;
+
+    @BeforeEach
+    void setUpReplica() throws SQLException {
+        assumeTrue(isReplicaRunning(), "Replica database not running on port 5434");
+
+        DriverManagerDataSource replica = new DriverManagerDataSource(REPLICA_URL, "postgres", "postgres");
+        Flyway.configure()
+                .dataSource(replica)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .outOfOrder(true)
+                .load()
+                .migrate();
+        try (Connection connection = replica.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/R__sample-test-data.sql"));
+        }
+
+        replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("UPDATE client SET name = 'Alice (replica)' WHERE email = 'alice@example.com'");
+    }
+
+    // Read only -> replica
+    @Test
+    void shouldReadFromReplica() {
+        List<Client> clients = clientService.getAllClients(PageRequest.of(0, 10, Sort.by("name"))).getContent();
+
+        assertThat(clients).extracting(Client::getName).contains("Alice (replica)");
+
+        if (VERBOSE) {
+            LOGGER.info("Clients read from the replica: {}", clients);
+        }
+    }
+
+    // Read/write -> primary
+    @Test
+    void shouldWriteToPrimary() {
+        UUID aliceId = jdbc.queryForObject(
+                "SELECT client_id FROM client WHERE email = 'alice@example.com'", UUID.class);
+        ClientPatchDto update = new ClientPatchDto();
+        update.setName("Alice (primary)");
+
+        // Alice's id only exists on the primary
+        clientService.partialUpdate(aliceId, update);
+
+        String primaryName = jdbc.queryForObject(
+                "SELECT name FROM client WHERE client_id = ?", String.class, aliceId);
+        String replicaName = replicaJdbc.queryForObject(
+                "SELECT name FROM client WHERE email = 'alice@example.com'", String.class);
+        assertThat(primaryName).isEqualTo("Alice (primary)");
+        assertThat(replicaName).isEqualTo("Alice (replica)");
+    }
+
+    // Cache miss of the active contracts -> primary (a replica result would stay cached)
+    @Test
+    void shouldLoadActiveContractCacheFromPrimary() {
+        UUID aliceId = jdbc.queryForObject(
+                "SELECT client_id FROM client WHERE email = 'alice@example.com'", UUID.class);
+
+        // Alice's id only exists on the primary, where she is not renamed
+        List<ContractRow> rows = contractService.getActiveContractRows(aliceId);
+        BigDecimal cost = contractService.getSumOfActiveContractsCost(aliceId);
+
+        assertThat(rows).extracting(ContractRow::name).containsExactly("Alice Dupont");
+        assertThat(cost).isEqualByComparingTo("400");
+    }
+
+    // Conditional GET versions -> primary (a lagging replica would answer 304 to an outdated ETag)
+    @Test
+    void shouldReadVersionsFromPrimary() {
+        UUID aliceId = jdbc.queryForObject(
+                "SELECT client_id FROM client WHERE email = 'alice@example.com'", UUID.class);
+        UUID contractId = jdbc.queryForObject(
+                "SELECT contract_id FROM contract WHERE client_id = ?", UUID.class, aliceId);
+        Long version = jdbc.queryForObject("SELECT version FROM client WHERE client_id = ?", Long.class, aliceId);
+        entityManagerFactory.getCache().evictAll(); // Not answered from the second-level cache
+
+        // Alice's ids only exist on the primary
+        assertThat(clientService.getClientVersion(aliceId)).isEqualTo(version);
+        assertThat(contractService.getContractVersions(contractId).getClient()).isEqualTo(version);
+    }
+
+    private static boolean isReplicaRunning() {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "postgres", "postgres")) {
+            return connection.isValid(1);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+}
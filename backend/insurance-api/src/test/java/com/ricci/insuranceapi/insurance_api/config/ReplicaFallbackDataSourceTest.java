@@ -0,0 +1,68 @@
+package com.ricci.insuranceapi.insurance_api.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * This class performs unit tests on the ReplicaFallbackDataSource.
+ * The replica points to a closed port, the primary is the test database.
+ */
+
+class ReplicaFallbackDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new HikariDataSource();
+        primary.setJdbcUrl("jdbc:postgresql://localhost:5433/insurance_test_db");
+        primary.setUsername("postgres");
+        primary.setPassword("postgres");
+
+        replica = new HikariDataSource();
+        replica.setJdbcUrl("jdbc:postgresql://localhost:1/insurance_test_db");
+        replica.setConnectionTimeout(500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        replica.close();
+    }
+
+    // Replica down -> connection from the primary
+    @Test
+    void shouldFallBackToPrimary() throws SQLException {
+        ReplicaFallbackDataSource dataSource = new ReplicaFallbackDataSource(replica, primary, Duration.ofMinutes(1));
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).isEqualTo(primary.getJdbcUrl());
+        }
+    }
+
+    // Replica down -> not tried again before the retry delay
+    @Test
+    void shouldNotRetryReplicaBeforeDelay() throws SQLException {
+        ReplicaFallbackDataSource dataSource = new ReplicaFallbackDataSource(replica, primary, Duration.ofMinutes(1));
+
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection).isNotNull();
+        }
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(connection.getMetaData().getURL()).isEqualTo(primary.getJdbcUrl());
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+    }
+
+}
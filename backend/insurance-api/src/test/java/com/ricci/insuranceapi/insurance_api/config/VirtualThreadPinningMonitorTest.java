@@ -0,0 +1,76 @@
+package com.ricci.insuranceapi.insurance_api.config;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * This class performs unit tests on the VirtualThreadPinningMonitor (JFR event stream).
+ * The events are read about once per second, so the tests wait for them a few seconds.
+ */
+
+class VirtualThreadPinningMonitorTest {
+
+    private static final Object MONITOR = new Object();
+
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(20));
+        monitor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    private void waitForPins(long expected, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (monitor.getPinnedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    // Sleep inside synchronized -> pin reported, also as the jvm.threads.virtual.pinned counter
+    @Test
+    void shouldReportPinnedThread() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        monitor.bindTo(registry);
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (MONITOR) {
+                sleep(100);
+            }
+        }).join();
+
+        waitForPins(1, Duration.ofSeconds(10));
+        assertThat(monitor.getPinnedCount()).isEqualTo(1);
+        assertThat(registry.get("jvm.threads.virtual.pinned").functionCounter().count()).isEqualTo(1);
+    }
+
+    // Sleep outside synchronized -> the carrier is released, nothing reported
+    @Test
+    void shouldNotReportUnpinnedThread() throws InterruptedException {
+        Thread.ofVirtual().start(() -> sleep(100)).join();
+
+        waitForPins(1, Duration.ofSeconds(3));
+        assertThat(monitor.getPinnedCount()).isZero();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
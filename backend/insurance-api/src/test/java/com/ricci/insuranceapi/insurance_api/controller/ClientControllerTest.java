@@ -3,9 +3,12 @@ package com.ricci.insuranceapi.insurance_api.controller;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.model.Client;
 
 import net.minidev.json.JSONArray;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -18,8 +21,13 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import jakarta.persistence.EntityManagerFactory;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -42,6 +50,9 @@ class ClientControllerIntegrationTest extends InsuranceApiApplicationTests {
     @Autowired
     private JdbcTemplate jdbc;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     // ---------------
     // --- Helpers ---
     // ---------------
@@ -62,6 +73,19 @@ class ClientControllerIntegrationTest extends InsuranceApiApplicationTests {
         return allClients.read("$[0].clientId");
     }
 
+    // Link: <url>; rel="next"
+    private String nextLink(ResponseEntity<String> response) {
+        String link = response.getHeaders().getFirst(HttpHeaders.LINK);
+        return link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+    }
+
+    // GET with If-None-Match
+    private ResponseEntity<String> getIfNoneMatch(String url, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return rest.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
     private DocumentContext getClientById(String id) {
         ResponseEntity<String> response = rest.getForEntity(PATH + "/" + id, String.class);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -185,6 +209,143 @@ class ClientControllerIntegrationTest extends InsuranceApiApplicationTests {
         assertThat(second.compareToIgnoreCase(third)).isGreaterThanOrEqualTo(0);
     }
 
+    // ------------------------------------
+    // --- GET /clients with count mode ---
+    // ------------------------------------
+
+    // GET /clients?count= -> total in the headers depending on the mode
+    @Test
+    void shouldReturnCountHeaders() {
+        // Exact (default): COUNT(*) -> X-Total-Count
+        ResponseEntity<String> response = rest.getForEntity(PATH + "?size=2", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst("X-Total-Count")).isEqualTo("3");
+        assertThat(response.getHeaders().getFirst("X-Has-Next")).isEqualTo("true");
+
+        // None: only the has-next flag
+        response = rest.getForEntity(PATH + "?page=1&size=2&count=none", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().containsKey("X-Total-Count")).isFalse();
+        assertThat(response.getHeaders().getFirst("X-Has-Next")).isEqualTo("false");
+        assertThat(JsonPath.parse(response.getBody()).read("$.length()", Integer.class)).isEqualTo(1);
+
+        // Estimated: planner statistics, available once the table is analyzed
+        jdbc.execute("ANALYZE client");
+        response = rest.getForEntity(PATH + "?size=2&count=estimated", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().containsKey("X-Total-Count")).isFalse();
+        assertThat(response.getHeaders().getFirst("X-Total-Count-Estimate")).isEqualTo("3");
+
+        // Unknown mode
+        response = rest.getForEntity(PATH + "?count=approx", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    // GET /clients?type= -> only the clients of this type (discriminator)
+    @Test
+    void shouldFilterClientsByType() {
+        ResponseEntity<String> response = rest.getForEntity(PATH + "?type=PERSON", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst("X-Total-Count")).isEqualTo("2");
+        DocumentContext json = JsonPath.parse(response.getBody());
+        List<String> birthdates = json.read("$[*].birthdate");
+        List<String> names = json.read("$[*].name");
+        assertThat(birthdates).hasSize(2);
+        assertThat(names).containsExactly("Alice Dupont", "Bob Martin");
+
+        response = rest.getForEntity(PATH + "?type=COMPANY&count=none", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        json = JsonPath.parse(response.getBody());
+        List<String> identifiers = json.read("$[*].companyIdentifier");
+        assertThat(identifiers).containsExactly("CH-123.456.789");
+
+        // Unknown type
+        response = rest.getForEntity(PATH + "?type=ROBOT", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        // Not with a cursor
+        response = rest.getForEntity(PATH + "?type=PERSON&cursor=", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    // ----------------------------------------
+    // --- GET /clients with keyset cursor ---
+    // ----------------------------------------
+
+    // GET /clients?cursor= -> follow the "next" links until the last page
+    @Test
+    void shouldPaginateWithCursor() {
+        List<String> names = new ArrayList<>();
+        String url = PATH + "?cursor=&size=1";
+        while (url != null) {
+            ResponseEntity<String> response = rest.getForEntity(url, String.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            JSONArray page = JsonPath.parse(response.getBody()).read("$..name");
+            assertThat(page).hasSize(1);
+            names.add(page.get(0).toString());
+            url = nextLink(response);
+        }
+        assertThat(names).containsExactly("Alice Dupont", "Bob Martin", "Entreprise SA");
+
+        // Descending
+        ResponseEntity<String> response = rest.getForEntity(PATH + "?cursor=&size=2&sortDir=desc", String.class);
+        JSONArray page = JsonPath.parse(response.getBody()).read("$..name");
+        assertThat(page).containsExactly("Entreprise SA", "Bob Martin");
+        response = rest.getForEntity(nextLink(response), String.class);
+        page = JsonPath.parse(response.getBody()).read("$..name");
+        assertThat(page).containsExactly("Alice Dupont");
+        assertThat(nextLink(response)).isNull(); // Last page
+    }
+
+    // GET /clients?cursor= -> Error codes
+    @Test
+    void shouldNotPaginateWithInvalidCursor() {
+        // Not a cursor
+        ResponseEntity<String> response = rest.getForEntity(PATH + "?cursor=xxx", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
+
+        // Sort field without keyset index
+        response = rest.getForEntity(PATH + "?cursor=&sortBy=email", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
+
+        // Empty list
+        emptyDatabaseTables();
+        response = rest.getForEntity(PATH + "?cursor=", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT); // 204
+    }
+
+    // ----------------------------
+    // --- GET /clients/export ---
+    // ----------------------------
+
+    // GET /clients/export -> NDJSON (default) and CSV, one line per client
+    @Test
+    void shouldExportClients() {
+        ResponseEntity<String> response = rest.getForEntity(PATH + "/export", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(3);
+        // Subclass fields are exported (PersonDto, CompanyDto)
+        assertThat(lines).anyMatch(line -> line.contains("\"birthdate\""));
+        assertThat(lines).anyMatch(line -> line.contains("\"companyIdentifier\""));
+
+        response = rest.getForEntity(PATH + "/export?format=CSV", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(4); // Header line
+        assertThat(lines.get(0)).isEqualTo(
+                "clientId,clientType,phone,email,name,isDeleted,deletionDate,birthdate,companyIdentifier");
+        assertThat(lines).filteredOn(line -> line.contains(",PERSON,")).hasSize(2);
+        assertThat(lines).filteredOn(line -> line.contains(",COMPANY,")).hasSize(1);
+    }
+
+    // GET /clients/export -> Unknown format
+    @Test
+    void shouldNotExportClients() {
+        ResponseEntity<String> response = rest.getForEntity(PATH + "/export?format=xml", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
+    }
+
     // -------------------------
     // --- GET /clients/{id} ---
     // -------------------------
@@ -218,6 +379,45 @@ class ClientControllerIntegrationTest extends InsuranceApiApplicationTests {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
     }
 
+    // GET /clients/{id} -> Conditional GET (ETag = version)
+    @Test
+    void shouldGetClientNotModified() {
+        String id = getFirstClientId();
+        ResponseEntity<String> response = rest.getForEntity(PATH + "/" + id, String.class);
+        String etag = response.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+
+        // Same version: 304 without body, version from the second-level cache (loaded by the GET)
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        response = getIfNoneMatch(PATH + "/" + id, etag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED); // 304
+        assertThat(response.getBody()).isNull();
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // Not in the second-level cache: only the version is read
+        entityManagerFactory.getCache().evict(Client.class, UUID.fromString(id));
+        statistics.clear();
+        response = getIfNoneMatch(PATH + "/" + id, etag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED); // 304
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // After a PATCH: new version, 200 with the new body
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        rest.exchange(PATH + "/" + id, HttpMethod.PATCH,
+                new HttpEntity<>("{\"name\": \"Patched Name\"}", headers), String.class);
+        response = getIfNoneMatch(PATH + "/" + id, etag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(JsonPath.parse(response.getBody()).read("$.name", String.class)).isEqualTo("Patched Name");
+
+        // Unknown client: still 404
+        response = getIfNoneMatch(PATH + "/00000000-0000-0000-0000-000000000000", etag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND); // 404
+    }
+
     // ---------------------------
     // --- PATCH /clients/{id} ---
     // ---------------------------
@@ -298,7 +498,10 @@ class ClientControllerIntegrationTest extends InsuranceApiApplicationTests {
         // Delete first client
         String firstClientId = getFirstClientId();
         LocalDateTime now = LocalDateTime.now();
-        rest.delete(PATH + "/" + firstClientId);
+        ResponseEntity<String> response = rest.exchange(PATH + "/" + firstClientId, HttpMethod.DELETE, null,
+                String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst("X-Closed-Contracts")).isEqualTo("1"); // Alice's contract
 
         // Get the first client deleted (soft delete for archives)
         DocumentContext deletedClient = getClientById(firstClientId);
@@ -356,6 +559,33 @@ class ClientControllerIntegrationTest extends InsuranceApiApplicationTests {
         }
     }
 
+    // GET /clients/{id}/contracts -> Conditional GET (ETag = digest of the versions)
+    @Test
+    void shouldGetActiveContractsNotModified() {
+        String id = getFirstClientId();
+        String url = PATH + "/" + id + "/contracts";
+        String etag = rest.getForEntity(url, String.class).getHeaders().getETag();
+        assertThat(etag).isNotNull();
+
+        ResponseEntity<String> response = getIfNoneMatch(url, etag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED); // 304
+        assertThat(response.getBody()).isNull();
+
+        // New contract (version 0 like the others): new ETag
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String contract = "{\"clientId\": \"" + id + "\", \"costAmount\": 100}";
+        ResponseEntity<String> created = rest.postForEntity(BASE_PATH + "contracts",
+                new HttpEntity<>(contract, headers), String.class);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        response = getIfNoneMatch(url, etag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+        JSONArray costs = JsonPath.parse(response.getBody()).read("$..costAmount");
+        assertThat(costs).hasSize(2);
+    }
+
     // GET /clients/{id}/contracts -> wrong UUID
     @Test
     void shouldNotGetActiveContractsForWrongClient() {
@@ -114,6 +114,40 @@ class CompanyControllerIntegrationTest extends InsuranceApiApplicationTests {
         }
     }
 
+    // --------------------------------------
+    // --- POST /clients/companies/import ---
+    // --------------------------------------
+
+    // POST /clients/companies/import -> valid lines imported, errors per line
+    @Test
+    void shouldImportCompaniesFromNdjson() {
+        String ndjson = """
+                {"name":"New SA","companyIdentifier":"CHE-1"}
+                {"name":"Copy SA","companyIdentifier":"CH-123.456.789"}
+                not json
+                """;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        ResponseEntity<String> response = rest.exchange(PATH + "/import", HttpMethod.POST,
+                new HttpEntity<>(ndjson, headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        DocumentContext json = JsonPath.parse(response.getBody());
+        assertThat((Integer) json.read("$.created")).isEqualTo(1);
+        assertThat((Integer) json.read("$.rejected")).isEqualTo(2);
+        JSONArray lines = json.read("$.errors[*].line");
+        assertThat(lines).containsExactlyInAnyOrder(2, 3);
+
+        // Plain JSON is not accepted on this route
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        response = rest.exchange(PATH + "/import", HttpMethod.POST, new HttpEntity<>(ndjson, headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+
+        if (VERBOSE) {
+            LOGGER.info("POST {}/import → {}", PATH, json.jsonString());
+        }
+    }
+
     // ------------------------------
     // --- GET /clients/companies ---
     // ------------------------------
@@ -1,5 +1,7 @@
 package com.ricci.insuranceapi.insurance_api.controller;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -16,12 +18,16 @@ import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
 
+import jakarta.persistence.EntityManagerFactory;
+
 import net.minidev.json.JSONArray;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /*
  * This class performs integration tests on the ContractController.
@@ -42,6 +48,9 @@ public class ContractControllerTest extends InsuranceApiApplicationTests {
     @Autowired
     private JdbcTemplate jdbc;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     // ---------------
     // --- Helpers ---
     // ---------------
@@ -67,6 +76,12 @@ public class ContractControllerTest extends InsuranceApiApplicationTests {
         return allContracts.read("$[1].contractId");
     }
 
+    // Link: <url>; rel="next"
+    private String nextLink(ResponseEntity<String> response) {
+        String link = response.getHeaders().getFirst(HttpHeaders.LINK);
+        return link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+    }
+
     private DocumentContext getContractById(String id) {
         ResponseEntity<String> response = rest.getForEntity(PATH + "/" + id, String.class);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -138,6 +153,50 @@ public class ContractControllerTest extends InsuranceApiApplicationTests {
         assertThat(cost).isEqualByComparingTo(new BigDecimal("300"));
     }
 
+    // GET /contracts -> Constant number of queries (no N+1 on clients)
+    @Test
+    void shouldListContractsWithoutLoadingClientsOneByOne() {
+        // 50 more persons and companies, one contract each
+        jdbc.execute("""
+                INSERT INTO client (client_id, name)
+                SELECT gen_random_uuid(), 'Client ' || g FROM generate_series(1, 50) g
+                """);
+        jdbc.execute("INSERT INTO person (client_id) SELECT client_id FROM client WHERE name LIKE 'Client %' LIMIT 25");
+        jdbc.execute("""
+                INSERT INTO company (client_id)
+                SELECT c.client_id FROM client c LEFT JOIN person p ON c.client_id = p.client_id
+                WHERE c.name LIKE 'Client %' AND p.client_id IS NULL
+                """);
+        jdbc.execute("""
+                INSERT INTO contract (client_id, start_date, update_date, cost_amount)
+                SELECT client_id, LOCALTIMESTAMP, LOCALTIMESTAMP, 100 FROM client WHERE name LIKE 'Client %'
+                """);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<String> response = rest.getForEntity(PATH + "?size=40", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        int length = JsonPath.parse(response.getBody()).read("$.length()");
+        assertThat(length).isEqualTo(40);
+
+        // Page (with its clients) + count
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+
+        // Same with the keyset cursor: a single query
+        statistics.clear();
+        response = rest.getForEntity(PATH + "?cursor=&size=40", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // Without the count (?count=none): a single query as well
+        statistics.clear();
+        response = rest.getForEntity(PATH + "?size=40&count=none", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst("X-Has-Next")).isEqualTo("true");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
     // GET /contracts -> Pagination with errors
     @Test
     void shouldGetInvalidPaginationParams() {
@@ -150,6 +209,85 @@ public class ContractControllerTest extends InsuranceApiApplicationTests {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
     }
 
+    // ------------------------------------------
+    // --- GET /contracts with keyset cursor ---
+    // ------------------------------------------
+
+    // GET /contracts?cursor= -> follow the "next" links until the last page
+    @Test
+    void shouldPaginateWithCursor() {
+        List<BigDecimal> costs = new ArrayList<>();
+        String url = PATH + "?cursor=&size=2";
+        while (url != null) {
+            ResponseEntity<String> response = rest.getForEntity(url, String.class);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            JSONArray page = JsonPath.parse(response.getBody()).read("$..costAmount");
+            page.forEach(cost -> costs.add(new BigDecimal(cost.toString())));
+            url = nextLink(response);
+        }
+
+        // Sorted by updateDate desc (default): Bob, Entreprise SA, Alice
+        assertThat(costs).hasSize(3);
+        assertThat(costs.get(0)).isEqualByComparingTo("300");
+        assertThat(costs.get(1)).isEqualByComparingTo("1000");
+        assertThat(costs.get(2)).isEqualByComparingTo("400");
+    }
+
+    // GET /contracts?cursor= -> Error codes
+    @Test
+    void shouldNotPaginateWithInvalidCursor() {
+        // Not a cursor
+        ResponseEntity<String> response = rest.getForEntity(PATH + "?cursor=xxx", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
+
+        // Sort field without keyset index
+        response = rest.getForEntity(PATH + "?cursor=&sortBy=costAmount", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
+
+        // Empty list
+        emptyDatabaseTables();
+        response = rest.getForEntity(PATH + "?cursor=", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT); // 204
+    }
+
+    // ------------------------------
+    // --- GET /contracts/export ---
+    // ------------------------------
+
+    // GET /contracts/export -> NDJSON (default) and CSV, one line per contract
+    @Test
+    void shouldExportContracts() {
+        Integer contracts = jdbc.queryForObject("SELECT COUNT(*) FROM contract", Integer.class);
+
+        ResponseEntity<String> response = rest.getForEntity(PATH + "/export", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON)).isTrue();
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(contracts);
+        DocumentContext first = JsonPath.parse(lines.get(0));
+        assertThat(first.read("$.contractId", String.class)).isNotNull();
+        assertThat(first.read("$.client.clientId", String.class)).isNotNull();
+
+        response = rest.getForEntity(PATH + "/export?format=csv", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().isCompatibleWith(MediaType.parseMediaType("text/csv"))).isTrue();
+        assertThat(response.getHeaders().getContentDisposition().getFilename()).isEqualTo("contracts.csv");
+        lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(contracts + 1); // Header line
+        assertThat(lines.get(0)).startsWith("contractId,startDate,endDate,costAmount,clientId,clientType,");
+
+        if (VERBOSE) {
+            LOGGER.info("GET {}/export?format=csv → {}", PATH, lines.get(1));
+        }
+    }
+
+    // GET /contracts/export -> Unknown format
+    @Test
+    void shouldNotExportContracts() {
+        ResponseEntity<String> response = rest.getForEntity(PATH + "/export?format=xml", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
+    }
+
     // -------------------------
     // --- GET /contracts/{id} ---
     // -------------------------
@@ -170,6 +308,35 @@ public class ContractControllerTest extends InsuranceApiApplicationTests {
         }
     }
 
+    // GET /contracts/{id} -> Conditional GET (ETag = contract and client versions)
+    @Test
+    void shouldGetContractNotModified() {
+        String id = getFirstContractId();
+        ResponseEntity<String> response = rest.getForEntity(PATH + "/" + id, String.class);
+        String etag = response.getHeaders().getETag();
+        String clientId = JsonPath.parse(response.getBody()).read("$.client.clientId");
+        assertThat(etag).isNotNull();
+
+        // Same versions: 304 without body, only the versions are read
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(etag);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        response = rest.exchange(PATH + "/" + id, HttpMethod.GET, new HttpEntity<>(conditional), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED); // 304
+        assertThat(response.getBody()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // The body contains the client: a PATCH of the client changes the ETag
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        rest.exchange(BASE_PATH + "clients/" + clientId, HttpMethod.PATCH,
+                new HttpEntity<>("{\"name\": \"Patched Name\"}", headers), String.class);
+        response = rest.exchange(PATH + "/" + id, HttpMethod.GET, new HttpEntity<>(conditional), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+    }
+
     // GET /contracts/{id} -> Error codes
     @Test
     void shouldNotGetById() {
@@ -183,6 +350,57 @@ public class ContractControllerTest extends InsuranceApiApplicationTests {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
     }
 
+    // -----------------------------
+    // --- POST /contracts/batch ---
+    // -----------------------------
+
+    // POST /contracts/batch -> one result per item
+    @Test
+    void shouldCreateContractsInBatch() {
+        String clientId = JsonPath.parse(getContractById(getFirstContractId()).jsonString()).read("$.client.clientId");
+        String batchJson = """
+                [
+                    {"clientId": "%s", "costAmount": 100},
+                    {"clientId": "%s", "costAmount": -1},
+                    {"clientId": "00000000-0000-0000-0000-000000000000", "costAmount": 100},
+                    {"clientId": "%s", "costAmount": 200, "endDate": "2030-01-01T00:00:00"}
+                ]
+                """.formatted(clientId, clientId, clientId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<String> response = rest.postForEntity(PATH + "/batch", new HttpEntity<>(batchJson, headers),
+                String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        DocumentContext json = JsonPath.parse(response.getBody());
+        JSONArray statuses = json.read("$[*].status");
+        assertThat(statuses).containsExactly("CREATED", "REJECTED", "REJECTED", "CREATED");
+        assertThat(json.read("$[1].errors.costAmount", String.class)).isNotNull();
+        assertThat(json.read("$[2].errors.clientId", String.class)).isNotNull();
+
+        // Created contracts can be read
+        String createdId = json.read("$[3].contractId");
+        BigDecimal cost = new BigDecimal(getContractById(createdId).read("$.costAmount", String.class));
+        assertThat(cost).isEqualByComparingTo("200");
+    }
+
+    // POST /contracts/batch -> Error codes
+    @Test
+    void shouldNotCreateContractsInBatch() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // Empty batch
+        ResponseEntity<String> response = rest.postForEntity(PATH + "/batch", new HttpEntity<>("[]", headers),
+                String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
+
+        // Not a list
+        response = rest.postForEntity(PATH + "/batch", new HttpEntity<>("{}", headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST); // 400
+    }
+
     // -----------------------------
     // --- PATCH /contracts/{id} ---
     // -----------------------------
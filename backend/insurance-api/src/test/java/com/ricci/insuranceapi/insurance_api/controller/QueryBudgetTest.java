@@ -0,0 +1,283 @@
+package com.ricci.insuranceapi.insurance_api.controller;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.SqlStatementCounter;
+import com.ricci.insuranceapi.insurance_api.SqlStatementCounter.Counts;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * This class locks in the number of SQL statements of each endpoint (SqlStatementCounter):
+ * a lazy association loaded row by row (N+1) in a mapper or a service exceeds the budget.
+ * 10 more persons with 2 contracts each are added, so a list of 10 rows costs the same as a single row.
+ * Each test starts with new ids, so the first request of a client is never served by a cache.
+ * Test data is loaded from the InsuranceApiApplicationTests parent class.
+ */
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class QueryBudgetTest extends InsuranceApiApplicationTests {
+
+    private static final String CLIENTS = BASE_PATH + "clients";
+    private static final String CONTRACTS = BASE_PATH + "contracts";
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    private UUID clientId;
+    private UUID contractId;
+
+    @BeforeEach
+    void addClients() {
+        jdbc.update("""
+                INSERT INTO client (client_id, phone, email, name)
+                SELECT gen_random_uuid(), '+4179000' || LPAD(i::text, 4, '0'), 'budget' || i || '@example.com', 'Budget ' || i
+                FROM generate_series(1, 10) i
+                """);
+        jdbc.update("INSERT INTO person (client_id, birthdate)"
+                + " SELECT client_id, DATE '1980-01-01' FROM client WHERE email LIKE 'budget%'");
+        jdbc.update("INSERT INTO contract (client_id, start_date, update_date, cost_amount)"
+                + " SELECT client_id, TIMESTAMP '2024-01-01T00:00:00', LOCALTIMESTAMP, 100"
+                + " FROM client CROSS JOIN generate_series(1, 2) WHERE email LIKE 'budget%'");
+        jdbc.update("INSERT INTO client_cost_summary (client_id, active_contracts, active_cost)"
+                + " SELECT client_id, 2, 200 FROM client WHERE email LIKE 'budget%'");
+        clientId = jdbc.queryForObject("SELECT client_id FROM client WHERE email = 'budget1@example.com'", UUID.class);
+        contractId = jdbc.queryForObject("SELECT contract_id FROM contract WHERE client_id = ? LIMIT 1", UUID.class,
+                clientId);
+    }
+
+    // ---------------
+    // --- Helpers ---
+    // ---------------
+
+    private HttpEntity<String> json(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(body, headers);
+    }
+
+    private HttpEntity<String> ndjson(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        return new HttpEntity<>(body, headers);
+    }
+
+    private ResponseEntity<String> getIfNoneMatch(String url, String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return rest.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    // Statements of one request, each type within its budget
+    private ResponseEntity<String> assertBudget(String route, HttpStatusCode expectedStatus, Counts budget,
+            Supplier<ResponseEntity<String>> request) {
+        AtomicReference<ResponseEntity<String>> response = new AtomicReference<>();
+        Counts counts = sqlStatementCounter.count(() -> response.set(request.get()));
+
+        if (VERBOSE) {
+            LOGGER.info("{} → {} statements {}", route, counts.total(), counts);
+        }
+        assertThat(response.get().getStatusCode()).as(route).isEqualTo(expectedStatus);
+        assertThat(counts.select()).as(route + " SELECT").isLessThanOrEqualTo(budget.select());
+        assertThat(counts.insert()).as(route + " INSERT").isLessThanOrEqualTo(budget.insert());
+        assertThat(counts.update()).as(route + " UPDATE").isLessThanOrEqualTo(budget.update());
+        assertThat(counts.delete()).as(route + " DELETE").isLessThanOrEqualTo(budget.delete());
+        assertThat(counts.other()).as(route + " other").isLessThanOrEqualTo(budget.other());
+        return response.get();
+    }
+
+    // --------------------------------
+    // --- ClientController budgets ---
+    // --------------------------------
+
+    // GET /clients -> Offset page with exact, estimated or no count, type filter, keyset page
+    @Test
+    void shouldListClientsWithinBudget() {
+        assertBudget("GET /clients", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CLIENTS, String.class));
+        assertBudget("GET /clients?count=none", HttpStatus.OK, Counts.selects(1),
+                () -> rest.getForEntity(CLIENTS + "?count=none", String.class));
+        assertBudget("GET /clients?count=estimated", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CLIENTS + "?count=estimated", String.class));
+        assertBudget("GET /clients?type=PERSON", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CLIENTS + "?type=PERSON", String.class));
+        assertBudget("GET /clients?cursor=", HttpStatus.OK, Counts.selects(1),
+                () -> rest.getForEntity(CLIENTS + "?cursor=&size=10", String.class));
+    }
+
+    // GET /clients/export -> Same statements whatever the number of clients (server-side cursor)
+    @Test
+    void shouldExportClientsWithinBudget() {
+        assertBudget("GET /clients/export", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CLIENTS + "/export", String.class));
+    }
+
+    // GET /clients/{id} -> Entity with its subclass, then If-None-Match answered from the second-level cache
+    @Test
+    void shouldGetClientWithinBudget() {
+        ResponseEntity<String> response = assertBudget("GET /clients/{id}", HttpStatus.OK, Counts.selects(1),
+                () -> rest.getForEntity(CLIENTS + "/" + clientId, String.class));
+        String etag = response.getHeaders().getETag();
+        assertBudget("GET /clients/{id} If-None-Match", HttpStatus.NOT_MODIFIED, Counts.selects(0),
+                () -> getIfNoneMatch(CLIENTS + "/" + clientId, etag));
+    }
+
+    // PATCH /clients/{id}, DELETE /clients/{id} -> The contracts of the client are closed by one statement
+    @Test
+    void shouldWriteClientWithinBudget() {
+        assertBudget("PATCH /clients/{id}", HttpStatus.OK, new Counts(1, 0, 1, 0, 0),
+                () -> rest.exchange(CLIENTS + "/" + clientId, HttpMethod.PATCH,
+                        json("{\"name\": \"Budget Patched\"}"), String.class));
+        assertBudget("DELETE /clients/{id}", HttpStatus.OK, new Counts(0, 1, 3, 0, 0),
+                () -> rest.exchange(CLIENTS + "/" + clientId, HttpMethod.DELETE, null, String.class));
+    }
+
+    // GET /clients/{id}/contracts, /costsum, /after -> Independent of the number of contracts, 304 from the cache
+    @Test
+    void shouldGetClientContractsWithinBudget() {
+        ResponseEntity<String> response = assertBudget("GET /clients/{id}/contracts", HttpStatus.OK,
+                Counts.selects(1), () -> rest.getForEntity(CLIENTS + "/" + clientId + "/contracts", String.class));
+        String etag = response.getHeaders().getETag();
+        assertBudget("GET /clients/{id}/contracts If-None-Match", HttpStatus.NOT_MODIFIED, Counts.selects(0),
+                () -> getIfNoneMatch(CLIENTS + "/" + clientId + "/contracts", etag));
+        assertBudget("GET /clients/{id}/contracts/costsum", HttpStatus.OK, Counts.selects(1),
+                () -> rest.getForEntity(CLIENTS + "/" + clientId + "/contracts/costsum", String.class));
+        assertBudget("GET /clients/{id}/contracts/after", HttpStatus.OK, Counts.selects(1),
+                () -> rest.getForEntity(CLIENTS + "/" + clientId + "/contracts/after?date=2020-01-01T00:00:00",
+                        String.class));
+    }
+
+    // ----------------------------------
+    // --- ContractController budgets ---
+    // ----------------------------------
+
+    // GET /contracts -> Offset page with exact, estimated or no count, keyset page
+    @Test
+    void shouldListContractsWithinBudget() {
+        assertBudget("GET /contracts", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CONTRACTS, String.class));
+        assertBudget("GET /contracts?count=none", HttpStatus.OK, Counts.selects(1),
+                () -> rest.getForEntity(CONTRACTS + "?count=none", String.class));
+        assertBudget("GET /contracts?count=estimated", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CONTRACTS + "?count=estimated", String.class));
+        assertBudget("GET /contracts?cursor=", HttpStatus.OK, Counts.selects(1),
+                () -> rest.getForEntity(CONTRACTS + "?cursor=&size=10", String.class));
+    }
+
+    // GET /contracts/export -> Same statements whatever the number of contracts (server-side cursor)
+    @Test
+    void shouldExportContractsWithinBudget() {
+        assertBudget("GET /contracts/export", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CONTRACTS + "/export", String.class));
+    }
+
+    // GET /contracts/{id} -> Contract with its client, then the versions only for If-None-Match
+    @Test
+    void shouldGetContractWithinBudget() {
+        ResponseEntity<String> response = assertBudget("GET /contracts/{id}", HttpStatus.OK, Counts.selects(1),
+                () -> rest.getForEntity(CONTRACTS + "/" + contractId, String.class));
+        String etag = response.getHeaders().getETag();
+        assertBudget("GET /contracts/{id} If-None-Match", HttpStatus.NOT_MODIFIED, Counts.selects(1),
+                () -> getIfNoneMatch(CONTRACTS + "/" + contractId, etag));
+    }
+
+    // POST /contracts, POST /contracts/batch -> Batch: one client lookup and batched inserts for all the items
+    @Test
+    void shouldCreateContractsWithinBudget() {
+        assertBudget("POST /contracts", HttpStatus.CREATED, new Counts(1, 2, 1, 0, 0),
+                () -> rest.postForEntity(CONTRACTS,
+                        json("{\"clientId\": \"%s\", \"costAmount\": 100}".formatted(clientId)), String.class));
+
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < 10; i++) {
+            batch.append(i == 0 ? "" : ",").append("{\"clientId\": \"%s\", \"costAmount\": %d}".formatted(clientId, i + 1));
+        }
+        assertBudget("POST /contracts/batch", HttpStatus.OK, new Counts(1, 2, 1, 0, 0),
+                () -> rest.postForEntity(CONTRACTS + "/batch", json(batch.append("]").toString()), String.class));
+    }
+
+    // PATCH /contracts/{id}, DELETE /contracts/{id} -> Contract and cost summary written, soft delete
+    @Test
+    void shouldWriteContractWithinBudget() {
+        assertBudget("PATCH /contracts/{id}", HttpStatus.OK, new Counts(1, 1, 2, 0, 0),
+                () -> rest.exchange(CONTRACTS + "/" + contractId, HttpMethod.PATCH,
+                        json("{\"costAmount\": 150}"), String.class));
+        assertBudget("DELETE /contracts/{id}", HttpStatus.OK, new Counts(1, 1, 2, 0, 0),
+                () -> rest.exchange(CONTRACTS + "/" + contractId, HttpMethod.DELETE, null, String.class));
+    }
+
+    // ---------------------------------------------------
+    // --- PersonController, CompanyController budgets ---
+    // ---------------------------------------------------
+
+    // GET /clients/persons, GET /clients/companies -> Same budget as GET /clients
+    @Test
+    void shouldListPersonsAndCompaniesWithinBudget() {
+        assertBudget("GET /clients/persons", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CLIENTS + "/persons", String.class));
+        assertBudget("GET /clients/persons?count=estimated", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CLIENTS + "/persons?count=estimated", String.class));
+        assertBudget("GET /clients/companies", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CLIENTS + "/companies", String.class));
+        assertBudget("GET /clients/companies?count=estimated", HttpStatus.OK, Counts.selects(2),
+                () -> rest.getForEntity(CLIENTS + "/companies?count=estimated", String.class));
+    }
+
+    // POST /clients/persons, POST /clients/companies -> Client and subclass rows
+    @Test
+    void shouldCreatePersonAndCompanyWithinBudget() {
+        assertBudget("POST /clients/persons", HttpStatus.CREATED, new Counts(0, 2, 0, 0, 0),
+                () -> rest.postForEntity(CLIENTS + "/persons", json("""
+                        {"name": "Budget Person", "phone": "+41791110000", "email": "budget.person@example.com",
+                        "birthdate": "1990-01-01"}
+                        """), String.class));
+        assertBudget("POST /clients/companies", HttpStatus.CREATED, new Counts(0, 2, 0, 0, 0),
+                () -> rest.postForEntity(CLIENTS + "/companies", json("""
+                        {"name": "Budget SA", "phone": "+41791110001", "email": "budget.company@example.com",
+                        "companyIdentifier": "CHE-111.222.333"}
+                        """), String.class));
+    }
+
+    // POST /clients/persons/import, POST /clients/companies/import -> Batched inserts for all the lines
+    @Test
+    void shouldImportPersonsAndCompaniesWithinBudget() {
+        StringBuilder persons = new StringBuilder();
+        StringBuilder companies = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            persons.append("{\"name\":\"Import %d\",\"phone\":\"+4177100%04d\",\"email\":\"import%d@example.com\"}\n"
+                    .formatted(i, i, i));
+            companies.append(("{\"name\":\"Import %d SA\",\"phone\":\"+4177200%04d\",\"email\":\"import%d@example.ch\","
+                    + "\"companyIdentifier\":\"CHE-100.000.%03d\"}\n").formatted(i, i, i, i));
+        }
+        assertBudget("POST /clients/persons/import", HttpStatus.OK, new Counts(1, 2, 0, 0, 0),
+                () -> rest.exchange(CLIENTS + "/persons/import", HttpMethod.POST, ndjson(persons.toString()),
+                        String.class));
+        assertBudget("POST /clients/companies/import", HttpStatus.OK, new Counts(1, 2, 0, 0, 0),
+                () -> rest.exchange(CLIENTS + "/companies/import", HttpMethod.POST, ndjson(companies.toString()),
+                        String.class));
+    }
+
+}
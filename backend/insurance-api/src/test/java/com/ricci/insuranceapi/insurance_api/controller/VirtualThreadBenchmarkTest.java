@@ -0,0 +1,165 @@
+package com.ricci.insuranceapi.insurance_api.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplication;
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.config.VirtualThreadPinningMonitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Load benchmark of the contract endpoints, platform threads vs virtual threads (profile virtual-threads).
+ * The application is started on a random port once per mode, with the pools of the mode,
+ * and called over HTTP by more concurrent users than Tomcat has platform threads.
+ * Each user sends GET /contracts, GET /contracts/{id} and GET /clients/{id}/contracts in turn.
+ * Excluded from the default build: mvn test -Pbenchmark [-Dbenchmark.users=400 -Dbenchmark.requests=50]
+ */
+
+@Tag("benchmark")
+class VirtualThreadBenchmarkTest extends InsuranceApiApplicationTests {
+
+    private static final int CLIENTS = 1_000;
+    private static final int CONTRACTS_PER_CLIENT = 2;
+    private static final int USERS = Integer.getInteger("benchmark.users", 400);
+    private static final int REQUESTS_PER_USER = Integer.getInteger("benchmark.requests", 50);
+    private static final int WARMUP_PER_USER = 10;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private List<UUID> clientIds;
+    private List<UUID> contractIds;
+
+    @BeforeEach
+    void insertContracts() {
+        jdbc.update("""
+                INSERT INTO client (client_id, phone, email, name)
+                SELECT gen_random_uuid(), '+4179' || lpad(g::text, 7, '0'), 'client' || g || '@example.com', 'Client ' || g
+                FROM generate_series(1, ?) g
+                """, CLIENTS);
+        jdbc.update("""
+                INSERT INTO person (client_id, birthdate)
+                SELECT client_id, DATE '1990-01-01' FROM client WHERE name LIKE 'Client %'
+                """);
+        jdbc.update("""
+                INSERT INTO contract (client_id, start_date, update_date, cost_amount)
+                SELECT client_id, LOCALTIMESTAMP, LOCALTIMESTAMP - g * INTERVAL '1 minute', 100
+                FROM client, generate_series(1, ?) g
+                """, CONTRACTS_PER_CLIENT);
+        jdbc.execute("ANALYZE");
+        clientIds = jdbc.queryForList("SELECT client_id FROM client", UUID.class);
+        contractIds = jdbc.queryForList("SELECT contract_id FROM contract", UUID.class);
+    }
+
+    @Test
+    void shouldCompareThreadModes() throws Exception {
+        Result platform = run("platform threads", "test");
+        Result virtual = run("virtual threads", "test", "virtual-threads");
+
+        LOGGER.info("{} users x {} requests, {} clients, {} contracts", USERS, REQUESTS_PER_USER,
+                clientIds.size(), contractIds.size());
+        LOGGER.info("mode | requests/s | p50 (ms) | p99 (ms) | errors | pinned");
+        for (Result result : List.of(platform, virtual)) {
+            LOGGER.info("{} | {} | {} | {} | {} | {}", result.mode(), Math.round(result.requestsPerSecond()),
+                    result.p50Millis(), result.p99Millis(), result.errors(), result.pinned());
+        }
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+    }
+
+    // Starts the application with the profiles, warm-up, then USERS x REQUESTS_PER_USER timed requests
+    private Result run(String mode, String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InsuranceApiApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "spring.flyway.enabled=false", "api.cache.client.warm-up=0")
+                .run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + BASE_PATH;
+            AtomicInteger errors = new AtomicInteger();
+            try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor();
+                    HttpClient http = HttpClient.newBuilder().executor(users).build()) {
+                load(users, http, baseUrl, WARMUP_PER_USER, errors);
+                errors.set(0);
+
+                long started = System.nanoTime();
+                long[] latencies = load(users, http, baseUrl, REQUESTS_PER_USER, errors);
+                double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+                Arrays.sort(latencies);
+                long pinned = context.getBeanProvider(VirtualThreadPinningMonitor.class)
+                        .stream().mapToLong(VirtualThreadPinningMonitor::getPinnedCount).sum();
+                return new Result(mode, latencies.length / seconds, latencies[latencies.length / 2] / 1_000_000,
+                        latencies[latencies.length * 99 / 100] / 1_000_000, errors.get(), pinned);
+            }
+        }
+    }
+
+    // Latency of each request, the users start together
+    private long[] load(ExecutorService users, HttpClient http, String baseUrl, int requestsPerUser,
+            AtomicInteger errors) throws Exception {
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int user = 0; user < USERS; user++) {
+            results.add(users.submit(() -> {
+                long[] latencies = new long[requestsPerUser];
+                for (int i = 0; i < requestsPerUser; i++) {
+                    long start = System.nanoTime();
+                    if (send(http, baseUrl + nextPath(i)) != 200) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - start;
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[USERS * requestsPerUser];
+        for (int user = 0; user < USERS; user++) {
+            System.arraycopy(results.get(user).get(), 0, all, user * requestsPerUser, requestsPerUser);
+        }
+        return all;
+    }
+
+    private String nextPath(int i) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (i % 3) {
+            case 0 -> "contracts?page=" + random.nextInt(100) + "&size=20&count=none";
+            case 1 -> "contracts/" + contractIds.get(random.nextInt(contractIds.size()));
+            default -> "clients/" + clientIds.get(random.nextInt(clientIds.size())) + "/contracts";
+        };
+    }
+
+    private int send(HttpClient http, String url) throws InterruptedException {
+        try {
+            return http.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    private record Result(String mode, double requestsPerSecond, long p50Millis, long p99Millis, int errors,
+            long pinned) {
+    }
+
+}
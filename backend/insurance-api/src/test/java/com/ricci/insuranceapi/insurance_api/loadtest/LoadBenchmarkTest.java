@@ -0,0 +1,219 @@
+package com.ricci.insuranceapi.insurance_api.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplication;
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.service.ClientCostSummaryService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+ * End-to-end load test of the REST API: the application is started on a random port against
+ * the test database and called over HTTP by LoadGenerator, one scenario after the other:
+ * list clients, create contracts, poll the cost sums, delete clients with many contracts.
+ * Throughput and latency histogram of each scenario written to target/load-report.json,
+ * then compared with the committed baseline (src/test/resources/loadtest/load-baseline.json),
+ * recorded on the reference machine: skipped on a machine with another processor count or JVM.
+ * The baseline is only written with -Dbenchmark.load.update-baseline=true.
+ * Excluded from the default build: mvn test -Pbenchmark -Dtest=LoadBenchmarkTest
+ * [-Dbenchmark.load.users=50 -Dbenchmark.load.requests=5000 -Dbenchmark.load.deletions=200
+ * -Dbenchmark.load.tolerance.throughput=0.3 -Dbenchmark.load.tolerance.p50=0.5
+ * -Dbenchmark.load.tolerance.p99=1.0 -Dbenchmark.load.tolerance.p999=2.0 -Dbenchmark.load.slack-ms=2
+ * -Dbenchmark.load.baseline=other-baseline.json -Dbenchmark.load.update-baseline=true]
+ */
+
+@Tag("benchmark")
+class LoadBenchmarkTest extends InsuranceApiApplicationTests {
+
+    private static final int CLIENTS = 1_000;
+    private static final int CONTRACTS_PER_CLIENT = 3;
+    private static final int CONTRACTS_PER_DELETED_CLIENT = 200;
+    private static final int USERS = Integer.getInteger("benchmark.load.users", 50);
+    private static final int REQUESTS = Integer.getInteger("benchmark.load.requests", 5_000);
+    private static final int WARMUP = Math.max(USERS, REQUESTS / 10);
+    private static final int DELETIONS = Integer.getInteger("benchmark.load.deletions", 200);
+    private static final int DELETION_WARMUP = Math.max(1, DELETIONS / 10);
+
+    private static final Path REPORT = Path.of("target/load-report.json");
+    private static final Path BASELINE = Path.of(
+            System.getProperty("benchmark.load.baseline", "src/test/resources/loadtest/load-baseline.json"));
+    private static final LoadReport.Tolerances TOLERANCES = new LoadReport.Tolerances(
+            doubleProperty("benchmark.load.tolerance.throughput", 0.3),
+            doubleProperty("benchmark.load.tolerance.p50", 0.5),
+            doubleProperty("benchmark.load.tolerance.p99", 1.0),
+            doubleProperty("benchmark.load.tolerance.p999", 2.0),
+            doubleProperty("benchmark.load.slack-ms", 2));
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ClientCostSummaryService clientCostSummaryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<UUID> clientIds;
+    private List<UUID> deletedClientIds;
+
+    // Clients with a few contracts (and their cost summary), clients with many contracts to delete
+    @BeforeEach
+    void insertClients() {
+        insertPersons("Load", 1, CLIENTS, CONTRACTS_PER_CLIENT);
+        insertPersons("Heavy", CLIENTS + 1, DELETION_WARMUP + DELETIONS, CONTRACTS_PER_DELETED_CLIENT);
+        jdbc.execute("ANALYZE");
+        clientIds = jdbc.queryForList("SELECT client_id FROM client WHERE name LIKE 'Load %'", UUID.class);
+        deletedClientIds = jdbc.queryForList("SELECT client_id FROM client WHERE name LIKE 'Heavy %'", UUID.class);
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> clientCostSummaryService.refresh(clientIds));
+    }
+
+    private void insertPersons(String prefix, int first, int count, int contractsPerClient) {
+        jdbc.update("""
+                INSERT INTO client (client_id, phone, email, name)
+                SELECT gen_random_uuid(), '+4179' || lpad(g::text, 7, '0'), lower(?) || g || '@example.com', ? || ' ' || g
+                FROM generate_series(?, ?) g
+                """, prefix, prefix, first, first + count - 1);
+        jdbc.update("""
+                INSERT INTO person (client_id, birthdate)
+                SELECT client_id, DATE '1990-01-01' FROM client WHERE name LIKE ? || ' %'
+                """, prefix);
+        jdbc.update("""
+                INSERT INTO contract (client_id, start_date, update_date, cost_amount)
+                SELECT client_id, LOCALTIMESTAMP, LOCALTIMESTAMP, 100
+                FROM client, generate_series(1, ?) g
+                WHERE name LIKE ? || ' %'
+                """, contractsPerClient, prefix);
+    }
+
+    @Test
+    void shouldNotRegressFromBaseline() throws Exception {
+        LoadReport report = run();
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(REPORT.toFile(), report);
+
+        LoadReport baseline = readBaseline();
+        log(report, baseline);
+        for (LoadReport.ScenarioResult scenario : report.scenarios()) {
+            assertThat(scenario.errors()).as(scenario.name() + " errors").isZero();
+        }
+        if (Boolean.getBoolean("benchmark.load.update-baseline")) {
+            Files.createDirectories(BASELINE.toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(BASELINE.toFile(), report);
+            LOGGER.info("Baseline written to {}", BASELINE.toAbsolutePath());
+            return;
+        }
+        assertThat(baseline).as("baseline " + BASELINE.toAbsolutePath()).isNotNull();
+        // Numbers of another machine: not comparable, and never replaced silently
+        boolean sameMachine = report.processors() == baseline.processors()
+                && report.javaVersion().equals(baseline.javaVersion());
+        if (!sameMachine) {
+            LOGGER.warn("Baseline recorded with {} processors and Java {}, this run {} processors and Java {}:"
+                    + " comparison skipped", baseline.processors(), baseline.javaVersion(), report.processors(),
+                    report.javaVersion());
+        }
+        assumeTrue(sameMachine, "Baseline recorded on another machine");
+        assertThat(report.compareTo(baseline, TOLERANCES)).isEmpty();
+    }
+
+    // Starts the application, then the scenarios one after the other with the same users
+    private LoadReport run() throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InsuranceApiApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.flyway.enabled=false", "api.cache.client.warm-up=0")
+                .run();
+                LoadGenerator generator = new LoadGenerator()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + BASE_PATH;
+
+            List<LoadReport.ScenarioResult> results = new ArrayList<>();
+            results.add(generator.run(new LoadGenerator.Scenario("list-clients", USERS, WARMUP, REQUESTS, 200,
+                    i -> get(baseUrl + "clients?page=" + random(50) + "&size=20&count=none"))));
+            results.add(generator.run(new LoadGenerator.Scenario("create-contracts", USERS, WARMUP, REQUESTS, 201,
+                    i -> post(baseUrl + "contracts", """
+                            {"clientId":"%s","costAmount":%d}""".formatted(randomClient(), 50 + random(500))))));
+            results.add(generator.run(new LoadGenerator.Scenario("poll-costsum", USERS, WARMUP, REQUESTS, 200,
+                    i -> get(baseUrl + "clients/" + randomClient() + "/contracts/costsum"))));
+            results.add(generator.run(new LoadGenerator.Scenario("delete-clients", USERS, DELETION_WARMUP,
+                    DELETIONS, 200,
+                    i -> HttpRequest.newBuilder(URI.create(baseUrl + "clients/" + deletedClientIds.get(i)))
+                            .DELETE().build())));
+            return new LoadReport(Instant.now().toString(), System.getProperty("java.version"),
+                    Runtime.getRuntime().availableProcessors(), results);
+        }
+    }
+
+    private LoadReport readBaseline() throws IOException {
+        if (!Files.exists(BASELINE)) {
+            LOGGER.warn("No baseline at {}", BASELINE.toAbsolutePath());
+            return null;
+        }
+        return objectMapper.readValue(BASELINE.toFile(), LoadReport.class);
+    }
+
+    private void log(LoadReport report, LoadReport baseline) {
+        LOGGER.info("{} users, {} requests per scenario, {} deletions of clients with {} contracts", USERS,
+                REQUESTS, DELETIONS, CONTRACTS_PER_DELETED_CLIENT);
+        LOGGER.info("scenario | requests/s | p50 (ms) | p99 (ms) | p999 (ms) | errors | baseline requests/s, p99");
+        for (LoadReport.ScenarioResult result : report.scenarios()) {
+            LoadReport.ScenarioResult expected = baseline == null ? null : baseline.scenario(result.name());
+            LOGGER.info("{} | {} | {} | {} | {} | {} | {}", result.name(), Math.round(result.throughput()),
+                    result.p50Millis(), result.p99Millis(), result.p999Millis(), result.errors(),
+                    expected == null ? "-" : Math.round(expected.throughput()) + ", " + expected.p99Millis());
+        }
+    }
+
+    // ---------------
+    // --- Helpers ---
+    // ---------------
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private UUID randomClient() {
+        return clientIds.get(random(clientIds.size()));
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+}
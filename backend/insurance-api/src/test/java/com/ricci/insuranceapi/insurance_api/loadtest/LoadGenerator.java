@@ -0,0 +1,112 @@
+// https://docs.oracle.com/en/java/javase/21/docs/api/java.net.http/java/net/http/HttpClient.html
+
+package com.ricci.insuranceapi.insurance_api.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/*
+ * Closed-loop HTTP load generator: each user (a virtual thread) sends its next request
+ * as soon as the previous response is read, until the scenario has sent all its requests.
+ * The requests are numbered across the warm-up and the timed phase, so a scenario can
+ * consume a list (e.g. one client to delete per request) without sending one twice.
+ * The latency of a request goes from the send to the end of the body (discarded).
+ */
+
+public class LoadGenerator implements AutoCloseable {
+
+    private final ExecutorService users = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(users)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    // Warm-up (not recorded), then the timed requests
+    public LoadReport.ScenarioResult run(Scenario scenario) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        phase(scenario, next, scenario.warmup(), new LatencyHistogram(), errors);
+        errors.set(0);
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        long started = System.nanoTime();
+        phase(scenario, next, scenario.warmup() + scenario.requests(), histogram, errors);
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        return new LoadReport.ScenarioResult(
+                scenario.name(),
+                scenario.users(),
+                histogram.getTotalCount(),
+                errors.get(),
+                histogram.getTotalCount() / seconds,
+                histogram.percentileMicros(0.50) / 1000.0,
+                histogram.percentileMicros(0.99) / 1000.0,
+                histogram.percentileMicros(0.999) / 1000.0,
+                histogram.getMaxMicros() / 1000.0,
+                histogram.buckets());
+    }
+
+    @Override
+    public void close() {
+        http.close();
+        users.close();
+    }
+
+    // The users start together and share the request counter up to the end of the phase
+    private void phase(Scenario scenario, AtomicInteger next, int end, LatencyHistogram histogram,
+            AtomicLong errors) throws InterruptedException {
+        List<Future<?>> running = new ArrayList<>();
+        for (int user = 0; user < scenario.users(); user++) {
+            running.add(users.submit(() -> {
+                for (int i = next.getAndIncrement(); i < end; i = next.getAndIncrement()) {
+                    HttpRequest request = scenario.request().apply(i);
+                    long start = System.nanoTime();
+                    if (send(request) != scenario.expectedStatus()) {
+                        errors.incrementAndGet();
+                    }
+                    histogram.record((System.nanoTime() - start) / 1000);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> user : running) {
+            try {
+                user.get();
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Load user failed in " + scenario.name(), ex.getCause());
+            }
+        }
+        next.set(end); // Counter overshoot of the users that found the phase complete
+    }
+
+    private int send(HttpRequest request) throws InterruptedException {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    // request: builds the request number i (0 to warmup + requests - 1)
+    public record Scenario(
+            String name,
+            int users,
+            int warmup,
+            int requests,
+            int expectedStatus,
+            IntFunction<HttpRequest> request) {
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.ricci.insuranceapi.insurance_api.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Result of a load run, written as JSON (target/load-report.json) and committed as the baseline.
+ * compareTo lists the regressions against a baseline: a throughput below the baseline minus its
+ * tolerance, or a percentile above the baseline plus its tolerance. The latencies also get an
+ * absolute slack, since a few hundred microseconds on a 1 ms p50 is only noise.
+ * Faster or more stable results than the baseline are never a regression.
+ */
+
+public record LoadReport(
+        String createdAt,
+        String javaVersion,
+        int processors,
+        List<ScenarioResult> scenarios) {
+
+    public List<String> compareTo(LoadReport baseline, Tolerances tolerances) {
+        List<String> regressions = new ArrayList<>();
+        for (ScenarioResult expected : baseline.scenarios()) {
+            ScenarioResult actual = scenario(expected.name());
+            if (actual == null) {
+                regressions.add(expected.name() + ": not run");
+                continue;
+            }
+            if (actual.errors() > 0) {
+                regressions.add(expected.name() + ": " + actual.errors() + " errors");
+            }
+            double minThroughput = expected.throughput() * (1 - tolerances.throughput());
+            if (actual.throughput() < minThroughput) {
+                regressions.add(String.format("%s: %.0f requests/s < %.0f (baseline %.0f - %.0f%%)",
+                        expected.name(), actual.throughput(), minThroughput, expected.throughput(),
+                        tolerances.throughput() * 100));
+            }
+            checkLatency(regressions, expected.name(), "p50", actual.p50Millis(), expected.p50Millis(),
+                    tolerances.p50(), tolerances.slackMillis());
+            checkLatency(regressions, expected.name(), "p99", actual.p99Millis(), expected.p99Millis(),
+                    tolerances.p99(), tolerances.slackMillis());
+            checkLatency(regressions, expected.name(), "p999", actual.p999Millis(), expected.p999Millis(),
+                    tolerances.p999(), tolerances.slackMillis());
+        }
+        return regressions;
+    }
+
+    public ScenarioResult scenario(String name) {
+        return scenarios.stream().filter(scenario -> scenario.name().equals(name)).findFirst().orElse(null);
+    }
+
+    private static void checkLatency(List<String> regressions, String scenario, String percentile,
+            double actual, double expected, double tolerance, double slackMillis) {
+        double maxMillis = expected * (1 + tolerance) + slackMillis;
+        if (actual > maxMillis) {
+            regressions.add(String.format("%s: %s %.2f ms > %.2f (baseline %.2f + %.0f%% + %.1f ms)",
+                    scenario, percentile, actual, maxMillis, expected, tolerance * 100, slackMillis));
+        }
+    }
+
+    // One scenario: requests timed after the warm-up, latencies in milliseconds
+    public record ScenarioResult(
+            String name,
+            int users,
+            long requests,
+            long errors,
+            double throughput,
+            double p50Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis,
+            List<LatencyHistogram.Bucket> histogram) {
+    }
+
+    // Relative tolerances (0.3 = 30%) and absolute slack added to the latency limits
+    public record Tolerances(double throughput, double p50, double p99, double p999, double slackMillis) {
+    }
+
+}
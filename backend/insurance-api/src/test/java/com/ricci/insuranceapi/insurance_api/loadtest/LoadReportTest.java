@@ -0,0 +1,93 @@
+package com.ricci.insuranceapi.insurance_api.loadtest;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * This class performs unit tests on the LatencyHistogram and the baseline comparison of LoadReport
+ * (no application, no database: runs in the default build).
+ */
+
+class LoadReportTest {
+
+    private static final LoadReport.Tolerances TOLERANCES = new LoadReport.Tolerances(0.3, 0.5, 1.0, 2.0, 1);
+
+    // -----------------
+    // --- Histogram ---
+    // -----------------
+
+    // Percentiles within 1/16 of the recorded values, never above the max
+    @Test
+    void shouldComputePercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros);
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(10_000);
+        assertThat(histogram.percentileMicros(0.50)).isBetween(5_000L, 5_000L + 5_000L / 16);
+        assertThat(histogram.percentileMicros(0.99)).isBetween(9_900L, 10_000L);
+        assertThat(histogram.percentileMicros(0.999)).isBetween(9_990L, 10_000L);
+        assertThat(histogram.percentileMicros(1.0)).isEqualTo(10_000);
+        assertThat(histogram.buckets().stream().mapToLong(LatencyHistogram.Bucket::count).sum()).isEqualTo(10_000);
+    }
+
+    // Contiguous buckets: each value is in the bucket whose bounds contain it
+    @Test
+    void shouldIndexValuesInOrder() {
+        for (long value : new long[] { 0, 1, 31, 32, 33, 63, 64, 1_000, 123_456, 60_000_000, Long.MAX_VALUE }) {
+            int index = LatencyHistogram.index(value);
+            assertThat(LatencyHistogram.upperBound(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.upperBound(index - 1)).isLessThan(value);
+            }
+        }
+    }
+
+    // ------------------
+    // --- Comparison ---
+    // ------------------
+
+    // Within the tolerances (or faster) -> no regression
+    @Test
+    void shouldAcceptResultsWithinTolerances() {
+        LoadReport baseline = report(result("list-clients", 1000, 2, 10, 20, 0));
+        LoadReport current = report(result("list-clients", 750, 3.5, 20, 60, 0));
+        LoadReport faster = report(result("list-clients", 5000, 0.5, 1, 2, 0));
+
+        assertThat(current.compareTo(baseline, TOLERANCES)).isEmpty();
+        assertThat(faster.compareTo(baseline, TOLERANCES)).isEmpty();
+    }
+
+    // Lower throughput, higher percentiles, errors or missing scenario -> one regression each
+    @Test
+    void shouldReportRegressions() {
+        LoadReport baseline = report(
+                result("list-clients", 1000, 2, 10, 20, 0),
+                result("poll-costsum", 1000, 2, 10, 20, 0));
+        LoadReport current = report(result("list-clients", 600, 5, 25, 100, 3));
+
+        List<String> regressions = current.compareTo(baseline, TOLERANCES);
+
+        assertThat(regressions).hasSize(6);
+        assertThat(regressions).anyMatch(regression -> regression.startsWith("list-clients: 3 errors"));
+        assertThat(regressions).anyMatch(regression -> regression.startsWith("list-clients: 600 requests/s"));
+        assertThat(regressions).anyMatch(regression -> regression.startsWith("list-clients: p50"));
+        assertThat(regressions).anyMatch(regression -> regression.startsWith("list-clients: p99"));
+        assertThat(regressions).anyMatch(regression -> regression.startsWith("list-clients: p999"));
+        assertThat(regressions).contains("poll-costsum: not run");
+    }
+
+    private LoadReport report(LoadReport.ScenarioResult... results) {
+        return new LoadReport("2026-01-01T00:00:00Z", "21", 8, List.of(results));
+    }
+
+    private LoadReport.ScenarioResult result(String name, double throughput, double p50, double p99, double p999,
+            long errors) {
+        return new LoadReport.ScenarioResult(name, 50, 5000, errors, throughput, p50, p99, p999, p999, List.of());
+    }
+
+}
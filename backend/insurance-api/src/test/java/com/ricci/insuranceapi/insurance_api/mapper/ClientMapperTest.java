@@ -8,6 +8,7 @@ import com.ricci.insuranceapi.insurance_api.dto.PersonDto;
 import com.ricci.insuranceapi.insurance_api.model.Client;
 import com.ricci.insuranceapi.insurance_api.model.Company;
 import com.ricci.insuranceapi.insurance_api.model.Person;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRow;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -73,6 +74,21 @@ class ClientMapperTest {
         assertThat(companyDto.getIsDeleted()).isTrue();
     }
 
+    // toDto(ClientRow) -> same DTOs as from the entities
+    @Test
+    void shouldMapRowsToDtos() {
+        ClientRow personRow = new ClientRow(samplePerson.getClientId(), Person.class, samplePerson.getPhone(),
+                samplePerson.getEmail(), samplePerson.getName(), samplePerson.getIsDeleted(),
+                samplePerson.getDeletionDate(), samplePerson.getBirthdate(), null);
+        ClientRow companyRow = new ClientRow(sampleCompany.getClientId(), Company.class, sampleCompany.getPhone(),
+                sampleCompany.getEmail(), sampleCompany.getName(), sampleCompany.getIsDeleted(),
+                sampleCompany.getDeletionDate(), null, sampleCompany.getCompanyIdentifier());
+
+        List<ClientDto> result = clientMapper.rowsToDtos(List.of(personRow, companyRow));
+
+        assertThat(result).containsExactly(clientMapper.toDto(samplePerson), clientMapper.toDto(sampleCompany));
+    }
+
     // toEntity(PersonDto)
     @Test
     void shouldMapDtoToPersonEntity() {
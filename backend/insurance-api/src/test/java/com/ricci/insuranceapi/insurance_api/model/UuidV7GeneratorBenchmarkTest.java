@@ -0,0 +1,102 @@
+package com.ricci.insuranceapi.insurance_api.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Benchmark of the primary keys: random UUIDv4 vs time-ordered UUIDv7.
+ * Same shape as client/contract (uuid PK + indexed client_id FK),
+ * 4 contracts per client, inserted with JDBC batches like the application.
+ * Excluded from the default build: mvn test -Pbenchmark [-Dbenchmark.clients=200000]
+ */
+
+@Tag("benchmark")
+class UuidV7GeneratorBenchmarkTest extends InsuranceApiApplicationTests {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 200_000);
+    private static final int CONTRACTS_PER_CLIENT = 4;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @AfterEach
+    void dropTables() {
+        for (String version : List.of("v4", "v7")) {
+            jdbc.execute("DROP TABLE IF EXISTS bench_contract_" + version);
+            jdbc.execute("DROP TABLE IF EXISTS bench_client_" + version);
+        }
+    }
+
+    @Test
+    void shouldCompareUuidV4AndV7() {
+        Result v4 = run("v4", UUID::randomUUID);
+        Result v7 = run("v7", UuidV7Generator::generate);
+
+        LOGGER.info("{} clients, {} contracts", CLIENTS, CLIENTS * CONTRACTS_PER_CLIENT);
+        LOGGER.info("version | rows/s | client PK (kB) | contract PK (kB) | contract client_id index (kB)");
+        for (Result result : List.of(v4, v7)) {
+            LOGGER.info("{} | {} | {} | {} | {}", result.version(), result.rowsPerSecond(),
+                    result.clientPk() / 1024, result.contractPk() / 1024, result.contractFk() / 1024);
+        }
+
+        // Appends at the right end of the B-tree (no page splits in the middle)
+        assertThat(v7.clientPk()).isLessThan(v4.clientPk());
+        assertThat(v7.contractPk()).isLessThan(v4.contractPk());
+    }
+
+    private Result run(String version, Supplier<UUID> ids) {
+        String clientTable = "bench_client_" + version;
+        String contractTable = "bench_contract_" + version;
+        jdbc.execute("CREATE TABLE " + clientTable + " (client_id uuid PRIMARY KEY, name varchar(64))");
+        jdbc.execute("CREATE TABLE " + contractTable
+                + " (contract_id uuid PRIMARY KEY, client_id uuid NOT NULL REFERENCES " + clientTable
+                + ", cost_amount numeric(12,2) NOT NULL)");
+        jdbc.execute("CREATE INDEX ON " + contractTable + " (client_id)");
+
+        long start = System.nanoTime();
+        List<Object[]> clients = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> contracts = new ArrayList<>(BATCH_SIZE * CONTRACTS_PER_CLIENT);
+        for (int i = 1; i <= CLIENTS; i++) {
+            UUID clientId = ids.get();
+            clients.add(new Object[] { clientId, "Client " + i });
+            for (int c = 0; c < CONTRACTS_PER_CLIENT; c++) {
+                contracts.add(new Object[] { ids.get(), clientId, 100 });
+            }
+            if (i % BATCH_SIZE == 0 || i == CLIENTS) {
+                jdbc.batchUpdate("INSERT INTO " + clientTable + " VALUES (?, ?)", clients);
+                jdbc.batchUpdate("INSERT INTO " + contractTable + " VALUES (?, ?, ?)", contracts);
+                clients.clear();
+                contracts.clear();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long rowsPerSecond = Math.round(CLIENTS * (1 + CONTRACTS_PER_CLIENT) / seconds);
+
+        return new Result(version, rowsPerSecond,
+                indexSize(clientTable + "_pkey"),
+                indexSize(contractTable + "_pkey"),
+                indexSize(contractTable + "_client_id_idx"));
+    }
+
+    private long indexSize(String index) {
+        return jdbc.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class, index);
+    }
+
+    // Index sizes in bytes
+    private record Result(String version, long rowsPerSecond, long clientPk, long contractPk, long contractFk) {
+    }
+
+}
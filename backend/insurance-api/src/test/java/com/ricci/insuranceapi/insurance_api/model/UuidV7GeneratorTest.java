@@ -0,0 +1,68 @@
+package com.ricci.insuranceapi.insurance_api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * This class tests the UUIDv7 generator used for the client and contract ids.
+ * It checks the version and variant bits, the timestamp
+ * and the ordering of ids generated in the same millisecond.
+ */
+
+class UuidV7GeneratorTest {
+
+    // -----------------------
+    // --- Format ---
+    // -----------------------
+
+    // Version 7, variant RFC 9562, timestamp in the first 48 bits
+    @Test
+    void shouldGenerateVersion7Uuid() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.generate();
+        long after = System.currentTimeMillis();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        assertThat(millis).isBetween(before, after + 1);
+    }
+
+    // Bulk ids (random rand_a, one random per thread): same format, timestamp of the given ms, unique
+    @Test
+    void shouldGenerateBulkVersion7Uuids() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            uuids.add(UuidV7Generator.generate(1_700_000_000_000L, random));
+        }
+
+        assertThat(uuids).allMatch(uuid -> uuid.version() == 7 && uuid.variant() == 2)
+                .allMatch(uuid -> uuid.getMostSignificantBits() >>> 16 == 1_700_000_000_000L);
+        assertThat(new HashSet<>(uuids)).hasSize(uuids.size());
+    }
+
+    // -----------------------
+    // --- Ordering ---
+    // -----------------------
+
+    // Ids are unique and increasing (string order = uuid column order in PostgreSQL)
+    @Test
+    void shouldGenerateIncreasingUuids() {
+        List<String> uuids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            uuids.add(UuidV7Generator.generate().toString());
+        }
+
+        assertThat(new HashSet<>(uuids)).hasSize(uuids.size());
+        assertThat(uuids).isSorted();
+    }
+
+}
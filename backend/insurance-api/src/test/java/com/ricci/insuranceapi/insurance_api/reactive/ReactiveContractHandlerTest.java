@@ -0,0 +1,155 @@
+package com.ricci.insuranceapi.insurance_api.reactive;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.mapper.ContractMapper;
+import com.ricci.insuranceapi.insurance_api.service.ContractService;
+
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * This class performs integration tests on the reactive read path (ReactiveReadServer, api.reactive.port=0).
+ * The bodies are compared with the ones of the MVC endpoints (same DTOs and ObjectMapper).
+ * Test data is loaded from the InsuranceApiApplicationTests parent class.
+ */
+
+class ReactiveContractHandlerTest extends InsuranceApiApplicationTests {
+
+    @Autowired
+    private ReactiveReadServer server;
+
+    @Autowired
+    private ReactiveContractRepository reactiveContractRepository;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ContractMapper contractMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private WebTestClient client;
+    private UUID aliceId;
+    private UUID bobId;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort() + BASE_PATH).build();
+        aliceId = jdbc.queryForObject("SELECT client_id FROM client WHERE email = 'alice@example.com'", UUID.class);
+        bobId = jdbc.queryForObject("SELECT client_id FROM client WHERE email = 'bob@example.com'", UUID.class);
+    }
+
+    // ------------------------
+    // --- Active contracts ---
+    // ------------------------
+
+    // GET /clients/{id}/contracts -> Same body as the MVC endpoint
+    @Test
+    void shouldGetActiveContracts() throws Exception {
+        String expected = objectMapper.writeValueAsString(
+                contractMapper.rowsToContractGetDtoList(contractService.getActiveContractRows(aliceId)));
+
+        client.get().uri("clients/{id}/contracts", aliceId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().json(expected, JsonCompareMode.STRICT);
+    }
+
+    // GET /clients/{id}/contracts -> One object per line with Accept: application/x-ndjson
+    @Test
+    void shouldStreamActiveContracts() {
+        jdbc.update("""
+                INSERT INTO contract (client_id, start_date, update_date, cost_amount)
+                SELECT ?, LOCALTIMESTAMP, LOCALTIMESTAMP, 10 FROM generate_series(1, 499)
+                """, aliceId);
+
+        String body = client.get().uri("clients/{id}/contracts", aliceId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertThat(body.lines()).hasSize(500).allMatch(line -> line.contains(aliceId.toString()));
+    }
+
+    // GET /clients/{id}/contracts -> No active contract, unknown client, invalid id
+    @Test
+    void shouldNotGetActiveContracts() {
+        client.get().uri("clients/{id}/contracts", bobId).exchange().expectStatus().isNoContent();
+        client.get().uri("clients/{id}/contracts", UUID.randomUUID()).exchange().expectStatus().isNoContent();
+        client.get().uri("clients/not-a-uuid/contracts").exchange().expectStatus().isBadRequest();
+    }
+
+    // GET /clients/{id}/contracts/after -> Only the contracts updated after the date
+    @Test
+    void shouldGetActiveContractsUpdatedAfter() {
+        client.get().uri("clients/{id}/contracts/after?date=2024-01-01T00:00:00", aliceId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(1);
+        client.get().uri("clients/{id}/contracts/after?date=2024-02-01T00:00:00", aliceId)
+                .exchange()
+                .expectStatus().isNoContent();
+        client.get().uri("clients/{id}/contracts/after?date=yesterday", aliceId)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    // GET /clients/{id}/contracts/costsum -> Same sum as the MVC endpoint
+    @Test
+    void shouldGetActiveContractsCost() {
+        client.get().uri("clients/{id}/contracts/costsum", aliceId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).value(body -> assertThat(body).startsWith("400"));
+        client.get().uri("clients/{id}/contracts/costsum", bobId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("0");
+    }
+
+    // --------------------
+    // --- Backpressure ---
+    // --------------------
+
+    // Rows emitted on demand, the query is cancelled with the subscriber
+    @Test
+    void shouldEmitRowsOnDemand() {
+        jdbc.update("""
+                INSERT INTO contract (client_id, start_date, update_date, cost_amount)
+                SELECT ?, LOCALTIMESTAMP, LOCALTIMESTAMP, 10 FROM generate_series(1, 1000)
+                """, aliceId);
+
+        StepVerifier.create(reactiveContractRepository.findActiveByClient(aliceId, LocalDateTime.now()), 10)
+                .expectNextCount(10)
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(reactiveContractRepository.findActiveByClient(aliceId, LocalDateTime.now()).count())
+                .expectNext(1001L)
+                .verifyComplete();
+    }
+
+}
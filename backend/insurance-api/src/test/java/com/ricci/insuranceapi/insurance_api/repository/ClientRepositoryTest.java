@@ -2,15 +2,27 @@ package com.ricci.insuranceapi.insurance_api.repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.SqlStatementCounter;
+import com.ricci.insuranceapi.insurance_api.SqlStatementCounter.Statement;
 import com.ricci.insuranceapi.insurance_api.model.Client;
 import com.ricci.insuranceapi.insurance_api.model.Company;
 import com.ricci.insuranceapi.insurance_api.model.Person;
 
+import jakarta.persistence.EntityManagerFactory;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /*
@@ -25,6 +37,15 @@ public class ClientRepositoryTest extends InsuranceApiApplicationTests {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
     // --------------------
     // --- Read Clients ---
     // --------------------
@@ -55,6 +76,41 @@ public class ClientRepositoryTest extends InsuranceApiApplicationTests {
         }
     }
 
+    // Read -> Rows (projection) with the subclass columns, no entity loaded
+    @Test
+    void shouldFindClientRows() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<ClientRow> rows = clientRepository.findRows(PageRequest.of(0, 10, Sort.by("name")));
+
+        assertThat(rows.getTotalElements()).isEqualTo(3);
+        assertThat(rows.getContent()).extracting(ClientRow::type)
+                .containsExactly(Person.class, Person.class, Company.class);
+        assertThat(rows.getContent().get(0).birthdate()).isNotNull();
+        assertThat(rows.getContent().get(2).companyIdentifier()).isEqualTo("CH-123.456.789");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    // Read -> Rows of one type (GET /clients?type=)
+    @Test
+    void shouldFindRowsOfOneType() {
+        Page<ClientRow> persons = clientRepository.findPersonRows(PageRequest.of(0, 10, Sort.by("name")));
+        Page<ClientRow> companies = clientRepository.findCompanyRows(PageRequest.of(0, 10, Sort.by("name")));
+
+        assertThat(persons.getContent()).extracting(ClientRow::name).containsExactly("Alice Dupont", "Bob Martin");
+        assertThat(persons.getContent()).extracting(ClientRow::birthdate).doesNotContainNull();
+        assertThat(companies.getContent()).extracting(ClientRow::companyIdentifier).containsExactly("CH-123.456.789");
+    }
+
+    // Discriminator set for the rows inserted with SQL only (sample data, trigger of V6)
+    @Test
+    void shouldSetClientTypeFromSubclassTable() {
+        List<String> types = jdbc.queryForList("SELECT client_type FROM client ORDER BY name", String.class);
+
+        assertThat(types).containsExactly("PERSON", "PERSON", "COMPANY");
+    }
+
     // --------------------------------------------
     // --- Create Client (concrete child class) ---
     // --------------------------------------------
@@ -154,4 +210,88 @@ public class ClientRepositoryTest extends InsuranceApiApplicationTests {
         }
     }
 
+    // --------------------------
+    // --- Keyset pagination ---
+    // --------------------------
+
+    // Read -> Pages after a cursor (name, clientId)
+    @Test
+    void shouldFindClientsAfterCursor() {
+        List<Client> first = clientRepository.findFirstByNameAsc(Limit.of(1));
+        assertThat(first).hasSize(1);
+        assertThat(first.get(0).getName()).isEqualTo("Alice Dupont");
+
+        Client alice = first.get(0);
+        List<Client> next = clientRepository.findAfterByNameAsc(alice.getName(), alice.getClientId(), Limit.of(10));
+        assertThat(next).extracting(Client::getName).containsExactly("Bob Martin", "Entreprise SA");
+
+        Client entreprise = next.get(1);
+        List<Client> previous = clientRepository.findAfterByNameDesc(
+                entreprise.getName(), entreprise.getClientId(), Limit.of(10));
+        assertThat(previous).extracting(Client::getName).containsExactly("Bob Martin", "Alice Dupont");
+    }
+
+    // Page and count of one type: filtered on the discriminator, only the table of this type is joined
+    @Test
+    void shouldUseDiscriminatorForTypeFilteredQueries() {
+        jdbc.execute("""
+                INSERT INTO client (client_id, name)
+                SELECT gen_random_uuid(), 'Client ' || g FROM generate_series(1, 100000) g
+                """);
+        jdbc.execute("""
+                INSERT INTO person (client_id)
+                SELECT client_id FROM client WHERE name LIKE 'Client %' AND right(name, 1) IN ('0', '2', '4', '6', '8')
+                """);
+        jdbc.execute("""
+                INSERT INTO company (client_id)
+                SELECT client_id FROM client WHERE name LIKE 'Client %' AND client_type IS NULL
+                """);
+        jdbc.execute("ANALYZE client");
+        jdbc.execute("ANALYZE person");
+        jdbc.execute("ANALYZE company");
+
+        // SQL generated by Hibernate for GET /clients?type=PERSON: page query and its COUNT query
+        List<Statement> statements = sqlStatementCounter.capture(
+                () -> clientRepository.findPersonRows(PageRequest.of(100, 10, Sort.by("name"))));
+        assertThat(statements).hasSize(2);
+        String pagePlan = explain(statements.get(0));
+        String countPlan = explain(statements.get(1));
+
+        assertThat(pagePlan).contains("idx_client_type_name").doesNotContain("company").doesNotContain("Sort");
+        assertThat(countPlan).contains("client").doesNotContain("person").doesNotContain("company");
+
+        if (VERBOSE) {
+            LOGGER.info("Persons page plan:\n{}", pagePlan);
+            LOGGER.info("Persons count plan:\n{}", countPlan);
+        }
+    }
+
+    private String explain(Statement statement) {
+        return String.join("\n",
+                jdbc.queryForList("EXPLAIN " + statement.sql(), String.class, statement.parameters().toArray()));
+    }
+
+    // Deep keyset page -> index range scan, no sort over the table
+    // (captured on the sample data: the generated clients have no person or company row to load)
+    @Test
+    void shouldUseIndexForKeysetPage() {
+        List<Statement> statements = sqlStatementCounter.capture(() -> clientRepository.findAfterByNameAsc(
+                "Client 40000", new UUID(0, 0), Limit.of(10)));
+        assertThat(statements).hasSize(1);
+
+        jdbc.execute("""
+                INSERT INTO client (client_id, name)
+                SELECT gen_random_uuid(), 'Client ' || g FROM generate_series(1, 50000) g
+                """);
+        jdbc.execute("ANALYZE client");
+        String plan = explain(statements.get(0));
+
+        assertThat(plan).contains("idx_client_name_keyset");
+        assertThat(plan).doesNotContain("Seq Scan on client");
+
+        if (VERBOSE) {
+            LOGGER.info("Keyset page plan:\n{}", plan);
+        }
+    }
+
 }
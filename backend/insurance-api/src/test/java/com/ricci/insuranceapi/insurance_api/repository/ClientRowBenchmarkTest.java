@@ -0,0 +1,144 @@
+package com.ricci.insuranceapi.insurance_api.repository;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
+import com.ricci.insuranceapi.insurance_api.mapper.ContractMapper;
+import com.ricci.insuranceapi.insurance_api.service.ClientService;
+import com.ricci.insuranceapi.insurance_api.service.ContractService;
+import com.ricci.insuranceapi.insurance_api.utils.CountMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * Benchmark of the list endpoints: managed entities + mapper (entity path)
+ * vs ClientRow/ContractRow constructor projections (row path).
+ * Same service and mapper calls as GET /clients and GET /contracts (count=none),
+ * without the HTTP layer, so the allocations are measured on the calling thread.
+ * Excluded from the default build: mvn test -Pbenchmark [-Dbenchmark.clients=10000]
+ */
+
+@Tag("benchmark")
+class ClientRowBenchmarkTest extends InsuranceApiApplicationTests {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 10_000);
+    private static final int CONTRACTS_PER_CLIENT = 2;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ClientMapper clientMapper;
+
+    @Autowired
+    private ContractMapper contractMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void insertClients() {
+        jdbc.update("""
+                INSERT INTO client (client_id, phone, email, name)
+                SELECT gen_random_uuid(), '+4179' || lpad(g::text, 7, '0'), 'client' || g || '@example.com', 'Client ' || g
+                FROM generate_series(1, ?) g
+                """, CLIENTS);
+        jdbc.update("""
+                INSERT INTO person (client_id, birthdate)
+                SELECT client_id, DATE '1990-01-01' FROM client WHERE name LIKE 'Client %' AND right(name, 1) IN ('0', '2', '4', '6', '8')
+                """);
+        jdbc.update("""
+                INSERT INTO company (client_id, company_identifier)
+                SELECT client_id, 'CHE-' || substring(name FROM 8) FROM client
+                WHERE name LIKE 'Client %' AND client_id NOT IN (SELECT client_id FROM person)
+                """);
+        jdbc.update("""
+                INSERT INTO contract (client_id, start_date, update_date, cost_amount)
+                SELECT client_id, LOCALTIMESTAMP, LOCALTIMESTAMP - g * INTERVAL '1 minute', 100
+                FROM client, generate_series(1, ?) g
+                """, CONTRACTS_PER_CLIENT);
+        jdbc.execute("ANALYZE");
+    }
+
+    @Test
+    void shouldCompareClientListPaths() {
+        int pages = CLIENTS / PAGE_SIZE;
+        Result entities = run("GET /clients, entities", pages, page -> clientMapper.toDtos(
+                clientService.getAllClients(pageRequest(page, "name"), CountMode.NONE).getContent()));
+        Result rows = run("GET /clients, rows", pages, page -> clientMapper.rowsToDtos(
+                clientService.getAllClientRows(pageRequest(page, "name"), CountMode.NONE).getContent()));
+
+        log(entities, rows);
+        assertThat(rows.bytesPerRequest()).isLessThan(entities.bytesPerRequest());
+    }
+
+    @Test
+    void shouldCompareContractListPaths() {
+        int pages = CLIENTS * CONTRACTS_PER_CLIENT / PAGE_SIZE;
+        Result entities = run("GET /contracts, entities", pages, page -> contractMapper.toContractGetDtoList(
+                contractService.getAllContracts(pageRequest(page, "updateDate"), CountMode.NONE).getContent()));
+        Result rows = run("GET /contracts, rows", pages, page -> contractMapper.rowsToContractGetDtoList(
+                contractService.getAllContractRows(pageRequest(page, "updateDate"), CountMode.NONE).getContent()));
+
+        log(entities, rows);
+        assertThat(rows.bytesPerRequest()).isLessThan(entities.bytesPerRequest());
+    }
+
+    private PageRequest pageRequest(int page, String sortBy) {
+        return PageRequest.of(page, PAGE_SIZE, Sort.by(sortBy));
+    }
+
+    // Pages read in turn, allocated bytes of this thread and latency of each request
+    private Result run(String name, int pages, IntFunction<List<?>> request) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            assertThat(request.apply(i % pages)).hasSize(PAGE_SIZE);
+        }
+
+        long[] latencies = new long[ITERATIONS];
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            request.apply(i % pages);
+            latencies[i] = System.nanoTime() - start;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Arrays.sort(latencies);
+        return new Result(name, allocated / ITERATIONS,
+                latencies[ITERATIONS / 2] / 1_000, latencies[ITERATIONS * 99 / 100] / 1_000);
+    }
+
+    private void log(Result entities, Result rows) {
+        LOGGER.info("{} clients, {} contracts, pages of {}", CLIENTS, CLIENTS * CONTRACTS_PER_CLIENT, PAGE_SIZE);
+        LOGGER.info("path | allocated kB/request | p50 (us) | p99 (us)");
+        for (Result result : List.of(entities, rows)) {
+            LOGGER.info("{} | {} | {} | {}", result.name(), result.bytesPerRequest() / 1024,
+                    result.p50Micros(), result.p99Micros());
+        }
+    }
+
+    private record Result(String name, long bytesPerRequest, long p50Micros, long p99Micros) {
+    }
+
+}
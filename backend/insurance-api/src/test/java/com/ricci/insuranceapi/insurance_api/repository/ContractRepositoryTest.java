@@ -3,11 +3,17 @@ package com.ricci.insuranceapi.insurance_api.repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.SqlStatementCounter;
+import com.ricci.insuranceapi.insurance_api.SqlStatementCounter.Statement;
 import com.ricci.insuranceapi.insurance_api.model.Client;
 import com.ricci.insuranceapi.insurance_api.model.Contract;
 
@@ -28,6 +34,12 @@ public class ContractRepositoryTest extends InsuranceApiApplicationTests {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
     // ----------------------
     // --- Read Contracts ---
     // ----------------------
@@ -198,6 +210,20 @@ public class ContractRepositoryTest extends InsuranceApiApplicationTests {
         }
     }
 
+    // Same active contracts as rows (projection) with the client's columns
+    @Test
+    void shouldFindActiveContractRowsForAlice() {
+        Client alice = clientRepository.findAll(Sort.by("name")).get(0);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<ContractRow> rows = contractRepository.findActiveRowsByClient(alice.getClientId(), now);
+        List<Contract> contracts = contractRepository.findActiveByClient(alice.getClientId(), now);
+
+        assertThat(rows).extracting(ContractRow::contractId)
+                .containsExactlyInAnyOrderElementsOf(contracts.stream().map(Contract::getContractId).toList());
+        assertThat(rows).extracting(ContractRow::email).containsOnly(alice.getEmail());
+    }
+
     // Find zero active contract if endDate is before the given date
     @Test
     void shouldFindZeroActiveContractsForBob() {
@@ -279,4 +305,96 @@ public class ContractRepositoryTest extends InsuranceApiApplicationTests {
         }
     }
 
+    // -------------------
+    // --- Query plans ---
+    // -------------------
+
+    // Same predicates as the custom queries (see V2__active-contract-indexes.sql)
+    private static final String ACTIVE_PREDICATE = "client_id = ? AND (end_date IS NULL OR ? < end_date)";
+
+    // 1000 clients with 50 contracts each (1/3 ended, 1/3 future end date, 1/3 open-ended)
+    private UUID insertLargeDataset() {
+        jdbc.execute("""
+                INSERT INTO client (client_id, name)
+                SELECT gen_random_uuid(), 'Client ' || g FROM generate_series(1, 1000) g
+                """);
+        jdbc.execute("""
+                INSERT INTO contract (client_id, start_date, end_date, update_date, cost_amount)
+                SELECT c.client_id,
+                       TIMESTAMP '2024-01-01T00:00:00',
+                       CASE g % 3
+                           WHEN 0 THEN LOCALTIMESTAMP - INTERVAL '1 day'
+                           WHEN 1 THEN LOCALTIMESTAMP + INTERVAL '1 year'
+                       END,
+                       LOCALTIMESTAMP - g * INTERVAL '1 day',
+                       g * 10
+                FROM client c, generate_series(1, 50) g
+                """);
+        jdbc.execute("VACUUM ANALYZE contract"); // Statistics + visibility map for index-only scans
+        return jdbc.queryForObject("SELECT client_id FROM client WHERE name = 'Client 500'", UUID.class);
+    }
+
+    private String explain(String sql, Object... params) {
+        List<String> lines = jdbc.queryForList("EXPLAIN " + sql, String.class, params);
+        String plan = String.join("\n", lines);
+        if (VERBOSE) {
+            LOGGER.info("EXPLAIN {}\n{}", sql, plan);
+        }
+        return plan;
+    }
+
+    // Active contracts for one client -> no sequential scan
+    @Test
+    void shouldUseIndexesForActiveContracts() {
+        UUID clientId = insertLargeDataset();
+
+        String plan = explain("SELECT * FROM contract WHERE " + ACTIVE_PREDICATE,
+                clientId, LocalDateTime.now());
+
+        assertThat(plan).doesNotContain("Seq Scan");
+        assertThat(plan).contains("idx_contract_client_end_date");
+        assertThat(plan).contains("idx_contract_client_open"); // Partial index for open-ended contracts
+    }
+
+    // Active contracts updated after a date -> no sequential scan
+    @Test
+    void shouldUseIndexForActiveContractsUpdatedAfter() {
+        UUID clientId = insertLargeDataset();
+
+        String plan = explain("SELECT * FROM contract WHERE " + ACTIVE_PREDICATE + " AND update_date >= ?",
+                clientId, LocalDateTime.now(), LocalDateTime.now().minusDays(5));
+
+        assertThat(plan).doesNotContain("Seq Scan");
+        assertThat(plan).contains("idx_contract_client_update_date");
+    }
+
+    // Sum of active contracts -> index-only scan (covering index)
+    @Test
+    void shouldUseIndexOnlyScanForActiveContractsCostSum() {
+        UUID clientId = insertLargeDataset();
+
+        String plan = explain("SELECT COALESCE(SUM(cost_amount), 0) FROM contract WHERE " + ACTIVE_PREDICATE,
+                clientId, LocalDateTime.now());
+
+        assertThat(plan).contains("Index Only Scan using idx_contract_client_end_date");
+    }
+
+    // Deep keyset page (GET /contracts?cursor=) -> index range scan, no sort over the table
+    // Plan of the SQL generated by Hibernate for the repository query, with its own parameters
+    // (captured on the sample data: the generated clients have no person or company row to load)
+    @Test
+    void shouldUseIndexForKeysetPage() {
+        List<Statement> statements = sqlStatementCounter.capture(() -> contractRepository.findAfterByUpdateDateDesc(
+                LocalDateTime.now().minusDays(40), UUID.randomUUID(), Limit.of(10)));
+        assertThat(statements).hasSize(1);
+        Statement query = statements.get(0);
+
+        insertLargeDataset();
+        String plan = explain(query.sql(), query.parameters().toArray());
+
+        assertThat(plan).contains("idx_contract_update_date_keyset");
+        assertThat(plan).doesNotContain("Seq Scan on contract");
+        assertThat(plan).doesNotContain("Sort");
+    }
+
 }
@@ -0,0 +1,181 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.dto.ClientPatchDto;
+import com.ricci.insuranceapi.insurance_api.dto.ContractDto;
+import com.ricci.insuranceapi.insurance_api.dto.ContractPatchDto;
+import com.ricci.insuranceapi.insurance_api.model.Client;
+import com.ricci.insuranceapi.insurance_api.model.Contract;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRow;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ * This class performs integration tests on the ActiveContractCache,
+ * through the ContractService reads (active contracts and their cost sum).
+ * Test data is loaded from the InsuranceApiApplicationTests parent class:
+ * Alice has one active contract without end date (cost 400).
+ */
+
+class ActiveContractCacheTest extends InsuranceApiApplicationTests {
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Client alice;
+
+    @BeforeEach
+    void findAlice() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        UUID id = jdbc.queryForObject("SELECT client_id FROM client WHERE email = 'alice@example.com'", UUID.class);
+        alice = clientService.getClient(id);
+    }
+
+    // ------------
+    // --- Read ---
+    // ------------
+
+    // Read -> Repeated reads served from memory
+    @Test
+    void shouldServeRepeatedReadsFromMemory() {
+        contractService.getActiveContractRows(alice.getClientId());
+        contractService.getSumOfActiveContractsCost(alice.getClientId());
+
+        statistics.clear();
+        List<ContractRow> rows = contractService.getActiveContractRows(alice.getClientId());
+        BigDecimal cost = contractService.getSumOfActiveContractsCost(alice.getClientId());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(rows).hasSize(1);
+        assertThat(cost).isEqualByComparingTo("400");
+    }
+
+    // Read -> Entry expires at the earliest end date, without any write
+    @Test
+    void shouldExpireAtEarliestEndDate() throws InterruptedException {
+        LocalDateTime endDate = LocalDateTime.now().plusSeconds(1);
+        jdbc.update("""
+                INSERT INTO contract (client_id, start_date, end_date, update_date, cost_amount)
+                VALUES (?, LOCALTIMESTAMP, ?, LOCALTIMESTAMP, 50)
+                """, alice.getClientId(), endDate);
+        // Contracts inserted with SQL: no rollup, the cost is aggregated from the contracts
+        jdbc.update("DELETE FROM client_cost_summary WHERE client_id = ?", alice.getClientId());
+
+        assertThat(contractService.getActiveContractRows(alice.getClientId())).hasSize(2);
+        assertThat(contractService.getSumOfActiveContractsCost(alice.getClientId())).isEqualByComparingTo("450");
+
+        Thread.sleep(Duration.between(LocalDateTime.now(), endDate).plusMillis(100));
+
+        assertThat(contractService.getActiveContractRows(alice.getClientId())).hasSize(1);
+        assertThat(contractService.getSumOfActiveContractsCost(alice.getClientId())).isEqualByComparingTo("400");
+    }
+
+    // --------------
+    // --- Writes ---
+    // --------------
+
+    // Writes -> Create, patch, delete and force close evict the client
+    @Test
+    void shouldEvictOnContractWrites() {
+        UUID clientId = alice.getClientId();
+        assertThat(contractService.getActiveContractRows(clientId)).hasSize(1);
+        assertThat(contractService.getSumOfActiveContractsCost(clientId)).isEqualByComparingTo("400");
+
+        Contract created = contractService.createContract(
+                new ContractDto(null, clientId, null, null, new BigDecimal("100")), alice);
+        assertThat(contractService.getActiveContractRows(clientId)).hasSize(2);
+        assertThat(contractService.getSumOfActiveContractsCost(clientId)).isEqualByComparingTo("500");
+
+        ContractPatchDto patch = new ContractPatchDto();
+        patch.setCostAmount(new BigDecimal("150"));
+        contractService.partialUpdate(created.getContractId(), patch);
+        assertThat(contractService.getSumOfActiveContractsCost(clientId)).isEqualByComparingTo("550");
+
+        contractService.deleteContract(created.getContractId());
+        assertThat(contractService.getActiveContractRows(clientId)).hasSize(1);
+        assertThat(contractService.getSumOfActiveContractsCost(clientId)).isEqualByComparingTo("400");
+
+        UUID open = contractService.getActiveContractRows(clientId).get(0).contractId();
+        contractService.forceCloseContract(open);
+        assertThat(contractService.getActiveContractRows(clientId)).isEmpty();
+        assertThat(contractService.getSumOfActiveContractsCost(clientId)).isEqualByComparingTo("0");
+    }
+
+    // Writes -> Client deletion (contracts closed in bulk) evicts the client
+    @Test
+    void shouldEvictOnClientDeletion() {
+        assertThat(contractService.getActiveContractRows(alice.getClientId())).hasSize(1);
+
+        clientService.deleteClient(alice.getClientId());
+
+        assertThat(contractService.getActiveContractRows(alice.getClientId())).isEmpty();
+        assertThat(contractService.getSumOfActiveContractsCost(alice.getClientId())).isEqualByComparingTo("0");
+    }
+
+    // Writes -> Client patch evicts the client (the cached rows also contain the client columns)
+    @Test
+    void shouldEvictOnClientPatch() {
+        assertThat(contractService.getActiveContractRows(alice.getClientId()))
+                .extracting(ContractRow::name).containsExactly("Alice Dupont");
+
+        ClientPatchDto patch = new ClientPatchDto();
+        patch.setName("Alice Renamed");
+        clientService.partialUpdate(alice.getClientId(), patch);
+
+        assertThat(contractService.getActiveContractRows(alice.getClientId()))
+                .extracting(ContractRow::name).containsExactly("Alice Renamed");
+    }
+
+    // Writes -> A result loaded while a write evicts the client is not cached
+    @Test
+    void shouldNotCacheResultLoadedDuringEviction() {
+        ActiveContractCache cache = new ActiveContractCache(100, Duration.ofMinutes(1));
+        UUID clientId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getCost(clientId, () -> {
+            loads.incrementAndGet();
+            cache.evict(Set.of(clientId)); // Concurrent write
+            return new ExpiringResult<>(BigDecimal.ONE, null);
+        });
+        cache.getCost(clientId, () -> {
+            loads.incrementAndGet();
+            return new ExpiringResult<>(BigDecimal.TEN, null);
+        });
+        BigDecimal cached = cache.getCost(clientId, () -> {
+            loads.incrementAndGet();
+            return new ExpiringResult<>(BigDecimal.ZERO, null);
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(cached).isEqualByComparingTo(BigDecimal.TEN);
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
+import com.ricci.insuranceapi.insurance_api.utils.CsvUtils;
+
+import jakarta.validation.Validator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * This class performs integration tests on the BulkLoadService (offline COPY load).
+ * The files are cut in chunks of 64 bytes, loaded by 2 threads, to cover the chunk boundaries.
+ * Test data is loaded from the InsuranceApiApplicationTests parent class.
+ */
+
+class BulkLoadServiceTest extends InsuranceApiApplicationTests {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ClientCostSummaryService costSummaryService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private CsvUtils csvUtils;
+
+    @TempDir
+    private Path directory;
+
+    private BulkLoadService bulkLoadService;
+
+    @BeforeEach
+    void createService() {
+        bulkLoadService = new BulkLoadService(jdbc, transactionManager, costSummaryService, validator, csvUtils,
+                DataSize.ofBytes(64), 2);
+    }
+
+    // ---------------
+    // --- Helpers ---
+    // ---------------
+
+    private Path writeFile(String... lines) throws IOException {
+        return Files.writeString(directory.resolve("load.csv"), String.join("\n", lines) + "\n",
+                StandardCharsets.UTF_8);
+    }
+
+    private List<String> readRejected() throws IOException {
+        return Files.readAllLines(directory.resolve("rejected.csv"), StandardCharsets.UTF_8);
+    }
+
+    private int count(String sql, Object... args) {
+        return jdbc.queryForObject(sql, Integer.class, args);
+    }
+
+    // ---------------
+    // --- Persons ---
+    // ---------------
+
+    // Persons -> Valid rows loaded, invalid phone and email already taken rejected
+    @Test
+    void shouldLoadPersons() throws IOException {
+        Path file = writeFile(
+                "phone,email,name,birthdate",
+                "+41 79 111 22 33,carol@example.com,Carol Meier,1985-03-02",
+                "0791112234,dave@example.com,\"Dave, Jr\",",
+                "12345,eve@example.com,Eve,1990-01-01",
+                "+41791112235,alice@example.com,Not Alice,1990-01-01",
+                "+41791112236,frank@example.com,Frank,2999-01-01");
+
+        BulkLoadReport report = bulkLoadService.load(BulkLoadType.PERSONS, file, directory.resolve("rejected.csv"));
+
+        assertThat(report.loaded()).isEqualTo(2);
+        assertThat(report.rejected()).isEqualTo(3);
+        assertThat(report.chunks()).isGreaterThan(1);
+        assertThat(count("SELECT COUNT(*) FROM person p JOIN client c ON c.client_id = p.client_id "
+                + "WHERE c.email IN ('carol@example.com', 'dave@example.com') AND c.client_type = 'PERSON'"))
+                .isEqualTo(2);
+        assertThat(jdbc.queryForObject("SELECT name FROM client WHERE email = 'dave@example.com'", String.class))
+                .isEqualTo("Dave, Jr");
+
+        List<String> rejected = readRejected();
+        assertThat(rejected).hasSize(4);
+        assertThat(rejected.get(0)).isEqualTo("offset,errors,row");
+        assertThat(String.join("\n", rejected))
+                .contains("Swiss phone number expected")
+                .contains("Email already exists")
+                .contains("Must be a date or time in the past or present");
+    }
+
+    // -----------------
+    // --- Companies ---
+    // -----------------
+
+    // Companies -> Duplicated identifier rejected, no client left without its company row
+    @Test
+    void shouldLoadCompanies() throws IOException {
+        Path file = writeFile(
+                "phone,email,name,companyIdentifier",
+                "+41441110001,one@example.com,One SA,CHE-100",
+                "+41441110002,two@example.com,Two SA,CHE-100",
+                "+41441110003,three@example.com,Three SA,CH-123.456.789");
+
+        BulkLoadReport report = bulkLoadService.load(BulkLoadType.COMPANIES, file, directory.resolve("rejected.csv"));
+
+        assertThat(report.loaded()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(count("SELECT COUNT(*) FROM company WHERE company_identifier = 'CHE-100'")).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM client c WHERE NOT EXISTS "
+                + "(SELECT 1 FROM person p WHERE p.client_id = c.client_id) AND NOT EXISTS "
+                + "(SELECT 1 FROM company co WHERE co.client_id = c.client_id)")).isZero();
+        assertThat(readRejected()).filteredOn(line -> line.contains("Company identifier already exists")).hasSize(2);
+    }
+
+    // -----------------
+    // --- Contracts ---
+    // -----------------
+
+    // Contracts -> Unknown client rejected, cost summary of the client refreshed
+    @Test
+    void shouldLoadContracts() throws IOException {
+        UUID alice = jdbc.queryForObject("SELECT client_id FROM client WHERE email = 'alice@example.com'", UUID.class);
+        int aliceContracts = count("SELECT COUNT(*) FROM contract WHERE client_id = ?", alice);
+        Path file = writeFile(
+                "clientId,startDate,endDate,costAmount",
+                alice + ",2024-01-01T00:00:00,,100.50",
+                alice + ",,,49.50",
+                UUID.randomUUID() + ",,,10",
+                alice + ",yesterday,,10",
+                alice + ",,,-1");
+
+        BulkLoadReport report = bulkLoadService.load(BulkLoadType.CONTRACTS, file, directory.resolve("rejected.csv"));
+
+        assertThat(report.loaded()).isEqualTo(2);
+        assertThat(report.rejected()).isEqualTo(3);
+        assertThat(count("SELECT COUNT(*) FROM contract WHERE client_id = ?", alice)).isEqualTo(aliceContracts + 2);
+        assertThat(costSummaryService.getActiveCost(alice)).isEqualByComparingTo("550");
+        assertThat(String.join("\n", readRejected()))
+                .contains("Could not find client")
+                .contains("Date time must be yyyy-MM-ddTHH:mm:ss")
+                .contains("Cost amount must be positive or zero");
+    }
+
+    // Contracts -> Wrong header, nothing loaded
+    @Test
+    void shouldNotLoadWithWrongHeader() throws IOException {
+        Path file = writeFile("clientId,costAmount", UUID.randomUUID() + ",10");
+
+        assertThatThrownBy(() -> bulkLoadService.load(BulkLoadType.CONTRACTS, file, directory.resolve("rejected.csv")))
+                .isInstanceOf(ClientInvalidDataException.class)
+                .hasMessageContaining("clientId,startDate,endDate,costAmount");
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.dto.ContractDto;
+import com.ricci.insuranceapi.insurance_api.dto.ContractPatchDto;
+import com.ricci.insuranceapi.insurance_api.model.Client;
+import com.ricci.insuranceapi.insurance_api.model.ClientCostSummary;
+import com.ricci.insuranceapi.insurance_api.model.Contract;
+import com.ricci.insuranceapi.insurance_api.repository.ClientCostSummaryRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * This class performs integration tests on the ClientCostSummaryService.
+ * It verifies that the client_cost_summary rollup follows the contract writes,
+ * the scheduled fold of the expired contracts and the single-row read.
+ * Test data is loaded from the InsuranceApiApplicationTests parent class.
+ */
+
+public class ClientCostSummaryServiceTest extends InsuranceApiApplicationTests {
+
+    @Autowired
+    private ClientCostSummaryService costSummaryService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientCostSummaryRepository summaryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Client alice;
+
+    @BeforeEach
+    void findAlice() {
+        UUID id = jdbc.queryForObject("SELECT client_id FROM client WHERE email = 'alice@example.com'", UUID.class);
+        alice = clientService.getClient(id);
+    }
+
+    // ------------
+    // --- Read ---
+    // ------------
+
+    // Read -> Single-row primary key lookup
+    @Test
+    void shouldReadActiveCostWithOneQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BigDecimal cost = costSummaryService.getActiveCost(alice.getClientId());
+
+        assertThat(cost).isEqualByComparingTo("400");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // Read -> No summary row (contracts inserted outside the API) -> aggregated
+    @Test
+    void shouldFallBackToTheContractsWithoutSummary() {
+        jdbc.update("DELETE FROM client_cost_summary WHERE client_id = ?", alice.getClientId());
+
+        assertThat(costSummaryService.getActiveCost(alice.getClientId())).isEqualByComparingTo("400");
+    }
+
+    // --------------
+    // --- Writes ---
+    // --------------
+
+    // Writes -> Create, patch, delete and force close keep the rollup up to date
+    @Test
+    void shouldRefreshOnContractWrites() {
+        LocalDateTime endDate = LocalDateTime.now().plusDays(30).withNano(0);
+        Contract created = contractService.createContract(
+                new ContractDto(null, alice.getClientId(), null, endDate, new BigDecimal("100")), alice);
+        assertSummary(2, "500", endDate);
+
+        ContractPatchDto patch = new ContractPatchDto();
+        patch.setCostAmount(new BigDecimal("150"));
+        contractService.partialUpdate(created.getContractId(), patch);
+        assertSummary(2, "550", endDate);
+
+        contractService.forceCloseContract(created.getContractId());
+        assertSummary(1, "400", null);
+
+        Contract open = contractService.getActiveContracts(alice.getClientId()).get(0);
+        contractService.deleteContract(open.getContractId());
+        assertSummary(0, "0", null);
+    }
+
+    // Writes -> Concurrent creations for the same client are all counted
+    @Test
+    void shouldRefreshConcurrentWrites() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 25; j++) {
+                    contractService.createContract(
+                            new ContractDto(null, alice.getClientId(), null, null, BigDecimal.ONE), alice);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertSummary(1 + 200, "600", null);
+    }
+
+    // ------------
+    // --- Fold ---
+    // ------------
+
+    // Fold -> Contracts ended since the last write are removed from the rollup
+    @Test
+    void shouldFoldExpiredContracts() {
+        LocalDateTime ended = LocalDateTime.now().minusMinutes(1).withNano(0);
+        // Time has passed: the contract ended without any write through the API
+        jdbc.update("UPDATE contract SET end_date = ? WHERE client_id = ?", ended, alice.getClientId());
+        jdbc.update("UPDATE client_cost_summary SET next_expiry = ? WHERE client_id = ?", ended, alice.getClientId());
+
+        // Pending fold: the read aggregates the contracts
+        assertThat(costSummaryService.getActiveCost(alice.getClientId())).isEqualByComparingTo("0");
+
+        int folded = costSummaryService.foldExpiredContracts();
+
+        assertThat(folded).isEqualTo(1);
+        assertSummary(0, "0", null);
+        assertThat(costSummaryService.foldExpiredContracts()).isZero();
+    }
+
+    // Fold -> Clients with active contracts but no rollup (inserted with SQL, V9999 sample data) get one
+    @Test
+    void shouldCreateMissingRollups() {
+        jdbc.update("DELETE FROM client_cost_summary");
+
+        int folded = costSummaryService.foldExpiredContracts();
+
+        // Alice and Entreprise SA, Bob's contract has ended
+        assertThat(folded).isEqualTo(2);
+        assertThat(summaryRepository.count()).isEqualTo(2);
+        assertSummary(1, "400", null);
+        assertThat(costSummaryService.foldExpiredContracts()).isZero();
+    }
+
+    private void assertSummary(int activeContracts, String activeCost, LocalDateTime nextExpiry) {
+        ClientCostSummary summary = summaryRepository.findById(alice.getClientId()).orElseThrow();
+        assertThat(summary.getActiveContracts()).isEqualTo(activeContracts);
+        assertThat(summary.getActiveCost()).isEqualByComparingTo(activeCost);
+        assertThat(summary.getNextExpiry()).isEqualTo(nextExpiry);
+    }
+
+}
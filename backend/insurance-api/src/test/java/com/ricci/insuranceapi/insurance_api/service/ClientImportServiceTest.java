@@ -0,0 +1,214 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.dto.ClientImportReportDto;
+import com.ricci.insuranceapi.insurance_api.dto.ClientImportReportDto.LineError;
+import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
+import com.ricci.insuranceapi.insurance_api.repository.ClientRepository;
+import com.ricci.insuranceapi.insurance_api.repository.CompanyRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * This class performs integration tests on the ClientImportService.
+ * It verifies the NDJSON import of persons and companies,
+ * the per-line error report and the number of statements per chunk.
+ * Test data is loaded from the InsuranceApiApplicationTests parent class.
+ */
+
+public class ClientImportServiceTest extends InsuranceApiApplicationTests {
+
+    @Autowired
+    private ClientImportService clientImportService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ClientMapper clientMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    // -----------------------
+    // --- Import persons ---
+    // -----------------------
+
+    // Import -> 250 persons in chunks of 100 (api.batch-size)
+    @Test
+    void shouldImportPersonsInChunks() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            ndjson.append(String.format(
+                    "{\"name\":\"Person %d\",\"phone\":\"+4178%07d\",\"email\":\"person%d@example.com\",\"birthdate\":\"1990-01-01\"}\n",
+                    i, i, i));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ClientImportReportDto report = clientImportService.importPersons(toStream(ndjson.toString()));
+
+        // Per chunk: one uniqueness query + one batched insert into client and one into person
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3 * (1 + 2));
+
+        assertThat(report.getCreated()).isEqualTo(250);
+        assertThat(report.getRejected()).isZero();
+        assertThat(report.getErrors()).isEmpty();
+        assertThat(clientRepository.count()).isEqualTo(3 + 250);
+    }
+
+    // Import -> Errors reported per line, the valid lines are imported
+    @Test
+    void shouldReportErrorsPerLine() {
+        String ndjson = """
+                {"name":"Charlie","phone":"+41770000001","email":"charlie@example.com"}
+                {"name":"Alice again","phone":"+41791234567","email":"alice2@example.com"}
+                {"name":"Charlie twin","phone":"+41770000002","email":"charlie@example.com"}
+
+                {"name":"Bad phone","phone":"123"}
+                {"name":"Unknown field","foo":"bar"}
+                not json
+                {"name":"Dave","birthdate":"1990-01-01"}
+                """;
+
+        ClientImportReportDto report = clientImportService.importPersons(toStream(ndjson));
+
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(5);
+        assertThat(report.isErrorsTruncated()).isFalse();
+        assertThat(report.getErrors()).extracting(LineError::getLine).containsExactlyInAnyOrder(2L, 3L, 5L, 6L, 7L);
+        assertThat(errorsOfLine(report, 2)).containsEntry("phone", "Phone already exists");
+        assertThat(errorsOfLine(report, 3)).containsEntry("email", "Email already exists");
+        assertThat(errorsOfLine(report, 5)).containsKey("phone");
+        assertThat(errorsOfLine(report, 6)).containsKey("foo");
+        assertThat(errorsOfLine(report, 7)).containsKey("line");
+        assertThat(clientRepository.count()).isEqualTo(3 + 2);
+    }
+
+    // -------------------------
+    // --- Import companies ---
+    // -------------------------
+
+    // Import -> Company identifiers checked against the database and the file
+    @Test
+    void shouldRejectDuplicateCompanyIdentifiers() {
+        String ndjson = """
+                {"name":"Existing","companyIdentifier":"CH-123.456.789"}
+                {"name":"New","companyIdentifier":"CHE-1"}
+                {"name":"New twin","companyIdentifier":"CHE-1"}
+                """;
+
+        ClientImportReportDto report = clientImportService.importCompanies(toStream(ndjson));
+
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(LineError::getLine).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(errorsOfLine(report, 1)).containsEntry("companyIdentifier", "Company identifier already exists");
+        assertThat(companyRepository.existsByCompanyIdentifier("CHE-1")).isTrue();
+    }
+
+    // ------------------------------
+    // --- Concurrent duplicates ---
+    // ------------------------------
+
+    // Import -> Phone inserted by another transaction between the uniqueness query and the flush:
+    // the chunk is retried, only the line with that phone is rejected
+    @Test
+    void shouldRetryChunkOnConcurrentInsert() {
+        AtomicInteger uniquenessQueries = new AtomicInteger();
+        ClientRepository racingRepository = (ClientRepository) Proxy.newProxyInstance(
+                ClientRepository.class.getClassLoader(), new Class<?>[] { ClientRepository.class },
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(clientRepository, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                    if (method.getName().equals("findTakenUniqueKeys") && uniquenessQueries.incrementAndGet() == 2) {
+                        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+                        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                        concurrent.executeWithoutResult(status -> jdbc.update("""
+                                WITH racer AS (
+                                    INSERT INTO client (phone, email, name)
+                                    VALUES ('+41770000004', 'racer@example.com', 'Racer')
+                                    RETURNING client_id
+                                )
+                                INSERT INTO person (client_id) SELECT client_id FROM racer
+                                """));
+                    }
+                    return result;
+                });
+        ClientImportService service = new ClientImportService(racingRepository, clientMapper, entityManager,
+                objectMapper, validator, transactionManager, 2, 1000);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            ndjson.append("{\"name\":\"Person %d\",\"phone\":\"+4177000000%d\",\"email\":\"person%d@example.com\"}\n"
+                    .formatted(i, i, i));
+        }
+
+        ClientImportReportDto report = service.importPersons(toStream(ndjson.toString()));
+
+        assertThat(report.getCreated()).isEqualTo(4);
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(LineError::getLine).containsExactly(4L);
+        assertThat(errorsOfLine(report, 4)).containsExactly(Map.entry("phone", "Phone already exists"));
+        assertThat(uniquenessQueries).hasValue(4); // 3 chunks + 1 retry
+        assertThat(clientRepository.count()).isEqualTo(3 + 4 + 1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM client WHERE email = 'person3@example.com'",
+                Integer.class)).isEqualTo(1);
+    }
+
+    private InputStream toStream(String ndjson) {
+        return new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Map<String, String> errorsOfLine(ClientImportReportDto report, long line) {
+        return report.getErrors().stream()
+                .filter(error -> error.getLine() == line)
+                .findFirst()
+                .orElseThrow()
+                .getErrors();
+    }
+
+}
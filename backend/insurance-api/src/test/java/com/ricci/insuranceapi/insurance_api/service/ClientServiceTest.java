@@ -1,13 +1,18 @@
 package com.ricci.insuranceapi.insurance_api.service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
 import com.ricci.insuranceapi.insurance_api.dto.ClientPatchDto;
@@ -17,6 +22,8 @@ import com.ricci.insuranceapi.insurance_api.model.Client;
 import com.ricci.insuranceapi.insurance_api.model.Contract;
 import com.ricci.insuranceapi.insurance_api.model.Person;
 
+import jakarta.persistence.EntityManagerFactory;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -36,6 +43,12 @@ class ClientServiceTest extends InsuranceApiApplicationTests {
     @Autowired
     private ContractService contractService;
 
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private PageRequest fullPageRequest = PageRequest.of(0, 10);
     private PageRequest firstPageSizeOne = PageRequest.of(0, 1);
 
@@ -127,11 +140,13 @@ class ClientServiceTest extends InsuranceApiApplicationTests {
         Client firstClient = clientService.getAllClients(fullPageRequest).getContent().get(0);
         List<Contract> firstContracts = contractService.getActiveContracts(firstClient.getClientId());
 
-        Client deleted = clientService.deleteClient(firstClient.getClientId());
+        ClientDeletion deletion = clientService.deleteClient(firstClient.getClientId());
+        Client deleted = deletion.client();
         List<Contract> deletedContracts = contractService.getActiveContracts(deleted.getClientId());
 
         assertThat(firstContracts).isNotNull().isNotEmpty();
         assertThat(deletedContracts).isNotNull().isEmpty(); // No active contracts
+        assertThat(deletion.closedContracts()).isEqualTo(firstContracts.size());
 
         LocalDate deletionDate = deleted.getDeletionDate().toLocalDate();
         assertThat(deletionDate).isEqualTo(LocalDate.now());
@@ -147,15 +162,53 @@ class ClientServiceTest extends InsuranceApiApplicationTests {
     void shouldNotReDeleteAlreadyDeletedClient() {
         // First deletion
         Client firstClient = clientService.getAllClients(fullPageRequest).getContent().get(0);
-        Client firstDeleted = clientService.deleteClient(firstClient.getClientId());
+        Client firstDeleted = clientService.deleteClient(firstClient.getClientId()).client();
         assertThat(firstDeleted.getIsDeleted()).isTrue();
 
         // Second deletion should not change anything
-        Client secondDeleted = clientService.deleteClient(firstClient.getClientId());
+        ClientDeletion secondDeletion = clientService.deleteClient(firstClient.getClientId());
+        Client secondDeleted = secondDeletion.client();
+        assertThat(secondDeletion.closedContracts()).isZero();
         assertThat(secondDeleted.getIsDeleted()).isTrue();
         assertThat(isSameLocalDateTime(firstDeleted.getDeletionDate(), secondDeleted.getDeletionDate())).isTrue();
     }
 
+    // Delete -> Contracts closed with a single UPDATE
+    @Test
+    void shouldCloseAllActiveContractsInOneStatement() {
+        // Alice (one active contract in test data), explicit sort for a stable order
+        Client firstClient = clientService.getAllClients(PageRequest.of(0, 10, Sort.by("name"))).getContent().get(0);
+        UUID clientId = firstClient.getClientId();
+        LocalDateTime ended = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+        // 500 open-ended, 100 future end dates and 1 already ended (+ 1 active from test data)
+        jdbc.update("""
+                INSERT INTO contract (client_id, start_date, end_date, update_date, cost_amount)
+                SELECT ?, LOCALTIMESTAMP, CASE WHEN g > 500 THEN LOCALTIMESTAMP + INTERVAL '1 year' END,
+                       LOCALTIMESTAMP, 10
+                FROM generate_series(1, 600) g
+                """, clientId);
+        jdbc.update("""
+                INSERT INTO contract (client_id, start_date, end_date, update_date, cost_amount)
+                VALUES (?, ?, ?, ?, 10)
+                """, clientId, ended, ended, ended);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ClientDeletion deletion = clientService.deleteClient(clientId);
+
+        // Update client + update contracts + lock and refresh the cost summary
+        // (client read from the second-level cache, loaded by getAllClients)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2 + 2);
+        assertThat(deletion.closedContracts()).isEqualTo(601);
+        assertThat(contractService.getActiveContracts(clientId)).isEmpty();
+
+        // Already ended contract is untouched
+        Integer untouched = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM contract WHERE client_id = ? AND end_date = ?", Integer.class, clientId, ended);
+        assertThat(untouched).isEqualTo(1);
+    }
+
     // ------------------
     // --- Exceptions ---
     // ------------------
@@ -185,16 +238,28 @@ class ClientServiceTest extends InsuranceApiApplicationTests {
     // Validate fields -> ClientInvalidDataException (unique email and phone)
     @Test
     void shouldContainUniqueEmailAndPhone() {
-        Client firstClient = clientService.getAllClients(fullPageRequest).getContent().get(0);
-        // Since Client class is abstract, need a concrete child
-        if (firstClient instanceof Person original) {
-            Person duplicate = new Person();
-            duplicate.setEmail(original.getEmail());
-            duplicate.setPhone(firstClient.getPhone());
-            assertThrows(ClientInvalidDataException.class, () -> {
-                clientService.validateUniquePhoneOrEmail(duplicate);
-            });
-        }
+        List<Client> clients = clientService.getAllClients(fullPageRequest).getContent();
+        Client first = clients.get(0);
+        Client second = clients.get(1);
+
+        // Phone of another client, rejected by the client_phone_key constraint
+        ClientPatchDto phone = new ClientPatchDto();
+        phone.setPhone(second.getPhone());
+        ClientInvalidDataException phoneEx = assertThrows(ClientInvalidDataException.class, () -> {
+            clientService.partialUpdate(first.getClientId(), phone);
+        });
+        assertThat(phoneEx.getMessage()).isEqualTo("Phone already exists");
+
+        // Email of another client, rejected by the client_email_key constraint
+        ClientPatchDto email = new ClientPatchDto();
+        email.setEmail(second.getEmail());
+        ClientInvalidDataException emailEx = assertThrows(ClientInvalidDataException.class, () -> {
+            clientService.partialUpdate(first.getClientId(), email);
+        });
+        assertThat(emailEx.getMessage()).isEqualTo("Email already exists");
+
+        // Nothing written
+        assertThat(clientService.getClient(first.getClientId()).getPhone()).isEqualTo(first.getPhone());
     }
 
 }
@@ -77,9 +77,14 @@ public class CompanyServiceTest extends InsuranceApiApplicationTests {
         // Since Client class is abstract, need a concrete child
         CompanyDto duplicate = new CompanyDto();
         duplicate.setCompanyIdentifier(firstCompany.getCompanyIdentifier());
-        assertThrows(ClientInvalidDataException.class, () -> {
+        duplicate.setEmail("duplicate@example.com");
+        duplicate.setName("Duplicate SA");
+        duplicate.setPhone("+41 22 000 00 01");
+        ClientInvalidDataException ex = assertThrows(ClientInvalidDataException.class, () -> {
             companyService.createCompany(duplicate);
         });
+        // Rejected by the company_company_identifier_key constraint
+        assertThat(ex.getMessage()).isEqualTo("Company identifier already exists");
     }
 
 }
@@ -1,23 +1,31 @@
 package com.ricci.insuranceapi.insurance_api.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
 import com.ricci.insuranceapi.insurance_api.dto.ContractDto;
 import com.ricci.insuranceapi.insurance_api.dto.ContractPatchDto;
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
 import com.ricci.insuranceapi.insurance_api.exception.ContractNotFoundException;
 import com.ricci.insuranceapi.insurance_api.model.Client;
 import com.ricci.insuranceapi.insurance_api.model.Contract;
 import com.ricci.insuranceapi.insurance_api.repository.ClientRepository;
+import com.ricci.insuranceapi.insurance_api.repository.ContractRepository;
+
+import jakarta.persistence.EntityManagerFactory;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -37,6 +45,12 @@ public class ContractServiceTest extends InsuranceApiApplicationTests {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private final PageRequest fullPageRequest = PageRequest.of(0, 10);
     private PageRequest firstPageSizeOne = PageRequest.of(0, 1);
 
@@ -119,6 +133,40 @@ public class ContractServiceTest extends InsuranceApiApplicationTests {
         }
     }
 
+    // Create -> Batch of contracts, invalid items rejected
+    @Test
+    void shouldCreateContractsInBatch() {
+        Client client = clientRepository.findAll().get(0);
+        List<ContractDto> dtos = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            dtos.add(new ContractDto(null, client.getClientId(), null, null, new BigDecimal(i)));
+        }
+        dtos.add(new ContractDto(null, client.getClientId(), null, null, new BigDecimal("-1"))); // Negative cost
+        dtos.add(new ContractDto(null, UUID.randomUUID(), null, null, BigDecimal.ONE)); // Unknown client
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ContractBatchResult> results = contractService.createContracts(dtos);
+
+        // One query for the clients + one batched insert per 100 contracts (api.batch-size)
+        // + lock and refresh the cost summary
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + 10 + 2);
+
+        assertThat(results).hasSize(1002);
+        assertThat(results.stream().filter(ContractBatchResult::isCreated)).hasSize(1000);
+        assertThat(results.get(1000).errors()).containsKey("costAmount");
+        assertThat(results.get(1001).errors()).containsKey("clientId");
+        assertThat(contractRepository.count()).isEqualTo(3 + 1000);
+    }
+
+    // Create -> Empty batch
+    @Test
+    void shouldNotCreateEmptyBatch() {
+        assertThrows(ClientInvalidDataException.class, () -> {
+            contractService.createContracts(List.of());
+        });
+    }
+
     // ------------------------
     // --- Update contracts ---
     // ------------------------
@@ -151,7 +199,9 @@ public class ContractServiceTest extends InsuranceApiApplicationTests {
     // Delete -> Soft Delete Contract
     @Test
     void shouldSoftDeleteContract() {
-        Contract firstContract = contractService.getAllContracts(fullPageRequest).getContent().get(0);
+        // Latest started contract (open-ended in test data), explicit sort for a stable order
+        PageRequest latestFirst = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "startDate"));
+        Contract firstContract = contractService.getAllContracts(latestFirst).getContent().get(0);
         assertThat(firstContract.getEndDate()).isNull();
 
         LocalDateTime now = LocalDateTime.now();
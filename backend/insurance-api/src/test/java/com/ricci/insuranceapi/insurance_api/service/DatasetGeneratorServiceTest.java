@@ -0,0 +1,165 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.dto.ClientDto;
+import com.ricci.insuranceapi.insurance_api.dto.CompanyDto;
+import com.ricci.insuranceapi.insurance_api.dto.PersonDto;
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
+import com.ricci.insuranceapi.insurance_api.utils.CsvUtils;
+
+import jakarta.validation.Validator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * This class performs integration tests on the DatasetGeneratorService (synthetic portfolio written with COPY).
+ * 300 persons and 100 companies in chunks of 64 clients, written by 2 threads.
+ * Test data is loaded from the InsuranceApiApplicationTests parent class.
+ */
+
+class DatasetGeneratorServiceTest extends InsuranceApiApplicationTests {
+
+    private static final DatasetSpec SPEC = new DatasetSpec(300, 100, 5, 1.5, 100, 0.3, 0.2, 42, 0);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CsvUtils csvUtils;
+
+    @Autowired
+    private Validator validator;
+
+    private DatasetGeneratorService datasetGeneratorService;
+
+    @BeforeEach
+    void createService() {
+        datasetGeneratorService = new DatasetGeneratorService(jdbc, transactionManager, csvUtils, 64, 2);
+    }
+
+    private int count(String sql) {
+        return jdbc.queryForObject(sql, Integer.class);
+    }
+
+    // ---------------
+    // --- Clients ---
+    // ---------------
+
+    // Clients -> Persons and companies valid for the API, unique phones, emails and identifiers
+    @Test
+    void shouldGenerateValidClients() throws IOException {
+        DatasetReport report = datasetGeneratorService.generate(SPEC);
+
+        assertThat(report.chunks()).isEqualTo(7);
+        assertThat(report.persons()).isEqualTo(300);
+        assertThat(report.companies()).isEqualTo(100);
+        assertThat(report.skipped()).isZero();
+        assertThat(count("SELECT COUNT(*) FROM client WHERE email LIKE '%.ch'")).isEqualTo(400);
+        assertThat(count("SELECT COUNT(*) FROM person p JOIN client c USING (client_id) WHERE c.email LIKE '%.ch'"
+                + " AND c.client_type = 'PERSON'")).isEqualTo(300);
+        assertThat(count("SELECT COUNT(DISTINCT company_identifier) FROM company co JOIN client c USING (client_id)"
+                + " WHERE c.email LIKE '%.ch' AND c.client_type = 'COMPANY'")).isEqualTo(100);
+
+        List<Map<String, Object>> clients = jdbc.queryForList("""
+                SELECT c.phone, c.email, c.name, p.birthdate, co.company_identifier
+                FROM client c
+                LEFT JOIN person p ON p.client_id = c.client_id
+                LEFT JOIN company co ON co.client_id = c.client_id
+                WHERE c.email LIKE '%.ch'
+                """);
+        for (Map<String, Object> client : clients) {
+            ClientDto dto = client.get("company_identifier") == null
+                    ? new PersonDto(((Date) client.get("birthdate")).toLocalDate())
+                    : new CompanyDto((String) client.get("company_identifier"));
+            dto.setPhone((String) client.get("phone"));
+            dto.setEmail((String) client.get("email"));
+            dto.setName((String) client.get("name"));
+            assertThat(validator.validate(dto)).as(client.toString()).isEmpty();
+        }
+    }
+
+    // Clients -> Same offset again: phones already taken, all skipped; other offset: all inserted
+    @Test
+    void shouldSkipClientsAlreadyTaken() throws IOException {
+        datasetGeneratorService.generate(SPEC);
+        int contracts = count("SELECT COUNT(*) FROM contract");
+
+        DatasetReport again = datasetGeneratorService.generate(SPEC);
+        assertThat(again.skipped()).isEqualTo(400);
+        assertThat(again.rows()).isZero();
+        assertThat(count("SELECT COUNT(*) FROM contract")).isEqualTo(contracts);
+
+        DatasetReport next = datasetGeneratorService.generate(
+                new DatasetSpec(300, 100, 5, 1.5, 100, 0.3, 0.2, 42, SPEC.clients()));
+        assertThat(next.skipped()).isZero();
+        assertThat(count("SELECT COUNT(*) FROM client WHERE email LIKE '%.ch'")).isEqualTo(800);
+    }
+
+    // -----------------
+    // --- Contracts ---
+    // -----------------
+
+    // Contracts -> Skewed count per client, mixed end dates, cost changes, summaries equal to the contracts
+    @Test
+    void shouldGenerateSkewedContracts() throws IOException {
+        DatasetReport report = datasetGeneratorService.generate(SPEC);
+
+        List<Integer> perClient = jdbc.queryForList("""
+                SELECT COUNT(ct.contract_id)::int FROM client c LEFT JOIN contract ct ON ct.client_id = c.client_id
+                WHERE c.email LIKE '%.ch' GROUP BY c.client_id
+                """, Integer.class);
+        assertThat(perClient.stream().mapToLong(Integer::longValue).sum()).isEqualTo(report.contracts());
+        assertThat(perClient.stream().filter(contracts -> contracts <= 2).count()).isGreaterThan(100);
+        assertThat(perClient.stream().mapToInt(Integer::intValue).max().orElseThrow()).isGreaterThan(20);
+
+        double contracts = report.contracts();
+        double ended = count("SELECT COUNT(*) FROM contract WHERE end_date < LOCALTIMESTAMP");
+        double future = count("SELECT COUNT(*) FROM contract WHERE end_date > LOCALTIMESTAMP");
+        assertThat(ended / contracts).isBetween(0.2, 0.4);
+        assertThat(future / contracts).isBetween(0.1, 0.3);
+        assertThat(count("SELECT COUNT(*) FROM contract WHERE end_date <= start_date OR update_date < start_date"))
+                .isZero();
+        assertThat(count("SELECT COUNT(*) FROM contract WHERE version > 0 AND update_date > start_date"))
+                .isPositive();
+
+        assertThat(count("""
+                SELECT COUNT(*) FROM client_cost_summary s
+                JOIN client c ON c.client_id = s.client_id AND c.email LIKE '%.ch'
+                CROSS JOIN LATERAL (
+                    SELECT COUNT(*) AS active_contracts, COALESCE(SUM(ct.cost_amount), 0) AS active_cost,
+                        MIN(ct.end_date) AS next_expiry
+                    FROM contract ct
+                    WHERE ct.client_id = s.client_id
+                    AND (ct.end_date IS NULL OR LOCALTIMESTAMP < ct.end_date)) a
+                WHERE s.active_contracts <> a.active_contracts OR s.active_cost <> a.active_cost
+                    OR s.next_expiry IS DISTINCT FROM a.next_expiry
+                """)).isZero();
+        assertThat(count("SELECT COUNT(*) FROM client_cost_summary s JOIN client c USING (client_id)"
+                + " WHERE c.email LIKE '%.ch'")).isEqualTo(400);
+    }
+
+    // Spec -> Skew of 1 or less (infinite mean), ratios above 1
+    @Test
+    void shouldRejectInvalidSpec() {
+        assertThatThrownBy(() -> new DatasetSpec(10, 0, 5, 1, 100, 0.3, 0.3, 42, 0))
+                .isInstanceOf(ClientInvalidDataException.class);
+        assertThatThrownBy(() -> new DatasetSpec(10, 0, 5, 1.5, 100, 0.8, 0.3, 42, 0))
+                .isInstanceOf(ClientInvalidDataException.class);
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.ricci.insuranceapi.insurance_api.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
+import com.ricci.insuranceapi.insurance_api.mapper.ClientMapper;
+import com.ricci.insuranceapi.insurance_api.mapper.ContractMapper;
+import com.ricci.insuranceapi.insurance_api.utils.CsvUtils;
+import com.ricci.insuranceapi.insurance_api.utils.ExportFormat;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * This class performs integration tests on the ExportService (streamed exports).
+ * The formats and the endpoints are tested in the controller tests.
+ * Test data is loaded from the InsuranceApiApplicationTests parent class.
+ */
+
+class ExportServiceTest extends InsuranceApiApplicationTests {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClientMapper clientMapper;
+
+    @Autowired
+    private ContractMapper contractMapper;
+
+    @Autowired
+    private CsvUtils csvUtils;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    // ---------------
+    // --- Helpers ---
+    // ---------------
+
+    private List<String> exportContractLines(ExportService service) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportContracts(ExportFormat.NDJSON, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    // --------------
+    // --- Export ---
+    // --------------
+
+    // Export -> Rows fetched over several cursor round trips, no entity loaded
+    @Test
+    void shouldExportWithSmallFetchSize() throws IOException {
+        ExportService oneRowPerFetch = new ExportService(entityManager, objectMapper, clientMapper, contractMapper,
+                csvUtils, transactionManager, 1, Duration.ofMinutes(1));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<String> lines = exportContractLines(oneRowPerFetch);
+
+        Integer contracts = jdbc.queryForObject("SELECT COUNT(*) FROM contract", Integer.class);
+        assertThat(lines).hasSize(contracts);
+        assertThat(lines).containsExactlyInAnyOrderElementsOf(exportContractLines(exportService));
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    // Export -> Client disconnect: the export stops and the connection is released
+    @Test
+    void shouldStopOnClientDisconnect() throws SQLException {
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> exportService.exportClients(ExportFormat.CSV, disconnected))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+        // Pool behind the statement counter of the tests (SqlStatementCounter)
+        HikariDataSource primaryDataSource = dataSource.unwrap(HikariDataSource.class);
+        assertThat(primaryDataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+    }
+
+}
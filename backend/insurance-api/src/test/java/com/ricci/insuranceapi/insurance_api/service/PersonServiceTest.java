@@ -1,17 +1,31 @@
 package com.ricci.insuranceapi.insurance_api.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.ricci.insuranceapi.insurance_api.InsuranceApiApplicationTests;
 import com.ricci.insuranceapi.insurance_api.dto.PersonDto;
+import com.ricci.insuranceapi.insurance_api.exception.ClientInvalidDataException;
 import com.ricci.insuranceapi.insurance_api.model.Person;
 
+import jakarta.persistence.EntityManagerFactory;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /*
  * This class performs integration tests on the PersonService.
@@ -26,6 +40,12 @@ public class PersonServiceTest extends InsuranceApiApplicationTests {
     @Autowired
     PersonService personService;
 
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private PageRequest fullPageRequest = PageRequest.of(0, 10);
 
     // ----------------------
@@ -66,4 +86,76 @@ public class PersonServiceTest extends InsuranceApiApplicationTests {
         assertThat(created.getPhone()).isEqualTo(newPerson.getPhone());
     }
 
+    // Create -> No uniqueness pre-check, only the INSERTs (client + person)
+    @Test
+    void shouldCreatePersonWithoutPreCheckQueries() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        personService.createPerson(newPerson("+41 79 000 00 01", "unique@example.com"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    // ------------------
+    // --- Exceptions ---
+    // ------------------
+
+    // Validate fields -> ClientInvalidDataException (unique email and phone)
+    @Test
+    void shouldRejectDuplicatePhoneOrEmail() {
+        ClientInvalidDataException phoneEx = assertThrows(ClientInvalidDataException.class, () -> {
+            personService.createPerson(newPerson("+41791234567", "other@example.com"));
+        });
+        assertThat(phoneEx.getMessage()).isEqualTo("Phone already exists");
+
+        ClientInvalidDataException emailEx = assertThrows(ClientInvalidDataException.class, () -> {
+            personService.createPerson(newPerson("+41 79 000 00 02", "alice@example.com"));
+        });
+        assertThat(emailEx.getMessage()).isEqualTo("Email already exists");
+    }
+
+    // Validate fields -> Concurrent creations with the same phone, only one wins
+    @Test
+    void shouldCreateOnlyOneOfConcurrentDuplicates() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Person>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            PersonDto dto = newPerson("+41 79 999 99 99", "race" + i + "@example.com");
+            futures.add(executor.submit(() -> {
+                start.await();
+                return personService.createPerson(dto);
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<Person> future : futures) {
+            try {
+                future.get();
+                created++;
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause()).isInstanceOf(ClientInvalidDataException.class)
+                        .hasMessage("Phone already exists");
+            }
+        }
+        executor.shutdown();
+
+        assertThat(created).isEqualTo(1);
+        Integer rows = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM client WHERE phone = '+41 79 999 99 99'", Integer.class);
+        assertThat(rows).isEqualTo(1);
+    }
+
+    private PersonDto newPerson(String phone, String email) {
+        PersonDto dto = new PersonDto();
+        dto.setBirthdate(LocalDate.of(1995, 3, 12));
+        dto.setEmail(email);
+        dto.setName("Person Name");
+        dto.setPhone(phone);
+        return dto;
+    }
+
 }
@@ -107,4 +107,20 @@ SELECT
 FROM
     public.client c
 WHERE
-    c."email" = 'entreprise@example.com';
\ No newline at end of file
+    c."email" = 'entreprise@example.com';
+
+-- Cost summaries of the active contracts (client_cost_summary, V5)
+INSERT INTO
+    public.client_cost_summary (client_id, active_contracts, active_cost, next_expiry)
+SELECT
+    c."client_id",
+    COUNT(*),
+    SUM(c."cost_amount"),
+    MIN(c."end_date")
+FROM
+    public.contract c
+WHERE
+    c."end_date" IS NULL
+    OR c."end_date" > LOCALTIMESTAMP
+GROUP BY
+    c."client_id";
@@ -1,3 +1,6 @@
+-- Schema changes after this script are Flyway migrations:
+-- backend/insurance-api/src/main/resources/db/migration/main
+--
 -- Module for gen_random_uuid()
 CREATE EXTENSION IF NOT EXISTS pgcrypto;
 
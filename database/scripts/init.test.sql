@@ -1,5 +1,8 @@
 -- Same as init.sql for the test database
 --
+-- Schema changes after this script are Flyway migrations:
+-- backend/insurance-api/src/main/resources/db/migration/main
+--
 -- Module for gen_random_uuid()
 CREATE EXTENSION IF NOT EXISTS pgcrypto;
 